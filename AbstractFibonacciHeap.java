@@ -0,0 +1,504 @@
+/**
+ * AbstractFibonacciHeap
+ *
+ * The structure of a Fibonacci Heap (roots list, successive linking and cascading cuts) shared by the heaps that
+ * carry a payload next to their key. A subclass defines the key of its node type and how two nodes compare.
+ *
+ * FibonacciHeap does not extend this class. Its HeapNode is public API with int keys and setters, its key
+ * comparisons stay monomorphic int compares on the hot path, and its node pool, lazy delete, events, metrics,
+ * snapshots and checkpoints all work on HeapNode fields directly. The cost is a second copy of the structure:
+ * a change to insertNode, deleteMin, successiveLinking, link, cut, cascadingCut or the choice of the new minimum
+ * here has to be mirrored in FibonacciHeap (insert, deleteMin, SuccessiveLinking, link, cut, cascadingCut,
+ * findNewMin), and the other way around.
+ *
+ * @param <N> the node type of the heap
+ */
+public abstract class AbstractFibonacciHeap<N extends AbstractFibonacciHeap.Node<N>>
+{
+    private N min_node;
+    private N first;
+    private int size;
+    private int count_roots;
+    private int count_marked;
+    private long count_links;
+    private long count_cuts;
+    private Node<?>[] buckets = new Node<?>[0];
+
+    /**
+     * protected abstract boolean less(N node1, N node2)
+     *
+     * Returns true if and only if the key of node1 is smaller than the key of node2.
+     */
+    protected abstract boolean less(N node1, N node2);
+
+    /**
+     * public N findMin()
+     *
+     * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+     *
+     * time complexity: O(1)
+     */
+    public N findMin() {
+        return this.min_node;
+    }
+
+    /**
+     * public N getFirst()
+     *
+     * Returns the first root in the roots list of the heap
+     */
+    public N getFirst() {
+        return this.first;
+    }
+
+    /**
+     * public boolean isEmpty()
+     *
+     * Returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * public int size()
+     *
+     * Returns the number of elements in the heap.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * public int getRootsNum()
+     *
+     * returns the number of roots in the heap
+     */
+    public int getRootsNum() {
+        return this.count_roots;
+    }
+
+    /**
+     * public int getMarkedNum()
+     *
+     * returns the number of marked nodes in the heap
+     */
+    public int getMarkedNum() {
+        return this.count_marked;
+    }
+
+    /**
+     * public int potential()
+     *
+     * This function returns the current potential of the heap: #trees + 2*#marked
+     */
+    public int potential() {
+        return this.count_roots + 2 * this.count_marked;
+    }
+
+    /**
+     * public long links()
+     *
+     * Returns the number of link operations made by this heap.
+     */
+    public long links() {
+        return this.count_links;
+    }
+
+    /**
+     * public long cuts()
+     *
+     * Returns the number of cut operations made by this heap.
+     */
+    public long cuts() {
+        return this.count_cuts;
+    }
+
+    /**
+     * protected N insertNode(N node)
+     *
+     * inserts a new node, whose key was already set by the subclass, into the roots list of the heap.
+     *
+     * time complexity: O(1)
+     */
+    protected N insertNode(N node) {
+        if (this.isEmpty()) {
+            this.min_node = node;
+            node.setNext(node);
+        }
+        else {
+            this.first.getPrev().setNext(node);
+            node.setNext(this.first);
+            this.findNewMin(node);
+        }
+        this.first = node;
+        this.size += 1;
+        this.count_roots += 1;
+        return node;
+    }
+
+    /**
+     * public N deleteMin()
+     *
+     * Deletes the node containing the minimum key.
+     *
+     * Returns the deleted node, or null if the heap is empty.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public N deleteMin() {
+        if (this.isEmpty()) {
+            return null;
+        }
+        N min = this.min_node;
+        N child = min.getChild();
+        N next = min.getNext();
+        N prev = min.getPrev();
+
+        // if min_node has children, they replace it in the list of roots of the heap
+        if (min.getRank() != 0) {
+            if (this.count_roots == 1) {
+                this.first = child;
+            }
+            else {
+                child.getPrev().setNext(next);
+                prev.setNext(child);
+                if (min == this.first) {
+                    this.first = child;
+                }
+            }
+            N child_for_loop = child;
+            for (int i = 1; i <= min.getRank(); i++) {
+                this.setNodeMarked(child_for_loop, false);
+                child_for_loop.parent = null;
+                child_for_loop = child_for_loop.getNext();
+            }
+        }
+        else {
+            if (this.count_roots == 1) {
+                this.first = null;
+            }
+            else {
+                prev.setNext(next);
+                if (min == this.first) {
+                    this.first = next;
+                }
+            }
+        }
+        this.count_roots += min.getRank() - 1;
+        this.size -= 1;
+        min.child = null;
+        min.next = null;
+        min.prev = null;
+        min.rank = 0;
+        this.min_node = this.successiveLinking();
+        return min;
+    }
+
+    /**
+     * public void delete(N x)
+     *
+     * Deletes the node x from the heap. It is assumed that x indeed belongs to the heap.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public void delete(N x) {
+        N parent = x.getParent();
+        if (parent != null) {
+            this.cascadingCut(x, parent);
+        }
+        // x is now a root, making it the min_node lets deleteMin remove it regardless of its key
+        this.min_node = x;
+        this.deleteMin();
+    }
+
+    /**
+     * protected void keyDecreased(N x)
+     *
+     * restores the heap order after the subclass decreased the key of x, cutting x from its parent if needed.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    protected void keyDecreased(N x) {
+        N parent = x.getParent();
+        if (parent == null) {
+            this.findNewMin(x);
+            return;
+        }
+        if (!this.less(x, parent)) {
+            return;
+        }
+        this.cascadingCut(x, parent);
+        // the ancestors cut with x are no smaller than the old min_node, only x can replace it
+        this.findNewMin(x);
+    }
+
+    /**
+     * protected void meldWith(AbstractFibonacciHeap<N> heap2)
+     *
+     * Melds heap2 with the current heap. Both heaps are assumed to order their keys the same way.
+     *
+     * Complexity: O(1)
+     */
+    protected void meldWith(AbstractFibonacciHeap<N> heap2) {
+        if (heap2.isEmpty()) {
+            return;
+        }
+        if (this.isEmpty()) {
+            this.first = heap2.first;
+            this.min_node = heap2.min_node;
+        }
+        else {
+            N last_node_in_this_heap = this.first.getPrev();
+            N last_node_in_heap2 = heap2.first.getPrev();
+            last_node_in_this_heap.setNext(heap2.first);
+            last_node_in_heap2.setNext(this.first);
+            this.findNewMin(heap2.min_node);
+        }
+        this.size += heap2.size;
+        this.count_roots += heap2.count_roots;
+        this.count_marked += heap2.count_marked;
+        this.count_links += heap2.count_links;
+        this.count_cuts += heap2.count_cuts;
+    }
+
+    /**
+     * public int[] countersRep()
+     *
+     * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+     *
+     * Complexity: O(#roots)
+     */
+    public int[] countersRep() {
+        if (this.isEmpty()) {
+            return new int[0];
+        }
+        int max_rank = 0;
+        N node = this.first;
+        for (int i = 0; i < this.count_roots; i++) {
+            max_rank = Math.max(max_rank, node.getRank());
+            node = node.getNext();
+        }
+        int[] countersRep = new int[max_rank + 1];
+        node = this.first;
+        for (int i = 0; i < this.count_roots; i++) {
+            countersRep[node.getRank()]++;
+            node = node.getNext();
+        }
+        return countersRep;
+    }
+
+    /**
+     * private N successiveLinking()
+     *
+     * goes throw all heap roots and links every two trees that have the same rank, then rebuilds the roots list
+     * from the buckets.
+     *
+     * returns the new min_node of the heap after all the links.
+     *
+     * time complexity: WC O(n), amortized O(log n)
+     */
+    @SuppressWarnings("unchecked")
+    private N successiveLinking() {
+        if (this.first == null) {
+            return null;
+        }
+        // the rank of a Fibonacci Heap tree is at most log_phi(n) < 1.5 * log2(n) + 1
+        int max_rank = (32 - Integer.numberOfLeadingZeros(this.size)) * 3 / 2 + 2;
+        if (this.buckets.length < max_rank) {
+            this.buckets = new Node<?>[max_rank];
+        }
+        Node<?>[] buckets = this.buckets;
+        int count_roots_copy = this.count_roots;
+        N node = this.first;
+        N tmp = node.getNext();
+        while (count_roots_copy > 0) {
+            int rank = node.getRank();
+            if (buckets[rank] == null) {
+                buckets[rank] = node;
+                node = tmp;
+                tmp = tmp.getNext();
+                count_roots_copy--;
+            }
+            else {
+                node = this.link(node, (N) buckets[rank]);
+                buckets[rank] = null;
+            }
+        }
+
+        // rebuild the roots list from the buckets, leaving the buckets empty for the next call
+        this.first = null;
+        this.count_roots = 0;
+        N min = null;
+        N last_added_tree = null;
+        for (int i = 0; i < buckets.length; i++) {
+            N tree = (N) buckets[i];
+            if (tree == null) {
+                continue;
+            }
+            buckets[i] = null;
+            this.count_roots += 1;
+            if (this.first == null) {
+                this.first = tree;
+                min = tree;
+            }
+            else {
+                last_added_tree.setNext(tree);
+                if (this.less(tree, min)) {
+                    min = tree;
+                }
+            }
+            last_added_tree = tree;
+        }
+        last_added_tree.setNext(this.first);
+        return min;
+    }
+
+    /**
+     * private N link(N node1, N node2)
+     *
+     * given two trees of the same rank k, this function links them to a one tree of rank k + 1.
+     *
+     * returns the root of the new linked tree
+     *
+     * time complexity: O(1)
+     */
+    private N link(N node1, N node2) {
+        N root;
+        N left_child;
+        if (this.less(node1, node2)) {
+            root = node1;
+            left_child = node2;
+        }
+        else {
+            root = node2;
+            left_child = node1;
+        }
+        if (root.getRank() > 0) {
+            root.getChild().getPrev().setNext(left_child);
+            left_child.setNext(root.getChild());
+        }
+        else {
+            left_child.setNext(left_child);
+        }
+        root.child = left_child;
+        left_child.parent = root;
+        root.rank += 1;
+        this.count_links++;
+        return root;
+    }
+
+    /**
+     * private void cascadingCut(N x, N parent)
+     *
+     * cuts x from its parent, then keeps cutting every marked ancestor until an unmarked one (which gets marked)
+     * or a root is reached.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    private void cascadingCut(N x, N parent) {
+        while (true) {
+            this.cut(x, parent);
+            N grandfather = parent.getParent();
+            if (grandfather == null) {
+                return;
+            }
+            if (!parent.getMarked()) {
+                this.setNodeMarked(parent, true);
+                return;
+            }
+            x = parent;
+            parent = grandfather;
+        }
+    }
+
+    /**
+     * private void cut(N x, N y)
+     *
+     * cuts a node from its parent and adds the node to the root's list of the heap.
+     *
+     * Complexity: O(1)
+     */
+    private void cut(N x, N y) {
+        x.parent = null;
+        this.setNodeMarked(x, false);
+        y.rank -= 1;
+        if (x.getNext() == x) {
+            y.child = null;
+        }
+        else {
+            if (y.getChild() == x) {
+                y.child = x.getNext();
+            }
+            x.getPrev().setNext(x.getNext());
+        }
+        // the caller updates min_node if x is smaller
+        this.first.getPrev().setNext(x);
+        x.setNext(this.first);
+        this.first = x;
+        this.count_roots++;
+        this.count_cuts++;
+    }
+
+    private void findNewMin(N node) {
+        if (this.less(node, this.min_node)) {
+            this.min_node = node;
+        }
+    }
+
+    private void setNodeMarked(N node, boolean value) {
+        if (node.marked != value) {
+            this.count_marked += value ? 1 : -1;
+            node.marked = value;
+        }
+    }
+
+    /**
+     * public abstract static class Node
+     *
+     * The structural part of a heap node. The key and the payload are defined by the subclass.
+     * The structural fields are package-private since AbstractFibonacciHeap reaches them through its node type
+     * variable.
+     *
+     * @param <N> the concrete node type
+     */
+    public abstract static class Node<N extends Node<N>> {
+
+        int rank;
+        boolean marked;
+        N child;
+        N next;
+        N prev;
+        N parent;
+
+        public int getRank() {
+            return this.rank;
+        }
+
+        public boolean getMarked() {
+            return this.marked;
+        }
+
+        public N getChild() {
+            return this.child;
+        }
+
+        public N getNext() {
+            return this.next;
+        }
+
+        public N getPrev() {
+            return this.prev;
+        }
+
+        public N getParent() {
+            return this.parent;
+        }
+
+        @SuppressWarnings("unchecked")
+        void setNext(N next) {
+            this.next = next;
+            next.prev = (N) this;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * AddressablePriorityQueue
+ *
+ * A min priority queue over integers whose entries are addressed by the handle insert returns, so their keys can
+ * be decreased and the entries deleted without searching for them. A handle is only valid while its entry is in
+ * the queue that created it.
+ *
+ * Implemented by FibonacciHeap, PairingHeap, DaryHeap and RadixHeap. PriorityQueueFactory picks one of them by
+ * name or by a hint about the workload.
+ *
+ * @param <H> the handle type of the queue
+ */
+public interface AddressablePriorityQueue<H extends AddressablePriorityQueue.Handle>
+{
+    /**
+     * public H insert(int key)
+     *
+     * Inserts the key into the queue.
+     *
+     * Returns the handle of the new entry.
+     */
+    H insert(int key);
+
+    /**
+     * public H findMin()
+     *
+     * Returns the handle of an entry whose key is minimal, or null if the queue is empty.
+     */
+    H findMin();
+
+    /**
+     * public void deleteMin()
+     *
+     * Deletes the entry returned by findMin. Does nothing if the queue is empty.
+     */
+    void deleteMin();
+
+    /**
+     * public void decreaseKey(H x, int delta)
+     *
+     * Decreases the key of the entry x by a non-negative value delta.
+     */
+    void decreaseKey(H x, int delta);
+
+    /**
+     * public void delete(H x)
+     *
+     * Deletes the entry x from the queue.
+     */
+    void delete(H x);
+
+    /**
+     * public void meld(AddressablePriorityQueue<H> other)
+     *
+     * Moves every entry of other into this queue, other must not be used afterwards. The handles of the moved
+     * entries stay valid. other must be of the same implementation as this queue.
+     *
+     * throws IllegalArgumentException if other is of another implementation.
+     */
+    void meld(AddressablePriorityQueue<H> other);
+
+    /**
+     * public int size()
+     *
+     * Returns the number of entries in the queue.
+     */
+    int size();
+
+    /**
+     * public boolean isEmpty()
+     *
+     * Returns true if and only if the queue is empty.
+     */
+    boolean isEmpty();
+
+    /**
+     * public interface Handle
+     *
+     * An entry of an AddressablePriorityQueue.
+     */
+    interface Handle {
+        /**
+         * public int getKey()
+         *
+         * Returns the current key of the entry.
+         */
+        int getKey();
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Comparator;
+
+/**
+ * ComparatorFibonacciHeap
+ *
+ * A Fibonacci Heap whose keys of type K are ordered by a Comparator, carrying a value of type V on every node.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class ComparatorFibonacciHeap<K, V> extends AbstractFibonacciHeap<ComparatorFibonacciHeap.HeapNode<K, V>>
+{
+    private final Comparator<? super K> comparator;
+
+    public ComparatorFibonacciHeap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * public Comparator<? super K> comparator()
+     *
+     * Returns the comparator that orders the keys of the heap.
+     */
+    public Comparator<? super K> comparator() {
+        return this.comparator;
+    }
+
+    @Override
+    protected boolean less(HeapNode<K, V> node1, HeapNode<K, V> node2) {
+        return this.comparator.compare(node1.key, node2.key) < 0;
+    }
+
+    /**
+     * public HeapNode<K, V> insert(K key, V value)
+     *
+     * Creates a node which contains the given key and value, and inserts it into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(1)
+     */
+    public HeapNode<K, V> insert(K key, V value) {
+        return this.insertNode(new HeapNode<>(key, value));
+    }
+
+    /**
+     * public void decreaseKey(HeapNode<K, V> x, K key)
+     *
+     * Replaces the key of the node x by the given key, which must not be greater than the current one.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKey(HeapNode<K, V> x, K key) {
+        if (this.comparator.compare(key, x.key) > 0) {
+            throw new IllegalArgumentException("new key is greater than the current key");
+        }
+        x.key = key;
+        this.keyDecreased(x);
+    }
+
+    /**
+     * public void meld(ComparatorFibonacciHeap<K, V> heap2)
+     *
+     * Melds heap2 with the current heap. heap2 is assumed to order its keys like this heap.
+     *
+     * Complexity: O(1)
+     */
+    public void meld(ComparatorFibonacciHeap<K, V> heap2) {
+        this.meldWith(heap2);
+    }
+
+    /**
+     * public static class HeapNode
+     *
+     * A node of a ComparatorFibonacciHeap, holding a key and a value.
+     */
+    public static class HeapNode<K, V> extends AbstractFibonacciHeap.Node<HeapNode<K, V>> {
+
+        private K key;
+        private V value;
+
+        public HeapNode(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public K getKey() {
+            return this.key;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        public void setValue(V value) {
+            this.value = value;
+        }
+    }
+}
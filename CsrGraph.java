@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * CsrGraph
+ *
+ * An immutable weighted graph in compressed sparse row form: the out edges of vertex v are the edges
+ * edgesBegin(v) .. edgesEnd(v) - 1, and edge e leads to target(e) with the non-negative weight weight(e).
+ * Vertices are the ints 0 .. verticesNum() - 1.
+ *
+ * An undirected graph stores every edge once in each direction.
+ */
+public final class CsrGraph
+{
+    private static final int READ_BUFFER = 1 << 16;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private CsrGraph(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * public static CsrGraph fromEdges(int vertices_num, int[] sources, int[] targets, int[] weights, int edges_num,
+     *                                  boolean undirected)
+     *
+     * Builds a graph from the first edges_num entries of the edge arrays, edge i leading from sources[i] to
+     * targets[i] with weight weights[i]. weights may be null, giving every edge the weight 1.
+     *
+     * throws IllegalArgumentException if a vertex is out of range or a weight is negative.
+     *
+     * time complexity: O(vertices_num + edges_num)
+     */
+    public static CsrGraph fromEdges(int vertices_num, int[] sources, int[] targets, int[] weights, int edges_num,
+                                     boolean undirected) {
+        if (vertices_num < 0 || edges_num < 0) {
+            throw new IllegalArgumentException("negative number of vertices or edges");
+        }
+        int arcs_num = undirected ? Math.multiplyExact(edges_num, 2) : edges_num;
+        int[] offsets = new int[vertices_num + 1];
+        for (int i = 0; i < edges_num; i++) {
+            checkVertex(sources[i], vertices_num);
+            checkVertex(targets[i], vertices_num);
+            if (weights != null && weights[i] < 0) {
+                throw new IllegalArgumentException("edge " + i + " has a negative weight " + weights[i]);
+            }
+            offsets[sources[i] + 1]++;
+            if (undirected) {
+                offsets[targets[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < vertices_num; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        // fill every vertex's range from its beginning, using a copy of the offsets as the insertion positions
+        int[] positions = Arrays.copyOf(offsets, vertices_num);
+        int[] csr_targets = new int[arcs_num];
+        int[] csr_weights = new int[arcs_num];
+        for (int i = 0; i < edges_num; i++) {
+            int weight = weights == null ? 1 : weights[i];
+            int position = positions[sources[i]]++;
+            csr_targets[position] = targets[i];
+            csr_weights[position] = weight;
+            if (undirected) {
+                position = positions[targets[i]]++;
+                csr_targets[position] = sources[i];
+                csr_weights[position] = weight;
+            }
+        }
+        return new CsrGraph(offsets, csr_targets, csr_weights);
+    }
+
+    /**
+     * public static CsrGraph load(Path path, boolean undirected)
+     *
+     * Reads a graph from an edge list file. Every non-empty line holds one edge, "source target" or
+     * "source target weight", separated by spaces, tabs or commas. An edge without a weight has the weight 1.
+     * Lines starting with '#' or '%' are comments. The number of vertices is the largest vertex in the file plus one.
+     *
+     * The file is read through a FileChannel in fixed size chunks and parsed byte by byte, so no String is created
+     * per line.
+     *
+     * throws IOException if the file can't be read or a line is malformed.
+     *
+     * time complexity: O(file size)
+     */
+    public static CsrGraph load(Path path, boolean undirected) throws IOException {
+        EdgeList edges = new EdgeList();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    edges.accept(buffer.get());
+                }
+                buffer.clear();
+            }
+        }
+        // the last line may not end with a newline
+        edges.accept((byte) '\n');
+        return fromEdges(edges.max_vertex + 1, edges.sources, edges.targets, edges.weights, edges.size, undirected);
+    }
+
+    /**
+     * public int verticesNum()
+     *
+     * returns the number of vertices of the graph
+     */
+    public int verticesNum() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * public int edgesNum()
+     *
+     * returns the number of stored edges, which is twice the number of edges of an undirected graph
+     */
+    public int edgesNum() {
+        return this.targets.length;
+    }
+
+    /**
+     * public int edgesBegin(int v)
+     *
+     * returns the index of the first out edge of v
+     */
+    public int edgesBegin(int v) {
+        return this.offsets[v];
+    }
+
+    /**
+     * public int edgesEnd(int v)
+     *
+     * returns the index after the last out edge of v
+     */
+    public int edgesEnd(int v) {
+        return this.offsets[v + 1];
+    }
+
+    /**
+     * public int degree(int v)
+     *
+     * returns the number of out edges of v
+     */
+    public int degree(int v) {
+        return this.offsets[v + 1] - this.offsets[v];
+    }
+
+    public int target(int edge) {
+        return this.targets[edge];
+    }
+
+    public int weight(int edge) {
+        return this.weights[edge];
+    }
+
+    private static void checkVertex(int v, int vertices_num) {
+        if (v < 0 || v >= vertices_num) {
+            throw new IllegalArgumentException("vertex " + v + " is out of [0, " + vertices_num + ")");
+        }
+    }
+
+    /**
+     * private static final class EdgeList
+     *
+     * the parser of an edge list file. accept consumes the file one byte at a time, collecting the values of the
+     * current line and appending an edge at every line end.
+     */
+    private static final class EdgeList {
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int[] weights = new int[1024];
+        private int size;
+        private int max_vertex = -1;
+
+        private final int[] values = new int[3];
+        private int count_values;
+        private long value = -1;
+        private boolean comment;
+        private long line = 1;
+
+        private void accept(byte b) throws IOException {
+            if (b >= '0' && b <= '9' && !this.comment) {
+                this.value = (this.value < 0 ? 0 : this.value * 10) + (b - '0');
+                if (this.value > Integer.MAX_VALUE) {
+                    throw new IOException("value out of range at line " + this.line);
+                }
+                return;
+            }
+            if (this.value >= 0) {
+                if (this.count_values == this.values.length) {
+                    throw new IOException("more than 3 values at line " + this.line);
+                }
+                this.values[this.count_values++] = (int) this.value;
+                this.value = -1;
+            }
+            if (b == '\n') {
+                this.endLine();
+                this.comment = false;
+                this.line++;
+            }
+            else if (b == '#' || b == '%') {
+                this.comment = true;
+            }
+            else if (!this.comment && b != ' ' && b != '\t' && b != '\r' && b != ',') {
+                throw new IOException("unexpected character '" + (char) b + "' at line " + this.line);
+            }
+        }
+
+        private void endLine() throws IOException {
+            if (this.count_values == 0) {
+                return;
+            }
+            if (this.count_values == 1) {
+                throw new IOException("edge without a target at line " + this.line);
+            }
+            if (this.size == this.sources.length) {
+                int capacity = this.size + (this.size >> 1);
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                this.weights = Arrays.copyOf(this.weights, capacity);
+            }
+            this.sources[this.size] = this.values[0];
+            this.targets[this.size] = this.values[1];
+            this.weights[this.size] = this.count_values == 3 ? this.values[2] : 1;
+            this.max_vertex = Math.max(this.max_vertex, Math.max(this.values[0], this.values[1]));
+            this.size++;
+            this.count_values = 0;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+import java.util.Arrays;
+
+/**
+ * DaryHeap
+ *
+ * An implicit d-ary min heap over integers, 4-ary by default. The nodes are kept in an array in heap order, the
+ * children of the node at index i being at d * i + 1 .. d * i + d, and every node remembers its index so it can be
+ * addressed by decreaseKey and delete.
+ *
+ * A wider node makes the heap shallower, so inserts and decreaseKeys sift through fewer levels, and the children
+ * compared by a deleteMin are adjacent in memory.
+ */
+public class DaryHeap implements AddressablePriorityQueue<DaryHeap.Node>
+{
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private Node[] nodes = new Node[16];
+    private int size;
+
+    public DaryHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    public DaryHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+    }
+
+    /**
+     * public Node insert(int key)
+     *
+     * Inserts the key into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(log_d n)
+     */
+    @Override
+    public Node insert(int key) {
+        Node node = new Node(key);
+        if (this.size == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+        }
+        this.siftUp(node, this.size++);
+        return node;
+    }
+
+    /**
+     * public Node findMin()
+     *
+     * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public Node findMin() {
+        return this.size == 0 ? null : this.nodes[0];
+    }
+
+    /**
+     * public void deleteMin()
+     *
+     * Deletes the node containing the minimum key.
+     *
+     * time complexity: O(d log_d n)
+     */
+    @Override
+    public void deleteMin() {
+        if (this.size != 0) {
+            this.removeAt(0);
+        }
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta.
+     *
+     * time complexity: O(log_d n)
+     */
+    @Override
+    public void decreaseKey(Node x, int delta) {
+        x.key -= delta;
+        this.siftUp(x, x.index);
+    }
+
+    /**
+     * public void delete(Node x)
+     *
+     * Deletes the node x from the heap. It is assumed that x indeed belongs to the heap.
+     *
+     * time complexity: O(d log_d n)
+     */
+    @Override
+    public void delete(Node x) {
+        this.removeAt(x.index);
+    }
+
+    /**
+     * public void meld(AddressablePriorityQueue<Node> heap2)
+     *
+     * Melds heap2, which must be a DaryHeap, with the current heap, either sifting its nodes up one by one or
+     * appending them and restoring the heap order bottom up, whichever is cheaper.
+     *
+     * Complexity: O(min(m log_d n, n + m))
+     */
+    @Override
+    public void meld(AddressablePriorityQueue<Node> heap2) {
+        if (!(heap2 instanceof DaryHeap)) {
+            throw new IllegalArgumentException("can't meld a " + heap2.getClass().getSimpleName()
+                    + " into a DaryHeap");
+        }
+        DaryHeap other = (DaryHeap) heap2;
+        if (other.size == 0) {
+            return;
+        }
+        int new_size = this.size + other.size;
+        if (new_size > this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, Math.max(new_size, 2 * this.nodes.length));
+        }
+        int levels = 1;
+        for (int n = new_size; n > 1; n /= this.arity) {
+            levels++;
+        }
+        if ((long) other.size * levels < new_size) {
+            // few nodes: sifting each of them up is cheaper than rebuilding the whole array
+            for (int i = 0; i < other.size; i++) {
+                this.siftUp(other.nodes[i], this.size++);
+            }
+        }
+        else {
+            for (int i = 0; i < other.size; i++) {
+                Node node = other.nodes[i];
+                node.index = this.size + i;
+                this.nodes[node.index] = node;
+            }
+            this.size = new_size;
+            for (int i = (this.size - 2) / this.arity; i >= 0; i--) {
+                this.siftDown(this.nodes[i], i);
+            }
+        }
+        Arrays.fill(other.nodes, 0, other.size, null);
+        other.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * private void removeAt(int index)
+     *
+     * removes the node at index, moving the last node of the array into its place and sifting it up or down.
+     */
+    private void removeAt(int index) {
+        Node removed = this.nodes[index];
+        Node last = this.nodes[--this.size];
+        this.nodes[this.size] = null;
+        removed.index = -1;
+        if (index == this.size) {
+            return;
+        }
+        if (index > 0 && last.key < this.nodes[(index - 1) / this.arity].key) {
+            this.siftUp(last, index);
+        }
+        else {
+            this.siftDown(last, index);
+        }
+    }
+
+    // moves the parents of index that are larger than node one level down, and places node in the hole
+    private void siftUp(Node node, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / this.arity;
+            Node parent_node = this.nodes[parent];
+            if (parent_node.key <= node.key) {
+                break;
+            }
+            this.nodes[index] = parent_node;
+            parent_node.index = index;
+            index = parent;
+        }
+        this.nodes[index] = node;
+        node.index = index;
+    }
+
+    // moves the smallest children of index that are smaller than node one level up, and places node in the hole
+    private void siftDown(Node node, int index) {
+        while (true) {
+            int first_child = this.arity * index + 1;
+            if (first_child >= this.size) {
+                break;
+            }
+            int last_child = Math.min(first_child + this.arity, this.size);
+            int min_child = first_child;
+            for (int child = first_child + 1; child < last_child; child++) {
+                if (this.nodes[child].key < this.nodes[min_child].key) {
+                    min_child = child;
+                }
+            }
+            Node child_node = this.nodes[min_child];
+            if (child_node.key >= node.key) {
+                break;
+            }
+            this.nodes[index] = child_node;
+            child_node.index = index;
+            index = min_child;
+        }
+        this.nodes[index] = node;
+        node.index = index;
+    }
+
+    /**
+     * public static class Node
+     *
+     * An entry of a DaryHeap: its key and its current index in the array of the heap (-1 once deleted).
+     */
+    public static class Node implements AddressablePriorityQueue.Handle {
+
+        private int key;
+        private int index;
+
+        private Node(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public int getKey() {
+            return this.key;
+        }
+    }
+}
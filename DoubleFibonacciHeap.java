@@ -0,0 +1,84 @@
+/**
+ * DoubleFibonacciHeap
+ *
+ * A Fibonacci Heap with double keys that carries a value of type V inline on every node. Keys are ordered as by
+ * Double.compare: -0.0 before 0.0, and NaN after every other key.
+ *
+ * @param <V> the type of the values
+ */
+public class DoubleFibonacciHeap<V> extends AbstractFibonacciHeap<DoubleFibonacciHeap.HeapNode<V>>
+{
+    @Override
+    protected boolean less(HeapNode<V> node1, HeapNode<V> node2) {
+        return Double.compare(node1.key, node2.key) < 0;
+    }
+
+    /**
+     * public HeapNode<V> insert(double key, V value)
+     *
+     * Creates a node which contains the given key and value, and inserts it into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(1)
+     */
+    public HeapNode<V> insert(double key, V value) {
+        return this.insertNode(new HeapNode<>(key, value));
+    }
+
+    /**
+     * public void decreaseKey(HeapNode<V> x, double delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta.
+     *
+     * throws IllegalArgumentException if delta is NaN, which would move the key after every other key.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKey(HeapNode<V> x, double delta) {
+        if (Double.isNaN(delta)) {
+            throw new IllegalArgumentException("delta must not be NaN");
+        }
+        x.key -= delta;
+        this.keyDecreased(x);
+    }
+
+    /**
+     * public void meld(DoubleFibonacciHeap<V> heap2)
+     *
+     * Melds heap2 with the current heap.
+     *
+     * Complexity: O(1)
+     */
+    public void meld(DoubleFibonacciHeap<V> heap2) {
+        this.meldWith(heap2);
+    }
+
+    /**
+     * public static class HeapNode
+     *
+     * A node of a DoubleFibonacciHeap, holding a double key and a value.
+     */
+    public static class HeapNode<V> extends AbstractFibonacciHeap.Node<HeapNode<V>> {
+
+        private double key;
+        private V value;
+
+        public HeapNode(double key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public double getKey() {
+            return this.key;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        public void setValue(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+
+/**
+ * ExternalFibonacciHeap
+ *
+ * A min priority queue over integers whose size is bounded by the disk instead of the Java heap. The keys below a
+ * moving boundary are kept in an in-memory FibonacciHeap of at most memory_capacity nodes; the keys at or above it
+ * are cold: they are appended to a buffer that is written, sorted, as a run file in the spill directory whenever
+ * it fills up.
+ *
+ * - When the in-memory heap outgrows memory_capacity, the boundary moves down to the median of its keys and the
+ *   upper half is written as a run, so the heap keeps the hot minimum range only.
+ * - When the in-memory heap runs empty, it is refilled in bulk with the memory_capacity / 2 smallest cold keys,
+ *   read by a k-way merge of the runs, and the boundary moves up to the smallest key left on disk.
+ * - When there are more than MAX_RUNS runs, they are merged into one, so a refill reads from few files.
+ *
+ * Every key in memory is at most every key on disk, so findMin and deleteMin only touch the disk on a refill.
+ * Entries have no handles: a cold key may be on disk, so decreaseKey and delete are not supported.
+ */
+public class ExternalFibonacciHeap implements AutoCloseable
+{
+    public static final int MAX_RUNS = 64;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path spill_directory;
+    private final int memory_capacity;
+    private final int[] spill_buffer;
+    private final ByteBuffer io_buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final List<Run> runs = new ArrayList<>();
+    private FibonacciHeap hot = new FibonacciHeap();
+    // the keys below the boundary are in hot, the others are in spill_buffer or in a run
+    private long boundary = Long.MAX_VALUE;
+    private int spill_buffer_size;
+    private long count_cold;
+    private long count_runs_written;
+    private long count_bytes_written;
+    private long count_refills;
+    private boolean closed;
+
+    /**
+     * public ExternalFibonacciHeap(Path spill_directory, int memory_capacity)
+     *
+     * Creates an empty queue that keeps at most memory_capacity keys in memory, plus a spill buffer of
+     * memory_capacity / 4 keys, and writes its runs into spill_directory.
+     */
+    public ExternalFibonacciHeap(Path spill_directory, int memory_capacity) {
+        if (memory_capacity < 16) {
+            throw new IllegalArgumentException("memory_capacity must be at least 16: " + memory_capacity);
+        }
+        this.spill_directory = spill_directory;
+        this.memory_capacity = memory_capacity;
+        this.spill_buffer = new int[memory_capacity / 4];
+    }
+
+    /**
+     * public void insert(int key)
+     *
+     * Inserts the key into the queue.
+     *
+     * time complexity: amortized O(log memory_capacity), plus the disk writes of the spills
+     */
+    public void insert(int key) throws IOException {
+        this.checkOpen();
+        if (key < this.boundary) {
+            this.hot.insert(key);
+            if (this.hot.size() > this.memory_capacity) {
+                this.spillUpperHalf();
+            }
+            return;
+        }
+        this.count_cold++;
+        this.spill_buffer[this.spill_buffer_size++] = key;
+        if (this.spill_buffer_size == this.spill_buffer.length) {
+            this.flushSpillBuffer();
+        }
+    }
+
+    /**
+     * public int findMin()
+     *
+     * Returns the minimal key of the queue, refilling the in-memory heap from the disk first if it is empty.
+     *
+     * throws NoSuchElementException if the queue is empty.
+     */
+    public int findMin() throws IOException {
+        this.checkOpen();
+        if (this.hot.isEmpty()) {
+            this.refill();
+        }
+        return this.hot.findMin().getKey();
+    }
+
+    /**
+     * public int deleteMin()
+     *
+     * Deletes the minimal key of the queue and returns it, refilling the in-memory heap from the disk first if it
+     * is empty.
+     *
+     * throws NoSuchElementException if the queue is empty.
+     *
+     * time complexity: amortized O(log memory_capacity), plus the disk reads of the refills
+     */
+    public int deleteMin() throws IOException {
+        int min = this.findMin();
+        this.hot.deleteMin();
+        return min;
+    }
+
+    public long size() {
+        return this.hot.size() + this.count_cold;
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /** the number of keys in memory */
+    public int getHotNum() {
+        return this.hot.size();
+    }
+
+    /** the number of keys in the spill buffer or on disk */
+    public long getColdNum() {
+        return this.count_cold;
+    }
+
+    /** the number of run files currently on disk */
+    public int getRunsNum() {
+        return this.runs.size();
+    }
+
+    /** the number of run files written so far, including merged ones */
+    public long getRunsWritten() {
+        return this.count_runs_written;
+    }
+
+    public long getBytesWritten() {
+        return this.count_bytes_written;
+    }
+
+    /** the number of times the in-memory heap was refilled from the disk */
+    public long getRefills() {
+        return this.count_refills;
+    }
+
+    /**
+     * public void close()
+     *
+     * Deletes the run files. The queue can't be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        IOException failure = null;
+        for (Run run : this.runs) {
+            try {
+                run.delete();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        }
+        this.runs.clear();
+        this.hot = new FibonacciHeap();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("the queue is closed");
+        }
+    }
+
+    /**
+     * private void spillUpperHalf()
+     *
+     * moves the boundary down to the median key of the in-memory heap and writes the keys at or above it as a run,
+     * rebuilding the heap from the keys below it.
+     *
+     * time complexity: O(memory_capacity log memory_capacity)
+     */
+    private void spillUpperHalf() throws IOException {
+        int[] keys = new int[this.hot.size()];
+        PrimitiveIterator.OfInt iterator = this.hot.keys().iterator();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = iterator.nextInt();
+        }
+        Arrays.sort(keys);
+        int median = keys[keys.length / 2];
+        // the first index of the median, keys equal to the new boundary must go to the disk with it
+        int split = keys.length / 2;
+        while (split > 0 && keys[split - 1] == median) {
+            split--;
+        }
+        this.boundary = median;
+        this.hot = FibonacciHeap.fromArray(Arrays.copyOf(keys, split));
+        this.writeRun(keys, split, keys.length);
+        this.count_cold += keys.length - split;
+        // the buffered cold keys are above the old boundary, so they are still above the new one
+    }
+
+    private void flushSpillBuffer() throws IOException {
+        if (this.spill_buffer_size == 0) {
+            return;
+        }
+        Arrays.sort(this.spill_buffer, 0, this.spill_buffer_size);
+        this.writeRun(this.spill_buffer, 0, this.spill_buffer_size);
+        this.spill_buffer_size = 0;
+    }
+
+    /**
+     * private void writeRun(int[] sorted_keys, int from, int to)
+     *
+     * writes sorted_keys[from], ..., sorted_keys[to - 1] as a new run file, merging all the runs into one first if
+     * there are too many.
+     */
+    private void writeRun(int[] sorted_keys, int from, int to) throws IOException {
+        if (from == to) {
+            return;
+        }
+        if (this.runs.size() >= MAX_RUNS) {
+            this.mergeRuns();
+        }
+        Run run = this.newRun();
+        try (FileChannel channel = FileChannel.open(run.path, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = this.io_buffer;
+            buffer.clear();
+            for (int i = from; i < to; i++) {
+                if (!buffer.hasRemaining()) {
+                    this.write(channel, buffer);
+                }
+                buffer.putInt(sorted_keys[i]);
+            }
+            this.write(channel, buffer);
+        }
+        run.length = to - from;
+        this.runs.add(run);
+    }
+
+    /**
+     * private void mergeRuns()
+     *
+     * merges all the runs into a single new run with a k-way merge.
+     *
+     * time complexity: O(#keys on disk * log(#runs))
+     */
+    private void mergeRuns() throws IOException {
+        Run merged = this.newRun();
+        PriorityQueue<Run> merge = this.openForMerge();
+        try (FileChannel channel = FileChannel.open(merged.path, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = this.io_buffer;
+            buffer.clear();
+            while (!merge.isEmpty()) {
+                Run run = merge.poll();
+                if (!buffer.hasRemaining()) {
+                    this.write(channel, buffer);
+                }
+                buffer.putInt(run.next());
+                merged.length++;
+                if (run.hasNext()) {
+                    merge.add(run);
+                }
+            }
+            this.write(channel, buffer);
+        }
+        for (Run run : this.runs) {
+            run.delete();
+        }
+        this.runs.clear();
+        this.runs.add(merged);
+    }
+
+    /**
+     * private void refill()
+     *
+     * fills the empty in-memory heap with the memory_capacity / 2 smallest cold keys, taken by a k-way merge of the
+     * runs, and moves the boundary up to the smallest key left on disk.
+     *
+     * throws NoSuchElementException if the queue is empty.
+     */
+    private void refill() throws IOException {
+        if (this.count_cold == 0) {
+            throw new NoSuchElementException("the queue is empty");
+        }
+        this.count_refills++;
+        this.flushSpillBuffer();
+        int[] keys = new int[(int) Math.min(this.memory_capacity / 2, this.count_cold)];
+        PriorityQueue<Run> merge = this.openForMerge();
+        for (int i = 0; i < keys.length; i++) {
+            Run run = merge.poll();
+            keys[i] = run.next();
+            if (run.hasNext()) {
+                merge.add(run);
+            }
+        }
+        this.boundary = merge.isEmpty() ? Long.MAX_VALUE : merge.peek().peek();
+        for (Run run : merge) {
+            run.closeChannel();
+        }
+        List<Run> remaining = new ArrayList<>();
+        for (Run run : this.runs) {
+            if (run.hasNext()) {
+                remaining.add(run);
+            }
+            else {
+                run.delete();
+            }
+        }
+        this.runs.clear();
+        this.runs.addAll(remaining);
+        this.count_cold -= keys.length;
+        this.hot = FibonacciHeap.fromArray(keys);
+    }
+
+    // opens every run for reading at its current position, ordered by their next keys
+    private PriorityQueue<Run> openForMerge() throws IOException {
+        PriorityQueue<Run> merge = new PriorityQueue<>(Math.max(1, this.runs.size()),
+                (a, b) -> Integer.compare(a.peek(), b.peek()));
+        for (Run run : this.runs) {
+            run.open();
+            if (run.hasNext()) {
+                merge.add(run);
+            }
+        }
+        return merge;
+    }
+
+    private Run newRun() throws IOException {
+        this.count_runs_written++;
+        return new Run(Files.createTempFile(this.spill_directory, "fibonacci-run-", ".bin"));
+    }
+
+    private void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            this.count_bytes_written += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * private static final class Run
+     *
+     * a file of length sorted keys, of which the first position are consumed. while it is open for a merge, it reads
+     * the file through its own buffer, whose keys from its position on are not consumed yet.
+     */
+    private static final class Run {
+        private final Path path;
+        private long length;
+        private long position;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+
+        private Run(Path path) {
+            this.path = path;
+        }
+
+        private void open() throws IOException {
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+            this.channel.position(this.position * Integer.BYTES);
+            if (this.buffer == null) {
+                this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            }
+            this.buffer.clear().flip();
+            this.fill();
+        }
+
+        private boolean hasNext() {
+            return this.position < this.length;
+        }
+
+        private int peek() {
+            return this.buffer.getInt(this.buffer.position());
+        }
+
+        private int next() throws IOException {
+            int key = this.buffer.getInt();
+            this.position++;
+            if (this.buffer.remaining() < Integer.BYTES && this.hasNext()) {
+                this.fill();
+            }
+            return key;
+        }
+
+        // reads until the buffer is full or the file ends, keeping the bytes of a key that is split between reads
+        private void fill() throws IOException {
+            this.buffer.compact();
+            while (this.buffer.hasRemaining()) {
+                if (this.channel.read(this.buffer) < 0) {
+                    break;
+                }
+            }
+            this.buffer.flip();
+        }
+
+        private void closeChannel() throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+
+        private void delete() throws IOException {
+            this.closeChannel();
+            this.buffer = null;
+            Files.deleteIfExists(this.path);
+        }
+    }
+}
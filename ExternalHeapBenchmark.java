@@ -0,0 +1,142 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * ExternalHeapBenchmark
+ *
+ * Measures ExternalFibonacciHeap on a queue that is far larger than its memory budget: --keys random far-future
+ * keys are inserted, then --extractions deleteMins each insert a new key a random distance above the extracted one,
+ * like a timer queue that rarely reaches its far-future entries. A FibonacciHeap holding every key in memory runs
+ * the same workload as the baseline, and is reported as out of memory when it doesn't fit.
+ *
+ * For every queue the benchmark reports the throughput of both phases and the Java heap in use after the inserts;
+ * for the external heap also the run files written, the bytes written and the refills.
+ *
+ * To run with an input 10x the size of the Java heap, give the JVM a heap smaller than a tenth of the keys, e.g.
+ * 10^8 keys take 400MB on disk and several GB as HeapNodes:
+ *
+ * usage: java -Xmx256m ExternalHeapBenchmark [--keys 1e8] [--memory 1e6] [--extractions 1e6] [--dir /tmp]
+ *                                            [--baseline true] [--seed 1]
+ */
+public class ExternalHeapBenchmark
+{
+    // the largest distance from the extracted key to the key that replaces it
+    private static final int RESCHEDULE_RANGE = 1 << 20;
+
+    private static volatile long sink;
+
+    public static void main(String[] args) throws IOException {
+        long keys = 100000000;
+        int memory = 1000000;
+        long extractions = 1000000;
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"));
+        boolean baseline = true;
+        long seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--keys":
+                    keys = (long) Double.parseDouble(value);
+                    break;
+                case "--memory":
+                    memory = (int) Double.parseDouble(value);
+                    break;
+                case "--extractions":
+                    extractions = (long) Double.parseDouble(value);
+                    break;
+                case "--dir":
+                    dir = Paths.get(value);
+                    break;
+                case "--baseline":
+                    baseline = Boolean.parseBoolean(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        System.out.printf(Locale.ROOT, "keys %d, extractions %d, max heap %d MB%n", keys, extractions,
+                Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-22s %14s %14s %12s %10s %12s %10s%n", "queue", "inserts/s", "extractions/s",
+                "heap MB", "runs", "written MB", "refills");
+        Path spill_directory = Files.createTempDirectory(dir, "external-heap-benchmark");
+        try (ExternalFibonacciHeap external = new ExternalFibonacciHeap(spill_directory, memory)) {
+            runExternal(external, keys, extractions, seed);
+        }
+        finally {
+            Files.deleteIfExists(spill_directory);
+        }
+        if (baseline) {
+            runBaseline(keys, extractions, seed);
+        }
+    }
+
+    private static void runExternal(ExternalFibonacciHeap heap, long keys, long extractions, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        long start = System.nanoTime();
+        for (long i = 0; i < keys; i++) {
+            heap.insert(random.nextInt(Integer.MAX_VALUE - RESCHEDULE_RANGE));
+        }
+        long insert_nanos = System.nanoTime() - start;
+        long used_bytes = usedHeap();
+        long checksum = 0;
+        start = System.nanoTime();
+        for (long i = 0; i < extractions; i++) {
+            int min = heap.deleteMin();
+            checksum += min;
+            heap.insert(reschedule(min, random));
+        }
+        long extract_nanos = System.nanoTime() - start;
+        sink += checksum;
+        System.out.printf(Locale.ROOT, "%-22s %14.0f %14.0f %12d %10d %12d %10d%n", "ExternalFibonacciHeap",
+                keys / (insert_nanos / 1e9), extractions / (extract_nanos / 1e9), used_bytes >> 20,
+                heap.getRunsWritten(), heap.getBytesWritten() >> 20, heap.getRefills());
+    }
+
+    private static void runBaseline(long keys, long extractions, long seed) {
+        Random random = new Random(seed);
+        FibonacciHeap heap = new FibonacciHeap();
+        try {
+            long start = System.nanoTime();
+            for (long i = 0; i < keys; i++) {
+                heap.insert(random.nextInt(Integer.MAX_VALUE - RESCHEDULE_RANGE));
+            }
+            long insert_nanos = System.nanoTime() - start;
+            long used_bytes = usedHeap();
+            long checksum = 0;
+            start = System.nanoTime();
+            for (long i = 0; i < extractions; i++) {
+                int min = heap.findMin().getKey();
+                heap.deleteMin();
+                checksum += min;
+                heap.insert(reschedule(min, random));
+            }
+            long extract_nanos = System.nanoTime() - start;
+            sink += checksum;
+            System.out.printf(Locale.ROOT, "%-22s %14.0f %14.0f %12d %10s %12s %10s%n", "FibonacciHeap",
+                    keys / (insert_nanos / 1e9), extractions / (extract_nanos / 1e9), used_bytes >> 20, "-", "-",
+                    "-");
+        }
+        catch (OutOfMemoryError e) {
+            System.out.printf("%-22s out of memory after %d keys%n", "FibonacciHeap", heap.size());
+        }
+    }
+
+    // the key that replaces an extracted one, a random distance above it
+    private static int reschedule(int min, Random random) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) min + 1 + random.nextInt(RESCHEDULE_RANGE));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -3,22 +3,81 @@
 //name1    - Liron Tzadok
 // id2      - 208634766
 //name2    - Tal Ben Tov
-import java.lang.Math;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * FibonacciHeap
  *
  * An implementation of a Fibonacci Heap over integers.
+ *
+ * This class keeps its own copy of the heap structure rather than extending AbstractFibonacciHeap, which the keyed
+ * heaps share; see there for why, and for the methods whose changes have to be made in both.
  */
-public class FibonacciHeap
+public class FibonacciHeap implements AddressablePriorityQueue<FibonacciHeap.HeapNode>
 {
     private HeapNode min_node;
     private HeapNode first;
     private int size;
     private int count_roots;
     private int count_marked;
-    private static int count_total_links = 0;
-    private static int count_total_cuts = 0;
+    private long count_inserts;
+    private long count_delete_mins;
+    private long count_decrease_keys;
+    private long count_deletes;
+    private long count_links;
+    private long count_cuts;
+    private long count_cascading_cuts;
+    private int max_cascade_depth;
+    private long count_consolidations;
+    private long count_roots_scanned;
+    // increased by every change of the heap, so the iterators and spliterators over it can fail fast
+    private int mod_count;
+    private ObjectName mbean_name;
+    private HeapNode[] buckets;
+    private NodeQueue candidates;
+    // recycled nodes, chained through their child field. node_pool_capacity == 0 means recycling is disabled
+    private HeapNode node_pool;
+    private int node_pool_size;
+    private int node_pool_capacity;
+    // when set, delete removes a node that isn't the minimum without consolidating the roots
+    private boolean lazy_delete;
+    // the latency histogram of every Operation, null unless setLatencyHistogramsEnabled(true) was called
+    private LatencyHistogram[] latency_histograms;
+    // the last snapshot taken by the owning thread, read by any thread through lastSnapshot()
+    private volatile FibonacciHeapSnapshot published_snapshot;
+    // snapshot_interval == 0 means snapshots are only taken by calls to snapshot
+    private int snapshot_interval;
+    private int snapshot_top_k;
+    private int changes_since_snapshot;
+    // JVM-wide aggregates of count_links and count_cuts of all heaps, safe to update from any thread
+    private static final LongAdder count_total_links = new LongAdder();
+    private static final LongAdder count_total_cuts = new LongAdder();
+    // checkpoint file format: a header of 6 ints, then one record of (int key, byte rank, byte marked) per node
+    private static final int CHECKPOINT_MAGIC = 0x46494248;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int CHECKPOINT_HEADER_BYTES = 24;
+    private static final int CHECKPOINT_RECORD_BYTES = 6;
+    // the parallel builds and melds work sequentially on fewer keys than this
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
 
     public FibonacciHeap(){
         this.min_node = null;
@@ -26,6 +85,180 @@ public class FibonacciHeap
         this.size = 0;
         this.count_roots = 0;
         this.count_marked=0;
+        this.buckets = new HeapNode[0];
+        this.candidates = new NodeQueue(16);
+    }
+
+    /**
+     * public void setNodePoolCapacity(int capacity)
+     *
+     * Turns node recycling on (capacity > 0) or off (capacity == 0). While it's on, the nodes removed by
+     * deleteMin and delete are kept in a free list of up to capacity nodes, and insert reuses them instead of
+     * allocating new ones. A removed node must then no longer be used by the caller: its generation is increased
+     * when it is recycled, so callers that keep handles should remember getGeneration() after insert and pass it to
+     * the checked decreaseKey and delete overloads, which reject stale handles.
+     *
+     * Complexity: O(1), O(#pooled nodes) when shrinking the pool
+     */
+    public void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        }
+        this.node_pool_capacity = capacity;
+        while (this.node_pool_size > capacity) {
+            this.node_pool = this.node_pool.getChild();
+            this.node_pool_size--;
+        }
+    }
+
+    /**
+     * public int getNodePoolSize()
+     *
+     * returns the number of recycled nodes waiting to be reused by insert
+     */
+    public int getNodePoolSize() {
+        return this.node_pool_size;
+    }
+
+    /**
+     * public void setLazyDelete(boolean lazy_delete)
+     *
+     * Turns lazy deletion on or off. While it's on, delete of a node that isn't the minimum only cuts the node to
+     * the roots, removes it and splices its children into the roots, leaving the consolidation of the roots to the
+     * next deleteMin. This suits workloads that delete (cancel) many more entries than they extract.
+     *
+     * Complexity: O(1)
+     */
+    public void setLazyDelete(boolean lazy_delete) {
+        this.lazy_delete = lazy_delete;
+    }
+
+    public boolean isLazyDelete() {
+        return this.lazy_delete;
+    }
+
+    /**
+     * public enum Operation
+     *
+     * the operations a latency histogram can be kept for.
+     */
+    public enum Operation {
+        INSERT, DELETE_MIN, DECREASE_KEY, DELETE
+    }
+
+    /**
+     * public void setLatencyHistogramsEnabled(boolean enabled)
+     *
+     * Turns the latency histograms on or off. While they're on, the duration of every insert, deleteMin,
+     * decreaseKey and delete is recorded into the LatencyHistogram of its Operation, at the cost of two
+     * System.nanoTime calls per operation. Every call records one sample, into the histogram of the operation
+     * called: the removal a delete makes is part of its delete sample only. Turning them off drops the recorded
+     * latencies.
+     *
+     * Complexity: O(1)
+     */
+    public void setLatencyHistogramsEnabled(boolean enabled) {
+        if (!enabled) {
+            this.latency_histograms = null;
+        }
+        else if (this.latency_histograms == null) {
+            this.latency_histograms = new LatencyHistogram[Operation.values().length];
+            for (int i = 0; i < this.latency_histograms.length; i++) {
+                this.latency_histograms[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * public LatencyHistogram getLatencyHistogram(Operation op)
+     *
+     * Returns the live histogram of the latencies of op, or null if the latency histograms are off.
+     */
+    public LatencyHistogram getLatencyHistogram(Operation op) {
+        return this.latency_histograms == null ? null : this.latency_histograms[op.ordinal()];
+    }
+
+    /**
+     * public FibonacciHeapSnapshot snapshot(int k)
+     *
+     * Takes an immutable snapshot of the heap with its k smallest keys, and publishes it so other threads can read
+     * it from lastSnapshot(). Like every other method that reads the heap, it must be called by the thread that
+     * changes the heap, or while it doesn't. Only the roots and the nodes topK visits are read, not the whole heap.
+     *
+     * Complexity: O(#roots + k*deg*log(k*deg)), where deg is the maximal rank in the heap
+     */
+    public FibonacciHeapSnapshot snapshot(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        }
+        int[] top_keys = new int[Math.min(k, this.size)];
+        this.topK(top_keys.length, top_keys);
+        FibonacciHeapSnapshot snapshot = new FibonacciHeapSnapshot(System.nanoTime(), this.mod_count, this.size,
+                this.isEmpty() ? 0 : this.min_node.getKey(), this.count_roots, this.count_marked, this.countersRep(),
+                top_keys);
+        this.changes_since_snapshot = 0;
+        this.published_snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * public FibonacciHeapSnapshot lastSnapshot()
+     *
+     * Returns the last published snapshot, or null if none was taken yet. Safe to call from any thread while
+     * another thread changes the heap.
+     *
+     * Complexity: O(1)
+     */
+    public FibonacciHeapSnapshot lastSnapshot() {
+        return this.published_snapshot;
+    }
+
+    /**
+     * public void setSnapshotInterval(int changes, int k)
+     *
+     * Makes the heap publish a snapshot with its k smallest keys after every changes operations that change it,
+     * so readers see a view that is at most that many operations old. changes == 0 turns auto-publishing off.
+     *
+     * Complexity: O(1)
+     */
+    public void setSnapshotInterval(int changes, int k) {
+        if (changes < 0 || k < 0) {
+            throw new IllegalArgumentException("changes and k must be non-negative: " + changes + ", " + k);
+        }
+        this.snapshot_interval = changes;
+        this.snapshot_top_k = k;
+        this.changes_since_snapshot = 0;
+    }
+
+    // called at the end of every operation that changes the heap, publishes a snapshot when the interval is reached
+    private void changed() {
+        if (this.snapshot_interval != 0 && ++this.changes_since_snapshot >= this.snapshot_interval) {
+            this.snapshot(this.snapshot_top_k);
+        }
+    }
+
+    // the start of an operation for recordLatency, 0 if the latency histograms are off
+    private long latencyStart() {
+        return this.latency_histograms == null ? 0 : System.nanoTime();
+    }
+
+    private void recordLatency(Operation op, long start) {
+        if (this.latency_histograms != null) {
+            this.latency_histograms[op.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * public boolean isLive(HeapNode x, int generation)
+     *
+     * Returns true if and only if x still holds the entry it was given when its generation was the given one,
+     * that is, the entry was not removed from the heap since.
+     *
+     * Complexity: O(1)
+     */
+    public boolean isLive(HeapNode x, int generation) {
+        // a node in a heap always has a next sibling, a removed node doesn't until it is reused
+        return x.getGeneration() == generation && x.getNext() != null;
     }
 
     /**
@@ -86,7 +319,20 @@ public class FibonacciHeap
      */
     public HeapNode insert(int key)
     {
-        HeapNode new_heap_node = new HeapNode(key);
+        return this.insertNode(this.newNode(key));
+    }
+
+    /**
+     * HeapNode insertNode(HeapNode new_heap_node)
+     *
+     * inserts a node that is not in any heap as a new root, used by insert and by subclasses that create their own
+     * node types.
+     *
+     * time complexity: O(1)
+     */
+    HeapNode insertNode(HeapNode new_heap_node)
+    {
+        long start = this.latencyStart();
         if (this.isEmpty()) {
             this.min_node = new_heap_node;
             new_heap_node.setNext(new_heap_node);
@@ -99,24 +345,132 @@ public class FibonacciHeap
         this.first = new_heap_node;
         this.size += 1;
         this.count_roots += 1;
+        this.count_inserts++;
+        this.mod_count++;
+        this.recordLatency(Operation.INSERT, start);
+        this.changed();
         return new_heap_node;
     }
 
     /**
-     * public HeapNode insert(HeapNode node)
+     * public static FibonacciHeap fromArray(int[] keys)
      *
-     * an override method insert that inserts a node to the heap and updates
-     his "child_pointer_for_kMin_method" field to node.child.
+     * Creates a heap that contains the given keys, with an already consolidated roots list.
      *
-     * this method is used for kMin method only!
+     * time complexity: O(n)
+     */
+    public static FibonacciHeap fromArray(int[] keys) {
+        return fromArray(keys, null);
+    }
+
+    /**
+     * public static FibonacciHeap fromArray(int[] keys, HeapNode[] handles)
      *
-     * time complexity: O(1)
+     * Creates a heap that contains the given keys, with an already consolidated roots list.
+     * if handles is not null, handles[i] is set to the node that contains keys[i].
+     *
+     * time complexity: O(n)
+     */
+    public static FibonacciHeap fromArray(int[] keys, HeapNode[] handles) {
+        FibonacciHeap heap = new FibonacciHeap();
+        HeapNode[] nodes = heap.insertAll(keys, 0, keys.length);
+        if (handles != null) {
+            System.arraycopy(nodes, 0, handles, 0, nodes.length);
+        }
+        return heap;
+    }
+
+    /**
+     * public static FibonacciHeap parallelFromArray(int[] keys)
+     *
+     * Same as fromArray(keys), building the heap in the common ForkJoinPool.
+     *
+     * time complexity: O(n) work, O(n / p + log^2 n) span with p threads
      */
+    public static FibonacciHeap parallelFromArray(int[] keys) {
+        return parallelFromArray(keys, null);
+    }
 
-    public HeapNode insert (HeapNode node) {
-        this.insert(node.getKey());
-        this.first.child_pointer_for_kMin_method = node.get_child_pointer_for_kMin_method();
-        return this.first;
+    /**
+     * public static FibonacciHeap parallelFromArray(int[] keys, HeapNode[] handles)
+     *
+     * Same as fromArray(keys, handles), building the heap in the common ForkJoinPool: the keys are split into
+     * ranges that are built into consolidated sub-heaps concurrently, and the sub-heaps are melded and consolidated
+     * pairwise in a tree reduction. The result has at most one tree of every rank, like the heap fromArray builds.
+     *
+     * time complexity: O(n) work, O(n / p + log^2 n) span with p threads
+     */
+    public static FibonacciHeap parallelFromArray(int[] keys, HeapNode[] handles) {
+        if (handles != null && handles.length < keys.length) {
+            throw new IndexOutOfBoundsException("handles length: " + handles.length + ", keys length: " + keys.length);
+        }
+        return ForkJoinPool.commonPool().invoke(new BuildTask(keys, handles, 0, keys.length));
+    }
+
+    /**
+     * public static FibonacciHeap meldAll(FibonacciHeap... heaps)
+     *
+     * Melds all the given heaps into heaps[0] and consolidates it, consolidating the heaps and melding them
+     * pairwise in a tree reduction in the common ForkJoinPool. The other heaps must not be used afterwards, and
+     * a heap must not be given twice.
+     *
+     * Returns heaps[0], or a new empty heap if no heap is given.
+     *
+     * time complexity: O(#roots + k log n) work, O(max #roots of a heap + log k log n) span with enough threads
+     */
+    public static FibonacciHeap meldAll(FibonacciHeap... heaps) {
+        if (heaps.length == 0) {
+            return new FibonacciHeap();
+        }
+        return ForkJoinPool.commonPool().invoke(new MeldTask(heaps, 0, heaps.length));
+    }
+
+    /**
+     * private void consolidate()
+     *
+     * links the trees of the heap until every rank has at most one tree, the work deleteMin does after removing
+     * the minimum.
+     *
+     * time complexity: WC O(n), amortized O(log n)
+     */
+    private void consolidate() {
+        this.mod_count++;
+        this.min_node = this.SuccessiveLinking();
+    }
+
+    /**
+     * public HeapNode[] insertAll(int[] keys, int off, int len)
+     *
+     * Inserts keys[off], ..., keys[off + len - 1] into the heap. Instead of adding len single-node roots, the new
+     * nodes are linked into binomial trees while they are created, and the roots of the heap are consolidated with
+     * them, so the next deleteMin doesn't pay for linking the whole batch.
+     *
+     * Returns the newly created nodes, the i-th node contains keys[off + i].
+     *
+     * time complexity: O(len + #roots)
+     */
+    public HeapNode[] insertAll(int[] keys, int off, int len) {
+        if (off < 0 || len < 0 || off + len > keys.length) {
+            throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", length: " + keys.length);
+        }
+        HeapNode[] nodes = new HeapNode[len];
+        if (len == 0) {
+            return nodes;
+        }
+        long links_before = this.count_links;
+        HeapNode[] buckets = this.buckets(this.size + len);
+        for (int i = 0; i < len; i++) {
+            nodes[i] = this.newNode(keys[off + i]);
+            this.linkIntoBuckets(buckets, nodes[i]);
+        }
+        this.linkRootsIntoBuckets(buckets);
+        this.size += len;
+        this.count_inserts += len;
+        this.mod_count++;
+        this.min_node = this.createHeapAndFindMin(buckets);
+        count_total_links.add(this.count_links - links_before);
+        this.changed();
+        return nodes;
     }
 
     /**
@@ -130,34 +484,67 @@ public class FibonacciHeap
         if (this.isEmpty()) {
             return;
         }
+        long start = this.latencyStart();
+        this.count_delete_mins++;
+        this.removeMin();
+        this.recordLatency(Operation.DELETE_MIN, start);
+        this.changed();
+    }
+
+    /**
+     * private void removeMin()
+     *
+     * removes min_node from a non-empty heap and consolidates the roots. the operation counters, the latency
+     * samples and changed() are left to the public caller, so an eager delete is counted, timed and counted
+     * toward the snapshot interval as a single delete.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    private void removeMin() {
         HeapNode min = this.min_node;
-        HeapNode child = min.getChild();
-        HeapNode next = min.getNext();
-        HeapNode prev = min.getPrev();
+        this.removeRoot(min);
+        // set new min node and do successive linking
+        this.min_node = SuccessiveLinking();
+        this.nodeRemoved(min);
+        this.recycle(min);
+    }
+
+    /**
+     * private void removeRoot(HeapNode root)
+     *
+     * removes a root from the list of roots, its children replacing it there, without looking for a new min_node.
+     *
+     * Complexity: O(rank of root)
+     */
+    private void removeRoot(HeapNode root) {
+        this.mod_count++;
+        HeapNode child = root.getChild();
+        HeapNode next = root.getNext();
+        HeapNode prev = root.getPrev();
 
-        // if min_node has children, they become roots
-        if (min.getRank() != 0) {
-            // if min_node is the only root in the heap, it's children become the only roots of the heap
+        // if root has children, they become roots
+        if (root.getRank() != 0) {
+            // if root is the only root in the heap, it's children become the only roots of the heap
             if (this.count_roots == 1) {
                 this.first = child;
             }
-            // min_node is not the only root in the heap, then it's children replace it in the list of roots of the heap
+            // root is not the only root in the heap, then it's children replace it in the list of roots of the heap
             else {
                 child.getPrev().setNext(next);
                 prev.setNext(child);
-                if (min == this.first) {
+                if (root == this.first) {
                     this.first = child;
                 }
             }
             // changing "mark" field of the deleted node's children to false and changing their "parent" field to null
             HeapNode child_for_loop = child;
-            for (int i = 1; i <= min.getRank(); i++){
+            for (int i = 1; i <= root.getRank(); i++){
                 setHeapNodeMarked(child_for_loop, false);
                 child_for_loop.setParent(null);
                 child_for_loop = child_for_loop.getNext();
             }
         }
-        // min node rank is 0
+        // root rank is 0
         else {
             // the deleted root is the last one in the heap
             if (this.count_roots == 1) {
@@ -166,21 +553,173 @@ public class FibonacciHeap
             // connect deleted root siblings
             else {
                 prev.setNext(next);
-                if (min == this.first) {
+                if (root == this.first) {
                     this.first = next;
                 }
             }
         }
         // set deleted node child to be null
-        min.setChild(null);
+        root.setChild(null);
         // detach deleted node siblings
-        min.setNext(null);
-        min.setPrev(null);
+        root.setNext(null);
+        root.setPrev(null);
         // update counter fields
-        this.count_roots += min.getRank() - 1;
+        this.count_roots += root.getRank() - 1;
         this.size -= 1;
-        // set new min node and do successive linking
+    }
+
+    /**
+     * protected void nodeRemoved(HeapNode node)
+     *
+     * called after a node was removed from the heap by deleteMin, delete, pollMins or pollMinNodes, so subclasses
+     * can drop their references to it. does nothing by default.
+     */
+    protected void nodeRemoved(HeapNode node) {
+    }
+
+    /**
+     * protected void meldedInto(FibonacciHeap heap)
+     *
+     * called on heap2 when meld moves its nodes into heap, so subclasses can drop their references to the nodes
+     * they no longer own. does nothing by default.
+     */
+    protected void meldedInto(FibonacciHeap heap) {
+    }
+
+    /**
+     * public int pollMins(int k, int[] out)
+     *
+     * Deletes the k nodes with the smallest keys (or all the nodes, if the heap has fewer than k) and writes their
+     * keys into out in ascending order.
+     * Instead of consolidating the heap after every extraction like k calls to deleteMin, the smallest keys are
+     * found by walking down the trees from the roots, and the roots list is consolidated once at the end.
+     *
+     * Returns the number of deleted nodes.
+     *
+     * time complexity: O(#roots + k*log(n)*log(k*log(n))) + one successive linking, amortized O(k*log(n))
+     */
+    public int pollMins(int k, int[] out) {
+        return this.pollMins(k, out, null);
+    }
+
+    /**
+     * public int pollMinNodes(int k, HeapNode[] out)
+     *
+     * Like pollMins, but writes the deleted nodes into out in ascending order of their keys. Since the caller
+     * gets hold of them, the deleted nodes are not recycled.
+     *
+     * Returns the number of deleted nodes.
+     *
+     * time complexity: O(#roots + k*log(n)*log(k*log(n))) + one successive linking, amortized O(k*log(n))
+     */
+    public int pollMinNodes(int k, HeapNode[] out) {
+        return this.pollMins(k, null, out);
+    }
+
+    /**
+     * private int pollMins(int k, int[] keys_out, HeapNode[] nodes_out)
+     *
+     * the deleted nodes are always a set closed under taking the parent, since a parent's key is not greater than
+     * its children's keys. so the k smallest keys are found by a best first search from the roots: a candidates
+     * queue starts with all the roots, and every node taken out of it adds its children. when the search is over,
+     * the candidates left in the queue are exactly the roots of the remaining heap.
+     */
+    private int pollMins(int k, int[] keys_out, HeapNode[] nodes_out) {
+        k = Math.min(k, this.size);
+        if (k <= 0) {
+            return 0;
+        }
+        this.mod_count++;
+        NodeQueue candidates = this.candidates;
+        this.appendSiblings(candidates, this.first, this.count_roots);
+        candidates.heapify();
+        for (int i = 0; i < k; i++) {
+            HeapNode min = candidates.poll();
+            HeapNode child = min.getChild();
+            for (int j = 0; j < min.getRank(); j++) {
+                candidates.add(child);
+                child = child.getNext();
+            }
+            this.setHeapNodeMarked(min, false);
+            min.setParent(null);
+            min.setChild(null);
+            min.setNext(null);
+            min.setPrev(null);
+            this.nodeRemoved(min);
+            if (keys_out != null) {
+                keys_out[i] = min.getKey();
+                this.recycle(min);
+            }
+            else {
+                nodes_out[i] = min;
+            }
+        }
+
+        // the remaining candidates become the roots list
+        this.first = null;
+        this.count_roots = candidates.size();
+        HeapNode last_added_tree = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            HeapNode tree = candidates.get(i);
+            this.setHeapNodeMarked(tree, false);
+            tree.setParent(null);
+            if (this.first == null) {
+                this.first = tree;
+            }
+            else {
+                last_added_tree.setNext(tree);
+            }
+            last_added_tree = tree;
+        }
+        if (last_added_tree != null) {
+            last_added_tree.setNext(this.first);
+        }
+        candidates.clear();
+        this.size -= k;
+        this.count_delete_mins += k;
         this.min_node = SuccessiveLinking();
+        this.changed();
+        return k;
+    }
+
+    /**
+     * private HeapNode newNode(int key)
+     *
+     * returns a node that contains the given key, taken from the node pool if it isn't empty.
+     *
+     * Complexity: O(1)
+     */
+    private HeapNode newNode(int key) {
+        HeapNode node = this.node_pool;
+        if (node == null) {
+            return new HeapNode(key);
+        }
+        this.node_pool = node.getChild();
+        this.node_pool_size--;
+        node.setChild(null);
+        node.setKey(key);
+        return node;
+    }
+
+    /**
+     * private void recycle(HeapNode node)
+     *
+     * puts a node that was removed from the heap into the node pool, if recycling is on and the pool isn't full.
+     * the generation of the node is increased so handles to its old entry become stale.
+     *
+     * Complexity: O(1)
+     */
+    private void recycle(HeapNode node) {
+        if (this.node_pool_size >= this.node_pool_capacity) {
+            return;
+        }
+        node.generation++;
+        node.setRank(0);
+        node.setMarked(false);
+        node.setParent(null);
+        node.setChild(this.node_pool);
+        this.node_pool = node;
+        this.node_pool_size++;
     }
 
     /**
@@ -194,40 +733,105 @@ public class FibonacciHeap
      * time complexity: WC O(n), amortized O(log n)
      */
     private HeapNode SuccessiveLinking() {
-        int log_n = (int)(Math.ceil(Math.log(this.size + 1) / Math.log(2) + 1));
-        int count_roots_copy = this.count_roots;
-        HeapNode[] buckets = new HeapNode[log_n];
-        HeapNode node = this.first;
         // if heap is empty
-        if (node == null) {
+        if (this.first == null) {
             return null;
         }
-        HeapNode tmp = node.getNext();
-        int rank;
-        HeapNode node_after_link;
-        while (count_roots_copy > 0) {
-            rank = node.getRank();
-            // if node's rank bucket is empty
-            if(buckets[rank] == null){
-                buckets[rank] = node;
-                node = tmp;
-                tmp = tmp.getNext();
-                count_roots_copy --;
-            }
-            else {
-                node_after_link = link(node, buckets[rank]);
-                buckets[rank] = null;
-                node = node_after_link;
-            }
+        FibonacciHeapEvents.ConsolidationEvent event = null;
+        if (FibonacciHeapEvents.CONSOLIDATION.isEnabled()) {
+            event = new FibonacciHeapEvents.ConsolidationEvent();
+            event.begin();
         }
+        int roots_before = this.count_roots;
+        long links_before = this.count_links;
+        this.count_consolidations++;
+        this.count_roots_scanned += this.count_roots;
+        HeapNode[] buckets = this.buckets(this.size);
+        this.linkRootsIntoBuckets(buckets);
         HeapNode new_min = createHeapAndFindMin(buckets);
+        count_total_links.add(this.count_links - links_before);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.size = this.size;
+                event.roots_before = roots_before;
+                event.roots_after = this.count_roots;
+                event.links = this.count_links - links_before;
+                event.commit();
+            }
+        }
         return new_min;
     }
 
+    /**
+     * private static int bucketsLength(int size)
+     *
+     * returns the length of a buckets array that can hold a tree of every possible rank in a heap of the given size.
+     * the rank of a tree in a Fibonacci Heap of size n is at most log_phi(n) < 1.5 * log2(n) + 1.
+     *
+     * Complexity: O(1)
+     */
+    private static int bucketsLength(int size) {
+        return (32 - Integer.numberOfLeadingZeros(size)) * 3 / 2 + 2;
+    }
+
+    /**
+     * private HeapNode[] buckets(int size)
+     *
+     * returns the empty buckets array of the heap, grown if it is too short for a heap of the given size.
+     * the array is kept between successive linking passes, createHeapAndFindMin empties it after every pass.
+     *
+     * Complexity: O(1) amortized
+     */
+    private HeapNode[] buckets(int size) {
+        int length = bucketsLength(size);
+        if (this.buckets.length < length) {
+            this.buckets = new HeapNode[length];
+        }
+        return this.buckets;
+    }
+
+    /**
+     * private void linkRootsIntoBuckets(HeapNode[] buckets)
+     *
+     * puts every root of the heap into the buckets array, linking it with the trees already there.
+     *
+     * time complexity: O(#roots + #links)
+     */
+    private void linkRootsIntoBuckets(HeapNode[] buckets) {
+        int count_roots_copy = this.count_roots;
+        HeapNode node = this.first;
+        while (count_roots_copy > 0) {
+            // link() changes the siblings of the linked root, so the next root is saved first
+            HeapNode tmp = node.getNext();
+            this.linkIntoBuckets(buckets, node);
+            node = tmp;
+            count_roots_copy --;
+        }
+    }
+
+    /**
+     * private void linkIntoBuckets(HeapNode[] buckets, HeapNode node)
+     *
+     * puts the tree rooted at node into buckets[rank]. while that bucket is taken, the two trees are linked and
+     * the result moves on to the next rank, like a carry in a binary counter.
+     *
+     * time complexity: O(1 + #links)
+     */
+    private void linkIntoBuckets(HeapNode[] buckets, HeapNode node) {
+        int rank = node.getRank();
+        while (buckets[rank] != null) {
+            node = link(node, buckets[rank]);
+            buckets[rank] = null;
+            rank++;
+        }
+        buckets[rank] = node;
+    }
+
     /**
      * private HeapNode createHeapAndFindMin(HeapNode[] buckets)
      *
-     * goes throw buckets array and creats a new heap.
+     * goes throw buckets array and creats a new heap, leaving the buckets array empty.
      *
      * returns the node with minimal key in the array
      *
@@ -254,6 +858,7 @@ public class FibonacciHeap
                     }
                     last_added_tree = buckets[i];
                 }
+                buckets[i] = null;
             }
         }
         if (last_added_tree != null) {
@@ -297,7 +902,7 @@ public class FibonacciHeap
         root.setChild(left_child);
         left_child.setParent(root);
         root.setRank(root.getRank() + 1);
-        count_total_links++;
+        this.count_links++;
         return root;
     }
 
@@ -322,6 +927,9 @@ public class FibonacciHeap
      */
     public void meld(FibonacciHeap heap2)
     {
+        this.mod_count++;
+        heap2.mod_count++;
+        heap2.meldedInto(this);
         //if one of the heaps are empty:
         if (heap2.isEmpty()){
             return;
@@ -345,14 +953,138 @@ public class FibonacciHeap
         this.size += heap2.size();
         this.count_roots += heap2.getRootsNum();
         this.count_marked += heap2.getMarkedNum();
+        //the work done by heap2 is now accounted to this heap:
+        this.count_inserts += heap2.count_inserts;
+        this.count_delete_mins += heap2.count_delete_mins;
+        this.count_decrease_keys += heap2.count_decrease_keys;
+        this.count_deletes += heap2.count_deletes;
+        this.count_links += heap2.count_links;
+        this.count_cuts += heap2.count_cuts;
+        this.count_cascading_cuts += heap2.count_cascading_cuts;
+        this.max_cascade_depth = Math.max(this.max_cascade_depth, heap2.max_cascade_depth);
+        this.count_consolidations += heap2.count_consolidations;
+        this.count_roots_scanned += heap2.count_roots_scanned;
+        this.changed();
     }
 
     /**
-     * public int size()
+     * public FibonacciHeap extractBelow(int threshold)
      *
-     * Returns the number of elements in the heap.
+     * Moves every entry whose key is below threshold to a new heap and returns it, the counterpart of meld: the
+     * trees whose roots are below threshold move as they are, and the subtrees inside them whose roots are not
+     * below threshold are cut back to the roots of this heap. A node that loses children that way is marked or cut
+     * within the new heap like in a cascading cut, so both heaps keep their amortized bounds. The nodes keep their
+     * identity, so handles of the moved entries address the new heap.
      *
-     * Complexity: O(1)
+     * The new heap is independent of this one and has the default settings, so a batch of due entries can be
+     * handed to another thread.
+     *
+     * time complexity: O(#roots + #moved entries * log n)
+     */
+    public FibonacciHeap extractBelow(int threshold) {
+        return this.extractBelowInto(threshold, new FibonacciHeap());
+    }
+
+    /**
+     * <T extends FibonacciHeap> T extractBelowInto(int threshold, T below)
+     *
+     * moves the entries whose key is below threshold to the empty heap below and returns it, used by extractBelow
+     * and by subclasses that return their own heap type.
+     *
+     * time complexity: O(#roots + #moved entries * log n)
+     */
+    <T extends FibonacciHeap> T extractBelowInto(int threshold, T below) {
+        // private members can't be reached through T
+        FibonacciHeap heap = below;
+        if (this.isEmpty() || this.min_node.getKey() >= threshold) {
+            return below;
+        }
+        this.mod_count++;
+        heap.mod_count++;
+        // the ancestors of a node below threshold are below it too, so those nodes are the top of the trees whose
+        // roots are below threshold. the roots list is rebuilt from the roots that stay
+        NodeQueue moved = this.candidates;
+        HeapNode root = this.first;
+        int count_roots_before = this.count_roots;
+        this.first = null;
+        this.count_roots = 0;
+        for (int i = count_roots_before; i > 0; i--) {
+            HeapNode next = root.getNext();
+            if (root.getKey() < threshold) {
+                heap.linkRoot(root);
+                moved.append(root);
+            }
+            else {
+                this.linkRoot(root);
+            }
+            root = next;
+        }
+        heap.min_node = this.min_node;
+
+        // a breadth first pass, so a node is visited after all its ancestors and its mark belongs to below by
+        // the time one of its descendants cascades to it
+        int cuts = 0;
+        for (int i = 0; i < moved.size(); i++) {
+            HeapNode x = moved.get(i);
+            if (x.getMarked()) {
+                this.count_marked--;
+                heap.count_marked++;
+            }
+            HeapNode child = x.getChild();
+            for (int j = x.getRank(); j > 0; j--) {
+                HeapNode next = child.getNext();
+                if (child.getKey() < threshold) {
+                    moved.append(child);
+                }
+                else {
+                    this.cut(child, x);
+                    cuts++;
+                    HeapNode parent = x.getParent();
+                    if (parent != null) {
+                        if (!x.getMarked()) {
+                            heap.setHeapNodeMarked(x, true);
+                        }
+                        else {
+                            cuts += heap.cutChain(x, parent);
+                            heap.count_cascading_cuts++;
+                        }
+                    }
+                }
+                child = next;
+            }
+        }
+        this.size -= moved.size();
+        heap.size += moved.size();
+        moved.clear();
+        count_total_cuts.add(cuts);
+        this.min_node = this.count_roots == 0 ? null : this.scanRootsForMin();
+        this.changed();
+        heap.changed();
+        return below;
+    }
+
+    /**
+     * public void meld(AddressablePriorityQueue<HeapNode> heap2)
+     *
+     * Melds heap2, which must be a FibonacciHeap, with the current heap.
+     *
+     * Complexity: O(1)
+     */
+    @Override
+    public void meld(AddressablePriorityQueue<HeapNode> heap2) {
+        if (!(heap2 instanceof FibonacciHeap)) {
+            throw new IllegalArgumentException("can't meld a " + heap2.getClass().getSimpleName()
+                    + " into a FibonacciHeap");
+        }
+        this.meld((FibonacciHeap) heap2);
+    }
+
+    /**
+     * public int size()
+     *
+     * Returns the number of elements in the heap.
+     *
+     * Complexity: O(1)
      */
     public int size()
     {
@@ -402,14 +1134,71 @@ public class FibonacciHeap
      * Deletes the node x from the heap.
      * It is assumed that x indeed belongs to the heap.
      *
+     * x is cut to the roots without changing its key. Unless lazy deletion is on (see setLazyDelete) or x is the
+     * minimum, it is then removed as by a deleteMin, which consolidates the roots. With lazy deletion, a node that
+     * isn't the minimum is only removed from the roots and its children spliced in, and the next deleteMin pays
+     * for consolidating them.
+     *
      * time complexity: WC - O(n), amortized - O(log n)
      */
     public void delete(HeapNode x)
     {
-        // turning x to the node with minimal key:
-        decreaseKey(x, Integer.MIN_VALUE);
-        // delete x:
-        this.deleteMin();
+        long start = this.latencyStart();
+        this.count_deletes++;
+        HeapNode parent = x.getParent();
+        if (parent != null) {
+            this.cascadingCut(x, parent);
+        }
+        if (this.lazy_delete && x != this.min_node) {
+            this.removeRoot(x);
+            this.nodeRemoved(x);
+            this.recycle(x);
+        }
+        else {
+            // x is now a root, making it the min_node lets removeMin remove it regardless of its key
+            this.min_node = x;
+            this.removeMin();
+        }
+        this.recordLatency(Operation.DELETE, start);
+        this.changed();
+    }
+
+    /**
+     * public void delete(HeapNode x, int generation)
+     *
+     * Deletes the node x from the heap, after checking that x still holds the entry it held at the given
+     * generation (see setNodePoolCapacity).
+     *
+     * throws IllegalStateException if the handle is stale.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public void delete(HeapNode x, int generation)
+    {
+        this.checkLive(x, generation);
+        this.delete(x);
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta, int generation)
+     *
+     * Decreases the key of the node x by a non-negative value delta, after checking that x still holds the entry
+     * it held at the given generation (see setNodePoolCapacity).
+     *
+     * throws IllegalStateException if the handle is stale.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKey(HeapNode x, int delta, int generation)
+    {
+        this.checkLive(x, generation);
+        this.decreaseKey(x, delta);
+    }
+
+    private void checkLive(HeapNode x, int generation) {
+        if (!this.isLive(x, generation)) {
+            throw new IllegalStateException("stale handle: the entry of the node was removed from the heap");
+        }
     }
 
     /**
@@ -422,12 +1211,145 @@ public class FibonacciHeap
      */
     public void decreaseKey(HeapNode x, int delta)
     {
+        long start = this.latencyStart();
+        this.count_decrease_keys++;
+        this.mod_count++;
         if (delta == Integer.MIN_VALUE) {
             x.setKey(delta);
         }
         else {
             x.setKey(x.getKey() -delta);
         }
+        this.keyDecreased(x);
+        this.recordLatency(Operation.DECREASE_KEY, start);
+        this.changed();
+    }
+
+    /**
+     * public void decreaseKeys(HeapNode[] nodes, int[] deltas, int len)
+     *
+     * Decreases the key of nodes[i] by the non-negative deltas[i] for every i < len, like len calls of
+     * decreaseKey(nodes[i], deltas[i]) would, in two passes: all the keys are changed first, then every node that
+     * is now smaller than its parent is cut with its cascade of marked ancestors, and the minimum is found once
+     * among the changed nodes. A node may appear more than once, its deltas add up.
+     *
+     * Suits relaxation bursts, like the edges of a vertex in Dijkstra's algorithm: a node whose parent was also
+     * decreased below it stays in its tree, and the counters, the modification count and the snapshot interval
+     * are updated once per batch. The latency histograms are not, a batch is not a single decreaseKey.
+     *
+     * throws IndexOutOfBoundsException if len is negative or larger than either array, in which case no key is
+     * changed.
+     *
+     * time complexity: WC O(n), amortized O(len)
+     */
+    public void decreaseKeys(HeapNode[] nodes, int[] deltas, int len)
+    {
+        if (len < 0 || len > nodes.length || len > deltas.length) {
+            throw new IndexOutOfBoundsException("len " + len + " out of bounds for " + nodes.length + " nodes and "
+                    + deltas.length + " deltas");
+        }
+        if (len == 0) {
+            return;
+        }
+        for (int i = 0; i < len; i++) {
+            HeapNode x = nodes[i];
+            if (deltas[i] == Integer.MIN_VALUE) {
+                x.setKey(Integer.MIN_VALUE);
+            }
+            else {
+                x.setKey(x.getKey() - deltas[i]);
+            }
+        }
+        // only a changed node can be smaller than its parent now. after its cut, a node is a root and can't be cut
+        // again, so a node listed twice is cut at most once
+        int count_chains = 0;
+        int count_cut = 0;
+        for (int i = 0; i < len; i++) {
+            HeapNode x = nodes[i];
+            HeapNode parent = x.getParent();
+            if (parent != null && x.getKey() < parent.getKey()) {
+                count_cut += this.cutChain(x, parent);
+                count_chains++;
+            }
+        }
+        // only the changed nodes that are roots after all the cuts can replace min_node. a changed node that kept
+        // its parent may equal the new minimum, but min_node has to be a root
+        HeapNode new_min = this.min_node;
+        for (int i = 0; i < len; i++) {
+            HeapNode x = nodes[i];
+            if (x.getParent() == null && x.getKey() < new_min.getKey()) {
+                new_min = x;
+            }
+        }
+        this.min_node = new_min;
+        this.count_decrease_keys += len;
+        this.count_cascading_cuts += count_chains;
+        if (count_cut > 0) {
+            count_total_cuts.add(count_cut);
+        }
+        this.mod_count++;
+        this.changed();
+    }
+
+    /**
+     * public void increaseKey(HeapNode x, int delta)
+     *
+     * Increases the key of the node x by a non-negative value delta, keeping x in the heap so handles to it stay
+     * valid. Only the children of x whose keys are now smaller than the key of x are cut to the roots, and
+     * min_node is only searched for again if x was the minimum.
+     *
+     * throws IllegalArgumentException if delta is negative or the key would overflow.
+     *
+     * time complexity: amortized O(log n), plus O(#roots) if x was the minimum
+     */
+    public void increaseKey(HeapNode x, int delta)
+    {
+        if (delta < 0) {
+            throw new IllegalArgumentException("delta must be non-negative: " + delta);
+        }
+        if (x.getKey() > Integer.MAX_VALUE - delta) {
+            throw new IllegalArgumentException("increasing " + x.getKey() + " by " + delta + " overflows");
+        }
+        this.mod_count++;
+        x.setKey(x.getKey() + delta);
+        this.keyIncreased(x);
+        this.changed();
+    }
+
+    /**
+     * public void updateKey(HeapNode x, int new_key)
+     *
+     * Sets the key of the node x to new_key, as a decreaseKey or an increaseKey of x depending on the direction.
+     *
+     * time complexity: amortized O(1) for a smaller key, amortized O(log n) plus O(#roots) if x was the minimum
+     * for a larger one
+     */
+    public void updateKey(HeapNode x, int new_key)
+    {
+        if (new_key == x.getKey()) {
+            return;
+        }
+        this.mod_count++;
+        boolean decreased = new_key < x.getKey();
+        x.setKey(new_key);
+        if (decreased) {
+            this.count_decrease_keys++;
+            this.keyDecreased(x);
+        }
+        else {
+            this.keyIncreased(x);
+        }
+        this.changed();
+    }
+
+    /**
+     * private void keyDecreased(HeapNode x)
+     *
+     * restores the heap order after the key of x was decreased, cutting x from its parent if needed.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    private void keyDecreased(HeapNode x) {
         HeapNode parent = x.getParent();
         // x is one of the roots of the heap
         if (parent == null) {
@@ -438,6 +1360,67 @@ public class FibonacciHeap
             return;
         }
         this.cascadingCut(x, parent);
+        this.findNewMin(x);
+    }
+
+    /**
+     * private void keyIncreased(HeapNode x)
+     *
+     * restores the heap order after the key of x was increased: the children of x that are now smaller than x are
+     * cut to the roots. x losing a child is handled like a cut of that child in decreaseKey: x is marked, or cut
+     * from its own parent if it was marked already or lost more than one child. the parent of x is still smaller
+     * than x, so x itself never violates the heap order.
+     *
+     * time complexity: O(rank of x) + O(#roots) if x was the minimum
+     */
+    private void keyIncreased(HeapNode x) {
+        // the roots are rescanned only when x was the minimum: otherwise the cut children, which were below x,
+        // are no smaller than min_node and it stays. cut leaves min_node alone, so this could be read afterwards too
+        boolean was_min = x == this.min_node;
+        int count_lost = 0;
+        HeapNode child = x.getChild();
+        for (int i = x.getRank(); i > 0; i--) {
+            HeapNode next = child.getNext();
+            if (child.getKey() < x.getKey()) {
+                this.cut(child, x);
+                count_lost++;
+            }
+            child = next;
+        }
+        if (count_lost > 0) {
+            count_total_cuts.add(count_lost);
+            HeapNode parent = x.getParent();
+            if (parent != null) {
+                if (count_lost == 1 && !x.getMarked()) {
+                    setHeapNodeMarked(x, true);
+                }
+                else {
+                    this.cascadingCut(x, parent);
+                }
+            }
+        }
+        if (was_min) {
+            this.min_node = this.scanRootsForMin();
+        }
+    }
+
+    /**
+     * private HeapNode scanRootsForMin()
+     *
+     * returns the root with the minimal key.
+     *
+     * Complexity: O(#roots)
+     */
+    private HeapNode scanRootsForMin() {
+        HeapNode min = this.first;
+        HeapNode root = this.first.getNext();
+        while (root != this.first) {
+            if (root.getKey() < min.getKey()) {
+                min = root;
+            }
+            root = root.getNext();
+        }
+        return min;
     }
 
     /**
@@ -464,16 +1447,52 @@ public class FibonacciHeap
      * time complexity: WC O(n), amortized O(1)
      */
     private void cascadingCut(HeapNode x, HeapNode parent) {
-        this.cut(x, parent);
-        HeapNode grandfather = parent.getParent();
-        if(grandfather != null){
+        FibonacciHeapEvents.CascadingCutEvent event = null;
+        if (FibonacciHeapEvents.CASCADING_CUT.isEnabled()) {
+            event = new FibonacciHeapEvents.CascadingCutEvent();
+            event.begin();
+        }
+        int depth = this.cutChain(x, parent);
+        this.count_cascading_cuts++;
+        count_total_cuts.add(depth);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.size = this.size;
+                event.chain_length = depth;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * private int cutChain(HeapNode x, HeapNode parent)
+     *
+     * cuts x from its parent, then every marked ancestor from its own parent, and marks the first unmarked
+     * ancestor that is not a root. returns the number of cuts made. the global counters and the events are left
+     * to the caller.
+     *
+     * time complexity: O(#cuts)
+     */
+    private int cutChain(HeapNode x, HeapNode parent) {
+        // iterating instead of recursing, so a long chain of marked ancestors can't overflow the stack
+        int depth = 0;
+        while (true) {
+            this.cut(x, parent);
+            depth++;
+            HeapNode grandfather = parent.getParent();
+            if (grandfather == null) {
+                break;
+            }
             if (!parent.getMarked()) {
                 setHeapNodeMarked(parent, true);
+                break;
             }
-            else {
-                cascadingCut(parent, grandfather);
-            }
+            x = parent;
+            parent = grandfather;
         }
+        this.max_cascade_depth = Math.max(this.max_cascade_depth, depth);
+        return depth;
     }
 
     /**
@@ -515,13 +1534,29 @@ public class FibonacciHeap
             }
             prev.setNext(next);
         }
-        // add x to roots list + define x as the new heap min_node if needed
-        this.first.getPrev().setNext(x);
-        x.setNext(this.first);
-        this.first = x;
-        this.findNewMin(x);
-        this.count_roots ++;
-        count_total_cuts ++;
+        // the caller updates min_node if x is smaller
+        this.linkRoot(x);
+        this.count_cuts++;
+    }
+
+    /**
+     * private void linkRoot(HeapNode root)
+     *
+     * adds a node with no parent as the first root of the list of roots, which may be empty, without looking for a
+     * new min_node.
+     *
+     * Complexity: O(1)
+     */
+    private void linkRoot(HeapNode root) {
+        if (this.first == null) {
+            root.setNext(root);
+        }
+        else {
+            this.first.getPrev().setNext(root);
+            root.setNext(this.first);
+        }
+        this.first = root;
+        this.count_roots++;
     }
 
     /**
@@ -553,77 +1588,812 @@ public class FibonacciHeap
     }
 
     /**
-     * public static int totalLinks()
+     * public static long totalLinks()
      *
      * This static function returns the total number of link operations made during the
-     * run-time of the program. A link operation is the operation which gets as input two
+     * run-time of the program by all the heaps. A link operation is the operation which gets as input two
      * trees of the same rank, and generates a tree of rank bigger by one, by hanging the
      * tree which has larger value in its root under the other tree.
+     * The number of links made by a single heap is available from metrics().
      *
-     * Complexity: O(1)
+     * Complexity: O(#threads that updated the counter)
      */
-    public static int totalLinks()
+    public static long totalLinks()
     {
-        return count_total_links;
+        return count_total_links.sum();
     }
 
     /**
-     * public static int totalCuts()
+     * public static long totalCuts()
      *
      * This static function returns the total number of cut operations made during the
-     * run-time of the program. A cut operation is the operation which disconnects a subtree
+     * run-time of the program by all the heaps. A cut operation is the operation which disconnects a subtree
      * from its parent (during decreaseKey/delete methods).
+     * The number of cuts made by a single heap is available from metrics().
+     *
+     * Complexity: O(#threads that updated the counter)
+     */
+    public static long totalCuts()
+    {
+        return count_total_cuts.sum();
+    }
+
+    /**
+     * public FibonacciHeapMetrics metrics()
+     *
+     * Returns a snapshot of the operation counters of this heap.
      *
      * Complexity: O(1)
      */
-    public static int totalCuts()
+    public FibonacciHeapMetrics metrics()
+    {
+        return new FibonacciHeapMetrics(System.nanoTime(), this.size, this.potential(), this.count_inserts,
+                this.count_delete_mins, this.count_decrease_keys, this.count_deletes, this.count_links,
+                this.count_cuts, this.count_cascading_cuts, this.max_cascade_depth, this.count_consolidations,
+                this.count_roots_scanned);
+    }
+
+    /**
+     * public ObjectName registerMBean(String name)
+     *
+     * Registers a FibonacciHeapMetricsMXBean of this heap in the platform MBean server, under the object name
+     * "FibonacciHeap:type=Metrics,name=<name>". The attributes are read from the live heap without
+     * synchronization, so while another thread mutates the heap they may be slightly stale.
+     * The platform MBean server keeps the heap reachable until unregisterMBean is called.
+     *
+     * Returns the object name the bean was registered under.
+     */
+    public ObjectName registerMBean(String name) throws JMException
     {
-        return count_total_cuts;
+        ObjectName object_name = new ObjectName("FibonacciHeap:type=Metrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(this), object_name);
+        this.mbean_name = object_name;
+        return object_name;
+    }
+
+    /**
+     * public void unregisterMBean()
+     *
+     * Unregisters the bean registered by registerMBean, if there is one.
+     */
+    public void unregisterMBean() throws JMException
+    {
+        if (this.mbean_name != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.mbean_name);
+            this.mbean_name = null;
+        }
     }
 
     /**
      * public static int[] kMin(FibonacciHeap H, int k)
      *
-     * This static function returns the k smallest elements in a Fibonacci heap that contains a single tree.
-     * The function should run in O(k*deg(H)). (deg(H) is the degree of the only tree in H.)
+     * This static function returns the k smallest elements in a Fibonacci heap, in ascending order.
+     * If the heap has fewer than k elements, the remaining entries of the array are 0.
      * ###CRITICAL### : you are NOT allowed to change H.
      *
-     * Complexity: O(k*deg(H))
+     * Complexity: O(#roots + k*deg(H)*log(k*deg(H))), where deg(H) is the maximal rank in H
      */
     public static int[] kMin(FibonacciHeap H, int k)
     {
-        FibonacciHeap B = new FibonacciHeap();
         int[] arr = new int[k];
-        int index_of_arr = 0;
-        if (H.isEmpty()) {
-            return arr;
-        }
-        HeapNode first_node_in_B = new HeapNode(H.getMinNode().getKey());
-        // updating field "child_pointer_for_kMin_method" that will hold to the child's pointer without
-        // affecting the structure of the heap, meaning without "child" field compromised:
-        first_node_in_B.set_child_pointer_for_kMin_method(H.getMinNode().getChild());
-        B.insert(first_node_in_B); // using an override method "insert"
-        for (int i = 0; i < k; i ++){
-            // finding minimum in B and inserting it to the sorted arr:
-            HeapNode min_pointer_in_B = B.findMin();
-            arr[index_of_arr] = min_pointer_in_B.getKey();
-            index_of_arr ++;
-            // inserting all of min's children to heap B:
-            HeapNode child = min_pointer_in_B.get_child_pointer_for_kMin_method();
-            if (child == null) {
-                B.deleteMin();
-                continue;
-            }
-            for (int j = 0 ; j < child.getParent().getRank() ; j++) {
-                HeapNode child_for_heap_B = new HeapNode(child.getKey());
-                child_for_heap_B.set_child_pointer_for_kMin_method(child.getChild());
-                B.insert(child_for_heap_B);
+        H.topK(k, arr);
+        return arr;
+    }
+
+    /**
+     * public int topK(int k, int[] out)
+     *
+     * Writes the k smallest keys of the heap (or all of its keys, if it has fewer than k) into out in ascending
+     * order, without changing the heap.
+     * The keys are found by a best first search: a candidates queue of node references starts with all the roots,
+     * and every node taken out of it adds its children, whose keys are not smaller than its own.
+     *
+     * Returns the number of keys written.
+     *
+     * Complexity: O(#roots + k*deg*log(k*deg)), where deg is the maximal rank in the heap
+     */
+    public int topK(int k, int[] out)
+    {
+        k = Math.min(k, this.size);
+        if (k <= 0) {
+            return 0;
+        }
+        NodeQueue candidates = this.candidates;
+        this.appendSiblings(candidates, this.first, this.count_roots);
+        candidates.heapify();
+        for (int i = 0; i < k; i++) {
+            HeapNode min = candidates.poll();
+            out[i] = min.getKey();
+            HeapNode child = min.getChild();
+            for (int j = 0; j < min.getRank(); j++) {
+                candidates.add(child);
                 child = child.getNext();
             }
-            // deleting minimum from B and making B a binomial tree again:
-            B.deleteMin();
         }
-        return arr;
+        candidates.clear();
+        return k;
+    }
+
+    /**
+     * public PrimitiveIterator.OfInt ascending()
+     *
+     * Returns an iterator over the keys of the heap in ascending order. The keys are found lazily, by the same
+     * best first search as topK, so taking the first k keys costs about as much as topK(k).
+     * The iterator fails fast: it throws ConcurrentModificationException once the heap was changed after it was
+     * created.
+     *
+     * Complexity: O(#roots) to create the iterator, O(deg*log(#candidates)) per key
+     */
+    public PrimitiveIterator.OfInt ascending()
+    {
+        return new AscendingIterator(this);
+    }
+
+    /**
+     * public IntStream keys()
+     *
+     * Returns a stream of the keys of the heap in no particular order. The stream walks the forest in place,
+     * and its spliterator splits at the boundaries of the roots list and of the children lists, so it can run
+     * as a parallel stream. The heap must not be changed until the stream is consumed; a change is detected and
+     * reported by a ConcurrentModificationException.
+     *
+     * Complexity: O(1) to create the stream, O(n) to consume it
+     */
+    public IntStream keys()
+    {
+        return StreamSupport.intStream(new KeySpliterator(this), false);
+    }
+
+    /**
+     * public IntStream sortedKeys()
+     *
+     * Returns a stream of the keys of the heap in ascending order, produced lazily by ascending() without changing
+     * the heap, so taking the first k keys costs about as much as topK(k). The heap must not be changed until the
+     * stream is consumed; a change is detected and reported by a ConcurrentModificationException.
+     *
+     * Complexity: O(#roots) to start the stream, O(deg*log(#candidates)) per key
+     */
+    public IntStream sortedKeys()
+    {
+        // the iterator is created when the stream starts, not when sortedKeys is called
+        return StreamSupport.intStream(() -> Spliterators.spliterator(this.ascending(), this.size,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED | Spliterator.NONNULL, false);
+    }
+
+    private void checkModCount(int expected_mod_count) {
+        if (this.mod_count != expected_mod_count) {
+            throw new ConcurrentModificationException("the heap was changed during the traversal");
+        }
+    }
+
+    private void appendSiblings(NodeQueue queue, HeapNode node, int count) {
+        for (int i = 0; i < count; i++) {
+            queue.append(node);
+            node = node.getNext();
+        }
+    }
+
+    /**
+     * private static final class AscendingIterator
+     *
+     * the iterator of ascending(). its candidates queue holds the nodes whose parent was already returned.
+     */
+    private static final class AscendingIterator implements PrimitiveIterator.OfInt {
+
+        private final FibonacciHeap heap;
+        private final int expected_mod_count;
+        private final NodeQueue candidates;
+
+        private AscendingIterator(FibonacciHeap heap) {
+            this.heap = heap;
+            this.expected_mod_count = heap.mod_count;
+            this.candidates = new NodeQueue(heap.count_roots + 16);
+            heap.appendSiblings(this.candidates, heap.first, heap.count_roots);
+            this.candidates.heapify();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.candidates.size() > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            this.heap.checkModCount(this.expected_mod_count);
+            if (this.candidates.size() == 0) {
+                throw new NoSuchElementException();
+            }
+            HeapNode min = this.candidates.poll();
+            HeapNode child = min.getChild();
+            for (int j = 0; j < min.getRank(); j++) {
+                this.candidates.add(child);
+                child = child.getNext();
+            }
+            return min.getKey();
+        }
+    }
+
+    /**
+     * private static final class KeySpliterator
+     *
+     * the spliterator of keys(). the nodes left to visit are a stack of runs, a run being count consecutive
+     * siblings starting at a node, together with their subtrees. tryAdvance pops a run, returns the key of its
+     * first node and pushes the rest of the run and the children of that node.
+     * trySplit hands over the bottom half of the stack, or, for a single run, the first half of its siblings. a
+     * single tree is split below its root, whose key is then kept in pending_key.
+     */
+    private static final class KeySpliterator implements Spliterator.OfInt {
+
+        private final FibonacciHeap heap;
+        private final int expected_mod_count;
+        private HeapNode[] run_nodes;
+        private int[] run_counts;
+        private int runs;
+        private boolean has_pending_key;
+        private int pending_key;
+        private long estimate;
+        // exact until the first split
+        private boolean sized;
+
+        private KeySpliterator(FibonacciHeap heap) {
+            this(heap, heap.mod_count, 8, heap.size, true);
+            if (heap.count_roots > 0) {
+                this.push(heap.first, heap.count_roots);
+            }
+        }
+
+        private KeySpliterator(FibonacciHeap heap, int expected_mod_count, int capacity, long estimate,
+                               boolean sized) {
+            this.heap = heap;
+            this.expected_mod_count = expected_mod_count;
+            this.run_nodes = new HeapNode[capacity];
+            this.run_counts = new int[capacity];
+            this.estimate = estimate;
+            this.sized = sized;
+        }
+
+        private void push(HeapNode node, int count) {
+            if (this.runs == this.run_nodes.length) {
+                this.run_nodes = Arrays.copyOf(this.run_nodes, 2 * this.runs);
+                this.run_counts = Arrays.copyOf(this.run_counts, 2 * this.runs);
+            }
+            this.run_nodes[this.runs] = node;
+            this.run_counts[this.runs] = count;
+            this.runs++;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            this.heap.checkModCount(this.expected_mod_count);
+            if (this.has_pending_key) {
+                this.has_pending_key = false;
+                action.accept(this.pending_key);
+                return true;
+            }
+            if (this.runs == 0) {
+                return false;
+            }
+            this.runs--;
+            HeapNode node = this.run_nodes[this.runs];
+            int count = this.run_counts[this.runs];
+            this.run_nodes[this.runs] = null;
+            if (count > 1) {
+                this.push(node.getNext(), count - 1);
+            }
+            if (node.getRank() > 0) {
+                this.push(node.getChild(), node.getRank());
+            }
+            action.accept(node.getKey());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (this.tryAdvance(action)) {
+                // tryAdvance does the work
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            this.heap.checkModCount(this.expected_mod_count);
+            if (this.runs == 1 && this.run_counts[0] == 1 && !this.has_pending_key) {
+                // a single tree: keep its root's key aside and split its children
+                HeapNode root = this.run_nodes[0];
+                if (root.getRank() < 2) {
+                    return null;
+                }
+                this.has_pending_key = true;
+                this.pending_key = root.getKey();
+                this.run_nodes[0] = root.getChild();
+                this.run_counts[0] = root.getRank();
+            }
+            KeySpliterator prefix;
+            if (this.runs > 1) {
+                int half = this.runs / 2;
+                prefix = new KeySpliterator(this.heap, this.expected_mod_count, Math.max(8, half), 0, false);
+                for (int i = 0; i < half; i++) {
+                    prefix.push(this.run_nodes[i], this.run_counts[i]);
+                }
+                System.arraycopy(this.run_nodes, half, this.run_nodes, 0, this.runs - half);
+                System.arraycopy(this.run_counts, half, this.run_counts, 0, this.runs - half);
+                Arrays.fill(this.run_nodes, this.runs - half, this.runs, null);
+                this.runs -= half;
+            }
+            else if (this.runs == 1 && this.run_counts[0] > 1) {
+                int half = this.run_counts[0] / 2;
+                prefix = new KeySpliterator(this.heap, this.expected_mod_count, 8, 0, false);
+                prefix.push(this.run_nodes[0], half);
+                HeapNode node = this.run_nodes[0];
+                for (int i = 0; i < half; i++) {
+                    node = node.getNext();
+                }
+                this.run_nodes[0] = node;
+                this.run_counts[0] -= half;
+            }
+            else {
+                return null;
+            }
+            this.sized = false;
+            prefix.estimate = this.estimate >>> 1;
+            this.estimate -= prefix.estimate;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return this.sized ? Spliterator.SIZED | Spliterator.NONNULL : Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * public void checkpoint(Path path)
+     *
+     * Writes the heap into the file at path, replacing it if it exists, through a memory mapping of the file.
+     * The file holds the exact shape of the forest: a header with size, count_roots, count_marked and the
+     * position of min_node in the roots list, followed by the nodes in preorder (a root, then each of its
+     * children's subtrees in the order of its children list, then the next root). Every node is stored as its
+     * key, rank and mark, the rank tells how many of the following subtrees are its children.
+     * The operation counters are not stored.
+     *
+     * Complexity: O(n)
+     */
+    public void checkpoint(Path path) throws IOException
+    {
+        long length = CHECKPOINT_HEADER_BYTES + (long) CHECKPOINT_RECORD_BYTES * this.size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedWindow file = new MappedWindow(channel, FileChannel.MapMode.READ_WRITE, length);
+            int min_index = 0;
+            HeapNode root = this.first;
+            for (int i = 0; i < this.count_roots; i++) {
+                if (root == this.min_node) {
+                    min_index = i;
+                }
+                root = root.getNext();
+            }
+            MappedByteBuffer buffer = file.window(CHECKPOINT_HEADER_BYTES);
+            buffer.putInt(CHECKPOINT_MAGIC);
+            buffer.putInt(CHECKPOINT_VERSION);
+            buffer.putInt(this.size);
+            buffer.putInt(this.count_roots);
+            buffer.putInt(this.count_marked);
+            buffer.putInt(min_index);
+
+            // preorder walk: level d of the stack holds the next sibling to write and how many are left
+            HeapNode[] stack_node = new HeapNode[16];
+            int[] stack_remaining = new int[16];
+            int depth = 0;
+            stack_node[0] = this.first;
+            stack_remaining[0] = this.count_roots;
+            while (depth >= 0) {
+                if (stack_remaining[depth] == 0) {
+                    stack_node[depth] = null;
+                    depth--;
+                    continue;
+                }
+                HeapNode node = stack_node[depth];
+                buffer = file.window(CHECKPOINT_RECORD_BYTES);
+                buffer.putInt(node.getKey());
+                buffer.put((byte) node.getRank());
+                buffer.put((byte) (node.getMarked() ? 1 : 0));
+                stack_node[depth] = node.getNext();
+                stack_remaining[depth]--;
+                if (node.getRank() > 0) {
+                    depth++;
+                    if (depth == stack_node.length) {
+                        stack_node = Arrays.copyOf(stack_node, depth * 2);
+                        stack_remaining = Arrays.copyOf(stack_remaining, depth * 2);
+                    }
+                    stack_node[depth] = node.getChild();
+                    stack_remaining[depth] = node.getRank();
+                }
+            }
+            file.force();
+        }
+    }
+
+    /**
+     * public static FibonacciHeap restore(Path path)
+     *
+     * Reads a heap written by checkpoint, rebuilding the exact shape of its forest in one sequential pass over a
+     * memory mapping of the file. The restored heap has the same roots, ranks, marks, min_node and potential as
+     * the heap that was written, and fresh operation counters.
+     *
+     * throws IOException if the file isn't a valid checkpoint.
+     *
+     * Complexity: O(n)
+     */
+    public static FibonacciHeap restore(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedWindow file = new MappedWindow(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+            if (channel.size() < CHECKPOINT_HEADER_BYTES) {
+                throw new IOException("not a FibonacciHeap checkpoint: " + path);
+            }
+            MappedByteBuffer buffer = file.window(CHECKPOINT_HEADER_BYTES);
+            if (buffer.getInt() != CHECKPOINT_MAGIC || buffer.getInt() != CHECKPOINT_VERSION) {
+                throw new IOException("not a FibonacciHeap checkpoint: " + path);
+            }
+            int size = buffer.getInt();
+            int count_roots = buffer.getInt();
+            int count_marked = buffer.getInt();
+            int min_index = buffer.getInt();
+            if (size < 0 || count_roots < 0 || count_roots > size || (size > 0) != (count_roots > 0)
+                    || min_index < 0 || min_index >= Math.max(count_roots, 1)
+                    || channel.size() != CHECKPOINT_HEADER_BYTES + (long) CHECKPOINT_RECORD_BYTES * size) {
+                throw new IOException("corrupt FibonacciHeap checkpoint: " + path);
+            }
+
+            // level d of the stack is the children list being read: its parent (null for the roots list),
+            // how many nodes are still to be read into it, and its first and last nodes so far
+            HeapNode[] stack_parent = new HeapNode[16];
+            int[] stack_remaining = new int[16];
+            HeapNode[] stack_first = new HeapNode[16];
+            HeapNode[] stack_last = new HeapNode[16];
+            int depth = 0;
+            stack_remaining[0] = count_roots;
+            int nodes_read = 0;
+            int marked_read = 0;
+            HeapNode first = null;
+            while (depth >= 0) {
+                if (stack_remaining[depth] == 0) {
+                    HeapNode list_first = stack_first[depth];
+                    if (list_first != null) {
+                        stack_last[depth].setNext(list_first);
+                    }
+                    if (depth == 0) {
+                        first = list_first;
+                    }
+                    else {
+                        stack_parent[depth].setChild(list_first);
+                    }
+                    stack_parent[depth] = null;
+                    stack_first[depth] = null;
+                    stack_last[depth] = null;
+                    depth--;
+                    continue;
+                }
+                if (nodes_read == size) {
+                    throw new IOException("corrupt FibonacciHeap checkpoint: " + path);
+                }
+                buffer = file.window(CHECKPOINT_RECORD_BYTES);
+                HeapNode node = new HeapNode(buffer.getInt());
+                int rank = buffer.get();
+                boolean marked = buffer.get() != 0;
+                nodes_read++;
+                if (rank < 0 || (marked && depth == 0)) {
+                    throw new IOException("corrupt FibonacciHeap checkpoint: " + path);
+                }
+                if (marked) {
+                    node.setMarked(true);
+                    marked_read++;
+                }
+                node.setRank(rank);
+                node.setParent(stack_parent[depth]);
+                if (stack_first[depth] == null) {
+                    stack_first[depth] = node;
+                }
+                else {
+                    stack_last[depth].setNext(node);
+                }
+                stack_last[depth] = node;
+                stack_remaining[depth]--;
+                if (rank > 0) {
+                    depth++;
+                    if (depth == stack_parent.length) {
+                        stack_parent = Arrays.copyOf(stack_parent, depth * 2);
+                        stack_remaining = Arrays.copyOf(stack_remaining, depth * 2);
+                        stack_first = Arrays.copyOf(stack_first, depth * 2);
+                        stack_last = Arrays.copyOf(stack_last, depth * 2);
+                    }
+                    stack_parent[depth] = node;
+                    stack_remaining[depth] = rank;
+                }
+            }
+            if (nodes_read != size || marked_read != count_marked) {
+                throw new IOException("corrupt FibonacciHeap checkpoint: " + path);
+            }
+
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.first = first;
+            heap.size = size;
+            heap.count_roots = count_roots;
+            heap.count_marked = count_marked;
+            HeapNode min = first;
+            for (int i = 0; i < min_index; i++) {
+                min = min.getNext();
+            }
+            heap.min_node = min;
+            return heap;
+        }
+    }
+
+    /**
+     * private static final class MappedWindow
+     *
+     * maps a file in windows of at most WINDOW_BYTES, since a single MappedByteBuffer can't exceed 2GB.
+     * the header and every record are read and written whole: WINDOW_BYTES and the header length are multiples of
+     * the record length, so a record never crosses a window boundary.
+     */
+    private static final class MappedWindow {
+
+        private static final long WINDOW_BYTES = (long) CHECKPOINT_RECORD_BYTES << 27;
+
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long length;
+        private MappedByteBuffer buffer;
+        private long position;
+
+        private MappedWindow(FileChannel channel, FileChannel.MapMode mode, long length) {
+            this.channel = channel;
+            this.mode = mode;
+            this.length = length;
+        }
+
+        // returns the mapped buffer, positioned where the next bytes bytes are read or written
+        private MappedByteBuffer window(int bytes) throws IOException {
+            if (this.buffer == null || this.buffer.remaining() < bytes) {
+                if (this.buffer != null) {
+                    this.force();
+                }
+                long window_length = Math.min(WINDOW_BYTES, this.length - this.position);
+                if (window_length < bytes) {
+                    throw new IOException("unexpected end of the checkpoint file");
+                }
+                this.buffer = this.channel.map(this.mode, this.position, window_length);
+                this.position += window_length;
+            }
+            return this.buffer;
+        }
+
+        private void force() {
+            if (this.buffer != null && this.mode == FileChannel.MapMode.READ_WRITE) {
+                this.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * private static final class BuildTask
+     *
+     * builds the consolidated heap of keys[from], ..., keys[to - 1]: a short range with insertAll, a longer one by
+     * building its halves in parallel and melding them.
+     */
+    private static final class BuildTask extends RecursiveTask<FibonacciHeap> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] keys;
+        private final HeapNode[] handles;
+        private final int from;
+        private final int to;
+
+        private BuildTask(int[] keys, HeapNode[] handles, int from, int to) {
+            this.keys = keys;
+            this.handles = handles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected FibonacciHeap compute() {
+            if (this.to - this.from <= PARALLEL_THRESHOLD) {
+                FibonacciHeap heap = new FibonacciHeap();
+                HeapNode[] nodes = heap.insertAll(this.keys, this.from, this.to - this.from);
+                if (this.handles != null) {
+                    System.arraycopy(nodes, 0, this.handles, this.from, nodes.length);
+                }
+                return heap;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            BuildTask left = new BuildTask(this.keys, this.handles, this.from, middle);
+            left.fork();
+            FibonacciHeap heap = new BuildTask(this.keys, this.handles, middle, this.to).compute();
+            return meldConsolidated(left.join(), heap);
+        }
+    }
+
+    /**
+     * private static final class MeldTask
+     *
+     * melds heaps[from], ..., heaps[to - 1] into heaps[from] and consolidates it. a range of few keys is melded
+     * sequentially, a larger one by melding its halves in parallel.
+     */
+    private static final class MeldTask extends RecursiveTask<FibonacciHeap> {
+        private static final long serialVersionUID = 1L;
+
+        private final FibonacciHeap[] heaps;
+        private final int from;
+        private final int to;
+
+        private MeldTask(FibonacciHeap[] heaps, int from, int to) {
+            this.heaps = heaps;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected FibonacciHeap compute() {
+            if (this.to - this.from == 1) {
+                FibonacciHeap heap = this.heaps[this.from];
+                heap.consolidate();
+                return heap;
+            }
+            long size = 0;
+            for (int i = this.from; i < this.to; i++) {
+                size += this.heaps[i].size;
+            }
+            if (size <= PARALLEL_THRESHOLD) {
+                FibonacciHeap heap = this.heaps[this.from];
+                for (int i = this.from + 1; i < this.to; i++) {
+                    heap.meld(this.heaps[i]);
+                }
+                heap.consolidate();
+                return heap;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            MeldTask left = new MeldTask(this.heaps, this.from, middle);
+            left.fork();
+            FibonacciHeap heap = new MeldTask(this.heaps, middle, this.to).compute();
+            return meldConsolidated(left.join(), heap);
+        }
+    }
+
+    // melds two consolidated heaps into the first one, which stays consolidated
+    private static FibonacciHeap meldConsolidated(FibonacciHeap heap1, FibonacciHeap heap2) {
+        heap1.meld(heap2);
+        heap1.consolidate();
+        return heap1;
+    }
+
+    /**
+     * private static final class NodeQueue
+     *
+     * a binary min-heap of nodes ordered by their keys, kept in a growing array. it only holds references to the
+     * nodes, so it doesn't change the heap they belong to. a heap keeps one to reuse as scratch space.
+     */
+    private static final class NodeQueue {
+
+        private HeapNode[] nodes;
+        private int size;
+
+        private NodeQueue(int capacity) {
+            this.nodes = new HeapNode[Math.max(capacity, 1)];
+        }
+
+        private int size() {
+            return this.size;
+        }
+
+        private HeapNode get(int i) {
+            return this.nodes[i];
+        }
+
+        // adds a node without restoring the heap order, heapify() has to be called before the next poll()
+        private void append(HeapNode node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+            }
+            this.nodes[this.size++] = node;
+        }
+
+        private void heapify() {
+            for (int i = (this.size >>> 1) - 1; i >= 0; i--) {
+                this.siftDown(i, this.nodes[i]);
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(this.nodes, 0, this.size, null);
+            this.size = 0;
+        }
+
+        private void add(HeapNode node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+            }
+            int i = this.size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (this.nodes[parent].getKey() <= node.getKey()) {
+                    break;
+                }
+                this.nodes[i] = this.nodes[parent];
+                i = parent;
+            }
+            this.nodes[i] = node;
+        }
+
+        private HeapNode poll() {
+            HeapNode min = this.nodes[0];
+            HeapNode last = this.nodes[--this.size];
+            this.nodes[this.size] = null;
+            if (this.size > 0) {
+                this.siftDown(0, last);
+            }
+            return min;
+        }
+
+        private void siftDown(int i, HeapNode node) {
+            int half = this.size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < this.size && this.nodes[child + 1].getKey() < this.nodes[child].getKey()) {
+                    child++;
+                }
+                if (node.getKey() <= this.nodes[child].getKey()) {
+                    break;
+                }
+                this.nodes[i] = this.nodes[child];
+                i = child;
+            }
+            this.nodes[i] = node;
+        }
+    }
+
+    /**
+     * private static class MetricsMBean
+     *
+     * the FibonacciHeapMetricsMXBean of a heap, reading its counters on every attribute access.
+     */
+    private static class MetricsMBean implements FibonacciHeapMetricsMXBean {
+
+        private final FibonacciHeap heap;
+
+        private MetricsMBean(FibonacciHeap heap) {
+            this.heap = heap;
+        }
+
+        public int getSize() { return this.heap.size; }
+
+        public int getPotential() { return this.heap.potential(); }
+
+        public long getInserts() { return this.heap.count_inserts; }
+
+        public long getDeleteMins() { return this.heap.count_delete_mins; }
+
+        public long getDecreaseKeys() { return this.heap.count_decrease_keys; }
+
+        public long getDeletes() { return this.heap.count_deletes; }
+
+        public long getLinks() { return this.heap.count_links; }
+
+        public long getCuts() { return this.heap.count_cuts; }
+
+        public long getCascadingCuts() { return this.heap.count_cascading_cuts; }
+
+        public int getMaxCascadeDepth() { return this.heap.max_cascade_depth; }
+
+        public long getConsolidations() { return this.heap.count_consolidations; }
+
+        public long getRootsScanned() { return this.heap.count_roots_scanned; }
     }
 
     /**
@@ -633,7 +2403,7 @@ public class FibonacciHeap
      * (for example HeapNode), do it in this file, not in another file.
      *
      */
-    public static class HeapNode {
+    public static class HeapNode implements AddressablePriorityQueue.Handle {
 
         public int key;
         private int rank;
@@ -642,7 +2412,7 @@ public class FibonacciHeap
         private HeapNode next;
         private HeapNode prev;
         private HeapNode parent;
-        private HeapNode child_pointer_for_kMin_method; // used for kMin method only
+        private int generation; // increased every time the node is recycled
 
         public HeapNode(int key) {
             this.key = key;
@@ -652,7 +2422,6 @@ public class FibonacciHeap
             this.next = null;
             this.prev = null;
             this.parent = null;
-            this.child_pointer_for_kMin_method = null;
         }
 
         public int getKey() {
@@ -714,9 +2483,9 @@ public class FibonacciHeap
             this.parent = parent;
         }
 
-        public HeapNode get_child_pointer_for_kMin_method() { return this.child_pointer_for_kMin_method; }
-
-        public void set_child_pointer_for_kMin_method (HeapNode child) { this.child_pointer_for_kMin_method = child; }
+        public int getGeneration() {
+            return this.generation;
+        }
     }
 
 }
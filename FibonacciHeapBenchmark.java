@@ -0,0 +1,709 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * FibonacciHeapBenchmark
+ *
+ * A benchmark harness for the FibonacciHeap operations, using java.util.PriorityQueue as a baseline. The other
+ * AddressablePriorityQueue engines (pairing, 4-ary and radix heaps) run the same operations for comparison.
+ *
+ * Every (workload, size, operation, engine) combination runs a few warmup iterations followed by measured
+ * iterations. Only the measured phase of an iteration is timed; building the heap it operates on is not.
+ * For every combination the harness reports throughput, average time and allocation rate per operation.
+ *
+ * usage: java FibonacciHeapBenchmark [--sizes 1000,10000] [--workloads random,dijkstra]
+ *                                    [--ops insert,deleteMin] [--warmup 3] [--iterations 5] [--seed 1]
+ */
+public class FibonacciHeapBenchmark
+{
+    // PriorityQueue removes by value in O(n), so the baseline only measures that many removals per iteration
+    private static final int PRIORITY_QUEUE_REMOVALS = 10000;
+    private static final int KMIN_K = 100;
+    private static final int KMIN_REPETITIONS = 1000;
+    private static final int MELD_HEAP_SIZE = 16;
+    private static final int DECREASES_PER_EXTRACTION = 4;
+    private static final int POLL_BATCH = 256;
+    private static final int CANCELS_PER_EXTRACTION = 10;
+    // the relaxed out-edges of every vertex extracted by RELAX_BURST and RELAX_BURST_BATCHED
+    private static final int RELAX_BURST_SIZE = 32;
+
+    private static volatile long sink;
+
+    enum Workload {
+        RANDOM, SORTED, REVERSE_SORTED, DIJKSTRA, MELD_SMALL
+    }
+
+    enum Operation {
+        INSERT, DELETE_MIN, POLL_MINS, DECREASE_KEY, DELETE, KMIN, CHURN, CANCEL, MIXED, RELAX_BURST,
+        RELAX_BURST_BATCHED, MELD
+    }
+
+    enum Engine {
+        FIBONACCI, FIBONACCI_POOLED, FIBONACCI_LAZY, PAIRING, DARY, RADIX, PRIORITY_QUEUE
+    }
+
+    private final long seed;
+    private final int warmup;
+    private final int iterations;
+    private final com.sun.management.ThreadMXBean thread_bean;
+
+    public FibonacciHeapBenchmark(long seed, int warmup, int iterations) {
+        this.seed = seed;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.thread_bean = (com.sun.management.ThreadMXBean) bean;
+            this.thread_bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        else {
+            this.thread_bean = null;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = {1000, 10000, 100000, 1000000, 10000000};
+        List<Workload> workloads = new ArrayList<>(Arrays.asList(Workload.values()));
+        List<Operation> ops = new ArrayList<>(Arrays.asList(Operation.values()));
+        int warmup = 3;
+        int iterations = 5;
+        long seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+                    break;
+                case "--workloads":
+                    workloads.clear();
+                    for (String name : value.split(",")) {
+                        workloads.add(parse(Workload.class, name));
+                    }
+                    break;
+                case "--ops":
+                    ops.clear();
+                    for (String name : value.split(",")) {
+                        ops.add(parse(Operation.class, name));
+                    }
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        FibonacciHeapBenchmark benchmark = new FibonacciHeapBenchmark(seed, warmup, iterations);
+        System.out.printf("%-15s %10s %-19s %-17s %14s %12s %12s%n",
+                "workload", "size", "operation", "engine", "ops/s", "ns/op", "B/op");
+        for (Workload workload : workloads) {
+            for (int size : sizes) {
+                for (Operation op : ops) {
+                    if (!applies(workload, op)) {
+                        continue;
+                    }
+                    for (Engine engine : Engine.values()) {
+                        benchmark.run(workload, size, op, engine);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * private static boolean applies(Workload workload, Operation op)
+     *
+     * the key distribution workloads run the single operations, the DIJKSTRA workload runs the mixed
+     * deleteMin/decreaseKey operations and the MELD_SMALL workload runs the meld operation.
+     */
+    private static boolean applies(Workload workload, Operation op) {
+        boolean dijkstra = op == Operation.MIXED || op == Operation.RELAX_BURST
+                || op == Operation.RELAX_BURST_BATCHED;
+        switch (workload) {
+            case DIJKSTRA:
+                return dijkstra;
+            case MELD_SMALL:
+                return op == Operation.MELD;
+            default:
+                return !dijkstra && op != Operation.MELD;
+        }
+    }
+
+    /**
+     * private static boolean supports(Engine engine, Operation op)
+     *
+     * kMin only exists on FibonacciHeap, pollMins only on FibonacciHeap and as repeated polls on PriorityQueue.
+     * CANCEL compares the eager and lazy deletes of FibonacciHeap, and RELAX_BURST and RELAX_BURST_BATCHED compare
+     * its per-call and batched decreaseKey, so only the Fibonacci engines run them.
+     * The other AddressablePriorityQueue engines run everything else, except that the radix heap skips CHURN,
+     * whose inserts go below the last deleted key.
+     */
+    private static boolean supports(Engine engine, Operation op) {
+        switch (engine) {
+            case FIBONACCI:
+            case FIBONACCI_LAZY:
+                return true;
+            case FIBONACCI_POOLED:
+                return op != Operation.KMIN;
+            case PRIORITY_QUEUE:
+                return op != Operation.KMIN && !fibonacciOnly(op);
+            case RADIX:
+                return op != Operation.KMIN && op != Operation.POLL_MINS && op != Operation.CHURN
+                        && !fibonacciOnly(op);
+            default:
+                return op != Operation.KMIN && op != Operation.POLL_MINS && !fibonacciOnly(op);
+        }
+    }
+
+    private static boolean fibonacciOnly(Operation op) {
+        return op == Operation.CANCEL || op == Operation.RELAX_BURST || op == Operation.RELAX_BURST_BATCHED;
+    }
+
+    /**
+     * public void run(Workload workload, int size, Operation op, Engine engine)
+     *
+     * runs the warmup and measured iterations of one combination and prints a result line.
+     */
+    public void run(Workload workload, int size, Operation op, Engine engine) {
+        if (!supports(engine, op)) {
+            return;
+        }
+        for (int i = 0; i < this.warmup; i++) {
+            this.iteration(workload, size, op, engine, i);
+        }
+        long total_ops = 0;
+        long total_nanos = 0;
+        long total_bytes = 0;
+        for (int i = 0; i < this.iterations; i++) {
+            long[] result = this.iteration(workload, size, op, engine, this.warmup + i);
+            total_ops += result[0];
+            total_nanos += result[1];
+            total_bytes += result[2];
+        }
+        double ops_per_second = total_ops / (total_nanos / 1e9);
+        double nanos_per_op = (double) total_nanos / total_ops;
+        String bytes_per_op = this.thread_bean == null ? "n/a"
+                : String.format(Locale.ROOT, "%.1f", (double) total_bytes / total_ops);
+        System.out.printf(Locale.ROOT, "%-15s %10d %-19s %-17s %14.0f %12.1f %12s%n",
+                workload, size, op, engine, ops_per_second, nanos_per_op, bytes_per_op);
+    }
+
+    /**
+     * private long[] iteration(Workload workload, int size, Operation op, Engine engine, int index)
+     *
+     * prepares a fresh state and measures one pass of the operation over it.
+     *
+     * returns {operations, nanoseconds, allocated bytes} of the measured phase.
+     */
+    private long[] iteration(Workload workload, int size, Operation op, Engine engine, int index) {
+        Random random = new Random(this.seed * 31 + index);
+        int[] keys = keys(workload, size, random);
+        State state;
+        switch (engine) {
+            case PRIORITY_QUEUE:
+                state = new PriorityQueueState();
+                break;
+            case FIBONACCI:
+            case FIBONACCI_POOLED:
+            case FIBONACCI_LAZY:
+                state = new FibonacciState(engine == Engine.FIBONACCI_POOLED, engine == Engine.FIBONACCI_LAZY);
+                break;
+            default:
+                state = new AddressableState(PriorityQueueFactory.Engine.valueOf(engine.name()));
+        }
+        state.prepare(op, keys, random);
+        long bytes_before = this.allocatedBytes();
+        long start = System.nanoTime();
+        long ops = state.measure(op, keys, random);
+        long nanos = System.nanoTime() - start;
+        long bytes = this.allocatedBytes() - bytes_before;
+        return new long[] {ops, nanos, bytes};
+    }
+
+    private long allocatedBytes() {
+        if (this.thread_bean == null) {
+            return 0;
+        }
+        return this.thread_bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static int[] keys(Workload workload, int size, Random random) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (workload) {
+                case SORTED:
+                    keys[i] = i;
+                    break;
+                case REVERSE_SORTED:
+                    keys[i] = size - i;
+                    break;
+                default:
+                    keys[i] = random.nextInt(Integer.MAX_VALUE / 2);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * private static <E extends Enum<E>> E parse(Class<E> type, String name)
+     *
+     * matches a command line name such as "deleteMin", "delete-min" or "DELETE_MIN" to a constant of the given enum.
+     */
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        String normalized = name.replace("-", "").replace("_", "");
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("unknown " + type.getSimpleName() + " " + name);
+    }
+
+    /**
+     * private interface State
+     *
+     * the heap an iteration operates on. prepare builds it outside of the measured phase, measure runs the
+     * operation and returns the number of operations performed.
+     */
+    private interface State {
+        void prepare(Operation op, int[] keys, Random random);
+
+        long measure(Operation op, int[] keys, Random random);
+    }
+
+    private static class FibonacciState implements State {
+        private final boolean pooled;
+        private final boolean lazy;
+        private FibonacciHeap heap;
+        private FibonacciHeap.HeapNode[] nodes;
+        private FibonacciHeap[] small_heaps;
+
+        private FibonacciState(boolean pooled, boolean lazy) {
+            this.pooled = pooled;
+            this.lazy = lazy;
+        }
+
+        @Override
+        public void prepare(Operation op, int[] keys, Random random) {
+            this.heap = new FibonacciHeap();
+            if (this.pooled) {
+                this.heap.setNodePoolCapacity(keys.length);
+            }
+            this.heap.setLazyDelete(this.lazy);
+            switch (op) {
+                case INSERT:
+                    return;
+                case MELD:
+                    this.small_heaps = new FibonacciHeap[(keys.length + MELD_HEAP_SIZE - 1) / MELD_HEAP_SIZE];
+                    for (int i = 0; i < keys.length; i++) {
+                        if (i % MELD_HEAP_SIZE == 0) {
+                            this.small_heaps[i / MELD_HEAP_SIZE] = new FibonacciHeap();
+                        }
+                        this.small_heaps[i / MELD_HEAP_SIZE].insert(keys[i]);
+                    }
+                    return;
+                case KMIN:
+                    // a heap of 2^m + 1 keys is a single binomial tree after one deleteMin
+                    int tree_size = Integer.highestOneBit(keys.length);
+                    this.heap.insert(Integer.MIN_VALUE);
+                    for (int i = 0; i < tree_size; i++) {
+                        this.heap.insert(keys[i]);
+                    }
+                    this.heap.deleteMin();
+                    return;
+                default:
+                    this.nodes = new FibonacciHeap.HeapNode[keys.length];
+                    for (int i = 0; i < keys.length; i++) {
+                        this.nodes[i] = this.heap.insert(keys[i]);
+                    }
+                    if (op != Operation.DELETE_MIN && op != Operation.POLL_MINS) {
+                        // build the trees so decreaseKey and delete actually cut
+                        this.heap.insert(Integer.MIN_VALUE);
+                        this.heap.deleteMin();
+                    }
+            }
+        }
+
+        @Override
+        public long measure(Operation op, int[] keys, Random random) {
+            long checksum = 0;
+            long ops;
+            switch (op) {
+                case INSERT:
+                    for (int key : keys) {
+                        this.heap.insert(key);
+                    }
+                    ops = keys.length;
+                    break;
+                case DELETE_MIN:
+                    while (!this.heap.isEmpty()) {
+                        checksum += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                    }
+                    ops = keys.length;
+                    break;
+                case DECREASE_KEY:
+                    for (int i = 0; i < keys.length; i++) {
+                        this.heap.decreaseKey(this.nodes[random.nextInt(keys.length)], random.nextInt(1000));
+                    }
+                    ops = keys.length;
+                    break;
+                case POLL_MINS:
+                    int[] batch = new int[POLL_BATCH];
+                    while (!this.heap.isEmpty()) {
+                        int polled = this.heap.pollMins(POLL_BATCH, batch);
+                        checksum += batch[polled - 1];
+                    }
+                    ops = keys.length;
+                    break;
+                case CHURN:
+                    // steady state: every extraction is followed by an insert, so a pooled heap reuses its nodes
+                    for (int key : keys) {
+                        checksum += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                        this.heap.insert(key);
+                    }
+                    ops = 2L * keys.length;
+                    break;
+                case DELETE:
+                    shuffle(this.nodes, random);
+                    for (int i = 0; i < keys.length / 2; i++) {
+                        this.heap.delete(this.nodes[i]);
+                    }
+                    ops = keys.length / 2;
+                    break;
+                case CANCEL:
+                    // timeouts: every step cancels a random pending entry and schedules a new one in its place,
+                    // and only one step in CANCELS_PER_EXTRACTION extracts the earliest entry
+                    ops = 0;
+                    for (int i = 0; i < keys.length; i++) {
+                        int slot = random.nextInt(keys.length);
+                        if (this.nodes[slot].getNext() != null) {
+                            this.heap.delete(this.nodes[slot]);
+                            ops++;
+                        }
+                        this.nodes[slot] = this.heap.insert(keys[i]);
+                        ops++;
+                        if (i % CANCELS_PER_EXTRACTION == 0) {
+                            checksum += this.heap.findMin().getKey();
+                            this.heap.deleteMin();
+                            ops++;
+                        }
+                    }
+                    break;
+                case KMIN:
+                    for (int i = 0; i < KMIN_REPETITIONS; i++) {
+                        checksum += FibonacciHeap.kMin(this.heap, Math.min(KMIN_K, this.heap.size()))[0];
+                    }
+                    ops = KMIN_REPETITIONS;
+                    break;
+                case MIXED:
+                    ops = 0;
+                    int live = keys.length;
+                    while (!this.heap.isEmpty()) {
+                        checksum += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                        ops++;
+                        for (int j = 0; j < DECREASES_PER_EXTRACTION; j++) {
+                            // decrease nodes that were not extracted yet: their keys are above the extracted min
+                            FibonacciHeap.HeapNode node = this.nodes[random.nextInt(live)];
+                            if (node.getNext() != null) {
+                                this.heap.decreaseKey(node, random.nextInt(16));
+                                ops++;
+                            }
+                        }
+                    }
+                    break;
+                case RELAX_BURST:
+                case RELAX_BURST_BATCHED:
+                    // both draw the same bursts, and only differ in applying them one by one or as one batch
+                    FibonacciHeap.HeapNode[] burst = new FibonacciHeap.HeapNode[RELAX_BURST_SIZE];
+                    int[] deltas = new int[RELAX_BURST_SIZE];
+                    ops = 0;
+                    while (!this.heap.isEmpty()) {
+                        checksum += this.heap.findMin().getKey();
+                        this.heap.deleteMin();
+                        ops++;
+                        int len = 0;
+                        for (int j = 0; j < RELAX_BURST_SIZE; j++) {
+                            FibonacciHeap.HeapNode node = this.nodes[random.nextInt(keys.length)];
+                            if (node.getNext() != null) {
+                                burst[len] = node;
+                                deltas[len] = random.nextInt(16);
+                                len++;
+                            }
+                        }
+                        if (op == Operation.RELAX_BURST_BATCHED) {
+                            this.heap.decreaseKeys(burst, deltas, len);
+                        }
+                        else {
+                            for (int j = 0; j < len; j++) {
+                                this.heap.decreaseKey(burst[j], deltas[j]);
+                            }
+                        }
+                        ops += len;
+                    }
+                    break;
+                case MELD:
+                    for (FibonacciHeap small_heap : this.small_heaps) {
+                        this.heap.meld(small_heap);
+                    }
+                    this.heap.deleteMin();
+                    ops = this.small_heaps.length + 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException(op.toString());
+            }
+            sink += checksum + this.heap.size();
+            return ops;
+        }
+    }
+
+    /**
+     * private static class AddressableState
+     *
+     * runs the operations on an engine created by PriorityQueueFactory through the AddressablePriorityQueue
+     * interface.
+     */
+    private static class AddressableState implements State {
+        private final PriorityQueueFactory.Engine engine;
+        private AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue;
+        private AddressablePriorityQueue.Handle[] handles;
+        private List<AddressablePriorityQueue<AddressablePriorityQueue.Handle>> small_queues;
+
+        private AddressableState(PriorityQueueFactory.Engine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public void prepare(Operation op, int[] keys, Random random) {
+            this.queue = PriorityQueueFactory.create(this.engine);
+            switch (op) {
+                case INSERT:
+                    return;
+                case MELD:
+                    this.small_queues = new ArrayList<>();
+                    for (int i = 0; i < keys.length; i++) {
+                        if (i % MELD_HEAP_SIZE == 0) {
+                            this.small_queues.add(PriorityQueueFactory.create(this.engine));
+                        }
+                        this.small_queues.get(i / MELD_HEAP_SIZE).insert(keys[i]);
+                    }
+                    return;
+                default:
+                    this.handles = new AddressablePriorityQueue.Handle[keys.length];
+                    for (int i = 0; i < keys.length; i++) {
+                        this.handles[i] = this.queue.insert(keys[i]);
+                    }
+                    if (op != Operation.DELETE_MIN) {
+                        // build the trees of the pointer based heaps, like FibonacciState does
+                        this.queue.insert(Integer.MIN_VALUE);
+                        this.queue.deleteMin();
+                    }
+            }
+        }
+
+        @Override
+        public long measure(Operation op, int[] keys, Random random) {
+            long checksum = 0;
+            long ops;
+            switch (op) {
+                case INSERT:
+                    for (int key : keys) {
+                        this.queue.insert(key);
+                    }
+                    ops = keys.length;
+                    break;
+                case DELETE_MIN:
+                    while (!this.queue.isEmpty()) {
+                        checksum += this.queue.findMin().getKey();
+                        this.queue.deleteMin();
+                    }
+                    ops = keys.length;
+                    break;
+                case DECREASE_KEY:
+                    for (int i = 0; i < keys.length; i++) {
+                        this.queue.decreaseKey(this.handles[random.nextInt(keys.length)], random.nextInt(1000));
+                    }
+                    ops = keys.length;
+                    break;
+                case CHURN:
+                    for (int key : keys) {
+                        checksum += this.queue.findMin().getKey();
+                        this.queue.deleteMin();
+                        this.queue.insert(key);
+                    }
+                    ops = 2L * keys.length;
+                    break;
+                case DELETE:
+                    shuffle(this.handles, random);
+                    for (int i = 0; i < keys.length / 2; i++) {
+                        this.queue.delete(this.handles[i]);
+                    }
+                    ops = keys.length / 2;
+                    break;
+                case MIXED:
+                    ops = 0;
+                    while (!this.queue.isEmpty()) {
+                        int min = this.queue.findMin().getKey();
+                        checksum += min;
+                        this.queue.deleteMin();
+                        ops++;
+                        for (int j = 0; j < DECREASES_PER_EXTRACTION; j++) {
+                            // a deleted entry's key is at most the deleted min, so a larger key is still queued.
+                            // the decrease stops at min, keeping the keys monotone for the radix heap
+                            AddressablePriorityQueue.Handle handle = this.handles[random.nextInt(keys.length)];
+                            if (handle.getKey() > min) {
+                                this.queue.decreaseKey(handle, Math.min(random.nextInt(16), handle.getKey() - min));
+                                ops++;
+                            }
+                        }
+                    }
+                    break;
+                case MELD:
+                    for (AddressablePriorityQueue<AddressablePriorityQueue.Handle> small_queue : this.small_queues) {
+                        this.queue.meld(small_queue);
+                    }
+                    this.queue.deleteMin();
+                    ops = this.small_queues.size() + 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException(op.toString());
+            }
+            sink += checksum + this.queue.size();
+            return ops;
+        }
+    }
+
+    private static class PriorityQueueState implements State {
+        private PriorityQueue<Integer> queue;
+        private int[] values;
+        private List<PriorityQueue<Integer>> small_queues;
+
+        @Override
+        public void prepare(Operation op, int[] keys, Random random) {
+            this.queue = new PriorityQueue<>();
+            switch (op) {
+                case INSERT:
+                    return;
+                case MELD:
+                    this.small_queues = new ArrayList<>();
+                    for (int i = 0; i < keys.length; i++) {
+                        if (i % MELD_HEAP_SIZE == 0) {
+                            this.small_queues.add(new PriorityQueue<>());
+                        }
+                        this.small_queues.get(i / MELD_HEAP_SIZE).add(keys[i]);
+                    }
+                    return;
+                default:
+                    this.values = keys.clone();
+                    for (int key : keys) {
+                        this.queue.add(key);
+                    }
+            }
+        }
+
+        @Override
+        public long measure(Operation op, int[] keys, Random random) {
+            long checksum = 0;
+            long ops;
+            switch (op) {
+                case INSERT:
+                    for (int key : keys) {
+                        this.queue.add(key);
+                    }
+                    ops = keys.length;
+                    break;
+                case DELETE_MIN:
+                    while (!this.queue.isEmpty()) {
+                        checksum += this.queue.poll();
+                    }
+                    ops = keys.length;
+                    break;
+                case POLL_MINS:
+                    // PriorityQueue has no batched extraction, a batch is POLL_BATCH polls
+                    while (!this.queue.isEmpty()) {
+                        for (int i = 0; i < POLL_BATCH && !this.queue.isEmpty(); i++) {
+                            checksum += this.queue.poll();
+                        }
+                    }
+                    ops = keys.length;
+                    break;
+                case DECREASE_KEY:
+                    ops = Math.min(keys.length, PRIORITY_QUEUE_REMOVALS);
+                    for (int i = 0; i < ops; i++) {
+                        int index = random.nextInt(keys.length);
+                        this.queue.remove(this.values[index]);
+                        this.values[index] -= random.nextInt(1000);
+                        this.queue.add(this.values[index]);
+                    }
+                    break;
+                case CHURN:
+                    for (int key : keys) {
+                        checksum += this.queue.poll();
+                        this.queue.add(key);
+                    }
+                    ops = 2L * keys.length;
+                    break;
+                case DELETE:
+                    ops = Math.min(keys.length / 2, PRIORITY_QUEUE_REMOVALS);
+                    for (int i = 0; i < ops; i++) {
+                        this.queue.remove(this.values[i]);
+                    }
+                    break;
+                case MIXED:
+                    // decreaseKey is remove + add; the removals are bounded like in DECREASE_KEY
+                    ops = 0;
+                    int removals = 0;
+                    while (!this.queue.isEmpty()) {
+                        checksum += this.queue.poll();
+                        ops++;
+                        if (removals < PRIORITY_QUEUE_REMOVALS) {
+                            for (int j = 0; j < DECREASES_PER_EXTRACTION; j++) {
+                                int index = random.nextInt(keys.length);
+                                if (this.queue.remove(this.values[index])) {
+                                    this.values[index] -= random.nextInt(16);
+                                    this.queue.add(this.values[index]);
+                                    ops++;
+                                }
+                                removals++;
+                            }
+                        }
+                    }
+                    break;
+                case MELD:
+                    for (PriorityQueue<Integer> small_queue : this.small_queues) {
+                        this.queue.addAll(small_queue);
+                    }
+                    this.queue.poll();
+                    ops = this.small_queues.size() + 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException(op.toString());
+            }
+            sink += checksum + this.queue.size();
+            return ops;
+        }
+    }
+
+    private static void shuffle(Object[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+}
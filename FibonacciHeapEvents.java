@@ -0,0 +1,71 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * FibonacciHeapEvents
+ *
+ * The JDK Flight Recorder events of FibonacciHeap, so latency spikes in a recording can be matched with the heap
+ * operations that caused them. They are only committed while a recording has them enabled, for example with
+ * -XX:StartFlightRecording, and are then listed under the "Fibonacci Heap" category.
+ *
+ * Stack traces are off by default since the events can be frequent; a recording setting such as
+ * FibonacciHeap.Consolidation#stackTrace=true turns them on.
+ */
+final class FibonacciHeapEvents
+{
+    // checked before an event is created, so a heap outside a recording allocates nothing for its events
+    static final EventType CONSOLIDATION = EventType.getEventType(ConsolidationEvent.class);
+    static final EventType CASCADING_CUT = EventType.getEventType(CascadingCutEvent.class);
+
+    private FibonacciHeapEvents() {
+    }
+
+    /**
+     * static final class ConsolidationEvent
+     *
+     * a successive linking pass over the roots, which is the O(n) worst case of deleteMin. the duration of the event
+     * is the duration of the pass.
+     */
+    @Name("FibonacciHeap.Consolidation")
+    @Label("Fibonacci Heap Consolidation")
+    @Category("Fibonacci Heap")
+    @Description("A successive linking pass over the roots of a Fibonacci heap")
+    @StackTrace(false)
+    static final class ConsolidationEvent extends Event {
+        @Label("Heap Size")
+        int size;
+
+        @Label("Roots Before")
+        int roots_before;
+
+        @Label("Roots After")
+        int roots_after;
+
+        @Label("Links")
+        long links;
+    }
+
+    /**
+     * static final class CascadingCutEvent
+     *
+     * a chain of cuts made by a single decreaseKey, delete or increaseKey, from the node up through its marked
+     * ancestors.
+     */
+    @Name("FibonacciHeap.CascadingCut")
+    @Label("Fibonacci Heap Cascading Cut")
+    @Category("Fibonacci Heap")
+    @Description("A chain of cuts from a node up through its marked ancestors")
+    @StackTrace(false)
+    static final class CascadingCutEvent extends Event {
+        @Label("Heap Size")
+        int size;
+
+        @Label("Chain Length")
+        int chain_length;
+    }
+}
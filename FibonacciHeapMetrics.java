@@ -0,0 +1,140 @@
+/**
+ * FibonacciHeapMetrics
+ *
+ * An immutable snapshot of the operation counters of one FibonacciHeap, taken by FibonacciHeap.metrics().
+ * Two snapshots of the same heap can be subtracted to get the work done between them.
+ */
+public final class FibonacciHeapMetrics
+{
+    private final long timestamp_nanos;
+    private final int size;
+    private final int potential;
+    private final long inserts;
+    private final long delete_mins;
+    private final long decrease_keys;
+    private final long deletes;
+    private final long links;
+    private final long cuts;
+    private final long cascading_cuts;
+    private final int max_cascade_depth;
+    private final long consolidations;
+    private final long roots_scanned;
+
+    FibonacciHeapMetrics(long timestamp_nanos, int size, int potential, long inserts, long delete_mins,
+                         long decrease_keys, long deletes, long links, long cuts, long cascading_cuts,
+                         int max_cascade_depth, long consolidations, long roots_scanned) {
+        this.timestamp_nanos = timestamp_nanos;
+        this.size = size;
+        this.potential = potential;
+        this.inserts = inserts;
+        this.delete_mins = delete_mins;
+        this.decrease_keys = decrease_keys;
+        this.deletes = deletes;
+        this.links = links;
+        this.cuts = cuts;
+        this.cascading_cuts = cascading_cuts;
+        this.max_cascade_depth = max_cascade_depth;
+        this.consolidations = consolidations;
+        this.roots_scanned = roots_scanned;
+    }
+
+    /** the System.nanoTime() at which the snapshot was taken */
+    public long getTimestampNanos() {
+        return this.timestamp_nanos;
+    }
+
+    /** the number of elements in the heap */
+    public int getSize() {
+        return this.size;
+    }
+
+    /** the potential of the heap: #trees + 2*#marked */
+    public int getPotential() {
+        return this.potential;
+    }
+
+    /** the number of inserted keys, including keys inserted in bulk */
+    public long getInserts() {
+        return this.inserts;
+    }
+
+    /** the number of deleteMin calls on a non-empty heap; a delete is only counted by getDeletes */
+    public long getDeleteMins() {
+        return this.delete_mins;
+    }
+
+    /** the number of decreased keys, one per decreaseKey call and per entry of a decreaseKeys batch */
+    public long getDecreaseKeys() {
+        return this.decrease_keys;
+    }
+
+    /** the number of delete calls */
+    public long getDeletes() {
+        return this.deletes;
+    }
+
+    /** the number of link operations */
+    public long getLinks() {
+        return this.links;
+    }
+
+    /** the number of cut operations */
+    public long getCuts() {
+        return this.cuts;
+    }
+
+    /** the number of cascading cut chains, that is the number of decreaseKey calls that cut a node */
+    public long getCascadingCuts() {
+        return this.cascading_cuts;
+    }
+
+    /** the largest number of cuts made by a single cascading cut chain */
+    public int getMaxCascadeDepth() {
+        return this.max_cascade_depth;
+    }
+
+    /** the number of successive linking passes over the roots list */
+    public long getConsolidations() {
+        return this.consolidations;
+    }
+
+    /** the number of roots visited by all the successive linking passes */
+    public long getRootsScanned() {
+        return this.roots_scanned;
+    }
+
+    /** the average number of roots a successive linking pass visited, 0 if there were none */
+    public double getRootsScannedPerConsolidation() {
+        return this.consolidations == 0 ? 0 : (double) this.roots_scanned / this.consolidations;
+    }
+
+    /** the average number of cuts made by a cascading cut chain, 0 if there were none */
+    public double getAverageCascadeDepth() {
+        return this.cascading_cuts == 0 ? 0 : (double) this.cuts / this.cascading_cuts;
+    }
+
+    /**
+     * public FibonacciHeapMetrics since(FibonacciHeapMetrics earlier)
+     *
+     * Returns the counters accumulated between the earlier snapshot and this one. size, potential and
+     * max cascade depth are taken from this snapshot.
+     */
+    public FibonacciHeapMetrics since(FibonacciHeapMetrics earlier) {
+        return new FibonacciHeapMetrics(this.timestamp_nanos, this.size, this.potential,
+                this.inserts - earlier.inserts, this.delete_mins - earlier.delete_mins,
+                this.decrease_keys - earlier.decrease_keys, this.deletes - earlier.deletes,
+                this.links - earlier.links, this.cuts - earlier.cuts,
+                this.cascading_cuts - earlier.cascading_cuts, this.max_cascade_depth,
+                this.consolidations - earlier.consolidations, this.roots_scanned - earlier.roots_scanned);
+    }
+
+    @Override
+    public String toString() {
+        return "FibonacciHeapMetrics{size=" + this.size + ", potential=" + this.potential
+                + ", inserts=" + this.inserts + ", deleteMins=" + this.delete_mins
+                + ", decreaseKeys=" + this.decrease_keys + ", deletes=" + this.deletes
+                + ", links=" + this.links + ", cuts=" + this.cuts + ", cascadingCuts=" + this.cascading_cuts
+                + ", maxCascadeDepth=" + this.max_cascade_depth + ", consolidations=" + this.consolidations
+                + ", rootsScanned=" + this.roots_scanned + "}";
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * FibonacciHeapMetricsMXBean
+ *
+ * The JMX view of the counters of one FibonacciHeap, registered by FibonacciHeap.registerMBean(String).
+ * Every attribute reads the live heap, see FibonacciHeapMetrics for their meaning.
+ */
+public interface FibonacciHeapMetricsMXBean
+{
+    int getSize();
+
+    int getPotential();
+
+    long getInserts();
+
+    long getDeleteMins();
+
+    long getDecreaseKeys();
+
+    long getDeletes();
+
+    long getLinks();
+
+    long getCuts();
+
+    long getCascadingCuts();
+
+    int getMaxCascadeDepth();
+
+    long getConsolidations();
+
+    long getRootsScanned();
+}
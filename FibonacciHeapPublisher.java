@@ -0,0 +1,355 @@
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FibonacciHeapPublisher
+ *
+ * A Flow.Publisher that streams the minimums of a FibonacciHeap it owns: producer threads insert keys or meld heaps
+ * into it, and every subscriber receives extracted minimums only as far as it requested them. The subscribers
+ * compete for the keys, each key goes to exactly one of them, and the keys a subscriber receives are the minimums of
+ * the heap at the time they were extracted.
+ *
+ * A subscription with demand but an empty heap holds no thread: it is signalled again by the next insert, meld or
+ * close. Its signals are delivered by tasks on the given Executor, ForkJoinPool.commonPool() by default, one task at
+ * a time per subscription. A demand of BATCH_THRESHOLD keys or more is served with pollMins, up to MAX_BATCH keys
+ * at a time, instead of one deleteMin per key.
+ *
+ * batches(max_batch) publishes the same keys as int[] batches instead of boxed Integers. close() stops the inserts,
+ * and completes every subscriber once the heap is drained.
+ */
+public class FibonacciHeapPublisher implements Flow.Publisher<Integer>, AutoCloseable
+{
+    // from this demand up, keys are extracted with pollMins instead of one deleteMin each
+    public static final int BATCH_THRESHOLD = 16;
+    public static final int MAX_BATCH = 256;
+
+    private final FibonacciHeap heap = new FibonacciHeap();
+    private final Executor executor;
+    private final CopyOnWriteArrayList<HeapSubscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public FibonacciHeapPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public FibonacciHeapPublisher(Executor executor) {
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * public void insert(int key)
+     *
+     * Inserts the key into the heap and wakes the subscribers that are waiting for one.
+     *
+     * throws IllegalStateException if the publisher was closed.
+     *
+     * time complexity: O(1) + O(#subscribers)
+     */
+    public void insert(int key) {
+        synchronized (this.heap) {
+            this.checkOpen();
+            this.heap.insert(key);
+        }
+        this.signalAll();
+    }
+
+    /**
+     * public void meld(FibonacciHeap heap2)
+     *
+     * Melds heap2 into the heap and wakes the subscribers that are waiting for keys. heap2 must not be used by
+     * the caller afterwards.
+     *
+     * throws IllegalStateException if the publisher was closed.
+     *
+     * time complexity: O(1) + O(#subscribers)
+     */
+    public void meld(FibonacciHeap heap2) {
+        synchronized (this.heap) {
+            this.checkOpen();
+            this.heap.meld(heap2);
+        }
+        this.signalAll();
+    }
+
+    /**
+     * public int size()
+     *
+     * Returns the number of keys that were not extracted yet.
+     */
+    public int size() {
+        synchronized (this.heap) {
+            return this.heap.size();
+        }
+    }
+
+    /**
+     * public void subscribe(Flow.Subscriber<? super Integer> subscriber)
+     *
+     * Subscribes to the minimums of the heap, one key per onNext.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+        this.start(new KeySubscription(subscriber));
+    }
+
+    /**
+     * public Flow.Publisher<int[]> batches(int max_batch)
+     *
+     * Returns a publisher of the minimums of the same heap in batches: every onNext delivers the keys available at
+     * the time, between 1 and max_batch of them in ascending order, and a request(n) asks for n batches. The
+     * subscriber owns the arrays it receives.
+     *
+     * throws IllegalArgumentException if max_batch is not positive.
+     */
+    public Flow.Publisher<int[]> batches(int max_batch) {
+        if (max_batch <= 0) {
+            throw new IllegalArgumentException("max_batch must be positive: " + max_batch);
+        }
+        return subscriber -> this.start(new BatchSubscription(subscriber, max_batch));
+    }
+
+    /**
+     * public void close()
+     *
+     * Rejects any further insert or meld. The subscribers still receive the keys left in the heap, and then
+     * onComplete.
+     */
+    @Override
+    public void close() {
+        synchronized (this.heap) {
+            this.closed = true;
+        }
+        for (HeapSubscription<?> subscription : this.subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("the publisher is closed");
+        }
+    }
+
+    private void start(HeapSubscription<?> subscription) {
+        this.subscriptions.add(subscription);
+        // the first task calls onSubscribe, so it is ordered before every other signal
+        subscription.signal();
+    }
+
+    private void signalAll() {
+        for (HeapSubscription<?> subscription : this.subscriptions) {
+            if (subscription.requested.get() > 0) {
+                subscription.signal();
+            }
+        }
+    }
+
+    // puts back keys that were extracted for a subscriber that cancelled or threw before receiving them, even when
+    // closed
+    private void reinsert(int[] keys, int from, int to) {
+        synchronized (this.heap) {
+            for (int i = from; i < to; i++) {
+                this.heap.insert(keys[i]);
+            }
+        }
+        this.signalAll();
+    }
+
+    /**
+     * private int extract(int k, int[] out)
+     *
+     * extracts up to k minimums into out, with pollMins from BATCH_THRESHOLD keys up. returns the number of keys
+     * extracted, 0 if the heap is empty. the caller holds the lock of the heap.
+     */
+    private int extract(int k, int[] out) {
+        if (k >= BATCH_THRESHOLD) {
+            return this.heap.pollMins(k, out);
+        }
+        int count = Math.min(k, this.heap.size());
+        for (int i = 0; i < count; i++) {
+            out[i] = this.heap.findMin().getKey();
+            this.heap.deleteMin();
+        }
+        return count;
+    }
+
+    /**
+     * private abstract class HeapSubscription<T>
+     *
+     * the demand of one subscriber, served by drain tasks on the executor. wip counts the signals since the
+     * running task started, so at most one task runs at a time and a signal that arrives while it runs makes it
+     * drain once more instead of being lost.
+     */
+    private abstract class HeapSubscription<T> implements Flow.Subscription, Runnable {
+
+        final Flow.Subscriber<? super T> subscriber;
+        final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        // the error of a non-positive request, signalled by the next drain
+        private volatile IllegalArgumentException request_error;
+        private boolean subscribed;
+
+        HeapSubscription(Flow.Subscriber<? super T> subscriber) {
+            if (subscriber == null) {
+                throw new NullPointerException("subscriber");
+            }
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.request_error = new IllegalArgumentException("request must be positive: " + n);
+            }
+            else {
+                this.requested.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            this.signal();
+        }
+
+        boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            FibonacciHeapPublisher.this.subscriptions.remove(this);
+        }
+
+        void signal() {
+            if (this.wip.getAndIncrement() == 0) {
+                FibonacciHeapPublisher.this.executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            try {
+                do {
+                    this.drain();
+                    missed = this.wip.addAndGet(-missed);
+                } while (missed != 0);
+            }
+            catch (RuntimeException | Error e) {
+                // a subscriber that throws is cancelled. emit already put back the keys extracted for it that
+                // were not passed to onNext
+                this.cancel();
+                throw e;
+            }
+        }
+
+        private void drain() {
+            if (!this.subscribed) {
+                this.subscribed = true;
+                this.subscriber.onSubscribe(this);
+            }
+            while (!this.cancelled) {
+                IllegalArgumentException error = this.request_error;
+                if (error != null) {
+                    this.cancel();
+                    this.subscriber.onError(error);
+                    return;
+                }
+                long demand = this.requested.get();
+                int emitted = demand > 0 ? this.emit(demand) : 0;
+                if (emitted == 0) {
+                    // once closed, nothing can be added to an empty heap. completing doesn't need demand
+                    if (FibonacciHeapPublisher.this.closed && this.drained()) {
+                        this.cancel();
+                        this.subscriber.onComplete();
+                    }
+                    // parked until the next insert, meld, request or close signals again
+                    return;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+            }
+        }
+
+        private boolean drained() {
+            synchronized (FibonacciHeapPublisher.this.heap) {
+                return FibonacciHeapPublisher.this.heap.isEmpty();
+            }
+        }
+
+        /**
+         * extracts keys for at most demand signals and delivers them, returns the number of signals delivered,
+         * 0 if the heap was empty.
+         */
+        abstract int emit(long demand);
+    }
+
+    private final class KeySubscription extends HeapSubscription<Integer> {
+
+        private final int[] buffer = new int[MAX_BATCH];
+
+        private KeySubscription(Flow.Subscriber<? super Integer> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        int emit(long demand) {
+            int count;
+            synchronized (FibonacciHeapPublisher.this.heap) {
+                count = FibonacciHeapPublisher.this.extract((int) Math.min(demand, MAX_BATCH), this.buffer);
+            }
+            int i = 0;
+            try {
+                for (; i < count; i++) {
+                    if (this.isCancelled()) {
+                        // the keys this subscriber won't take go back to the others
+                        FibonacciHeapPublisher.this.reinsert(this.buffer, i, count);
+                        break;
+                    }
+                    this.subscriber.onNext(this.buffer[i]);
+                }
+            }
+            catch (RuntimeException | Error e) {
+                // the key onNext threw on was delivered, the ones after it go back to the others
+                this.cancel();
+                FibonacciHeapPublisher.this.reinsert(this.buffer, i + 1, count);
+                throw e;
+            }
+            return count;
+        }
+    }
+
+    private final class BatchSubscription extends HeapSubscription<int[]> {
+
+        private final int[] buffer;
+
+        private BatchSubscription(Flow.Subscriber<? super int[]> subscriber, int max_batch) {
+            super(subscriber);
+            this.buffer = new int[max_batch];
+        }
+
+        @Override
+        int emit(long demand) {
+            int count;
+            synchronized (FibonacciHeapPublisher.this.heap) {
+                count = FibonacciHeapPublisher.this.extract(this.buffer.length, this.buffer);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            // a batch is delivered whole, so there is nothing to put back if onNext throws
+            this.subscriber.onNext(Arrays.copyOf(this.buffer, count));
+            return 1;
+        }
+    }
+}
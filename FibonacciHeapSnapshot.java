@@ -0,0 +1,109 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * FibonacciHeapSnapshot
+ *
+ * An immutable, consistent view of the shape of one FibonacciHeap at the instant FibonacciHeap.snapshot() took
+ * it: its minimum, size, root and mark counts, rank histogram and smallest keys. The thread that owns the heap takes
+ * the snapshot and publishes it through a volatile field, so any number of reader threads can query it via
+ * FibonacciHeap.lastSnapshot() without locking or touching the heap.
+ */
+public final class FibonacciHeapSnapshot
+{
+    private final long timestamp_nanos;
+    private final int version;
+    private final int size;
+    private final int min_key;
+    private final int roots;
+    private final int marked;
+    private final int[] rank_histogram;
+    private final int[] top_keys;
+
+    FibonacciHeapSnapshot(long timestamp_nanos, int version, int size, int min_key, int roots, int marked,
+                          int[] rank_histogram, int[] top_keys) {
+        this.timestamp_nanos = timestamp_nanos;
+        this.version = version;
+        this.size = size;
+        this.min_key = min_key;
+        this.roots = roots;
+        this.marked = marked;
+        this.rank_histogram = rank_histogram;
+        this.top_keys = top_keys;
+    }
+
+    /** the System.nanoTime() at which the snapshot was taken */
+    public long getTimestampNanos() {
+        return this.timestamp_nanos;
+    }
+
+    /** the modification count of the heap when the snapshot was taken, equal versions mean an unchanged heap */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /** the number of elements in the heap */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * public int getMinKey()
+     *
+     * Returns the minimal key of the heap.
+     *
+     * throws NoSuchElementException if the heap was empty.
+     */
+    public int getMinKey() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("the heap was empty");
+        }
+        return this.min_key;
+    }
+
+    /** the number of trees in the heap */
+    public int getRootsNum() {
+        return this.roots;
+    }
+
+    /** the number of marked nodes in the heap */
+    public int getMarkedNum() {
+        return this.marked;
+    }
+
+    /** the potential of the heap: #trees + 2*#marked */
+    public int potential() {
+        return this.roots + 2 * this.marked;
+    }
+
+    /** the number of trees of every rank, like FibonacciHeap.countersRep() */
+    public int[] countersRep() {
+        return this.rank_histogram.clone();
+    }
+
+    /**
+     * public int[] topK(int k)
+     *
+     * Returns the k smallest keys of the heap in ascending order, or all the keys the snapshot kept if it has fewer.
+     *
+     * throws IllegalArgumentException if k is negative.
+     */
+    public int[] topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        }
+        return Arrays.copyOf(this.top_keys, Math.min(k, this.top_keys.length));
+    }
+
+    @Override
+    public String toString() {
+        return "FibonacciHeapSnapshot{version=" + this.version + ", size=" + this.size
+                + (this.size == 0 ? "" : ", min=" + this.min_key) + ", roots=" + this.roots + ", marked="
+                + this.marked + ", ranks=" + Arrays.toString(this.rank_histogram) + ", top="
+                + Arrays.toString(this.top_keys) + "}";
+    }
+}
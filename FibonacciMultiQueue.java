@@ -0,0 +1,235 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FibonacciMultiQueue
+ *
+ * A relaxed concurrent priority queue (a MultiQueue) over integers, backed by c * P FibonacciHeap shards where P is
+ * the number of threads expected to use it. Every shard is guarded by its own lock and every operation only
+ * try-locks, moving on to another shard when the lock is taken.
+ *
+ * insert goes to a random shard. deleteMin samples two shards and extracts from the one whose minimum is smaller,
+ * so the extracted key is not necessarily the global minimum but one of the smallest keys in the queue.
+ */
+public class FibonacciMultiQueue
+{
+    public static final long EMPTY = Long.MAX_VALUE;
+
+    private final Shard[] shards;
+
+    public FibonacciMultiQueue() {
+        this(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FibonacciMultiQueue(int c, int threads) {
+        if (c < 1 || threads < 1) {
+            throw new IllegalArgumentException("c and threads must be positive");
+        }
+        this.shards = new Shard[Math.max(2, c * threads)];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * public int shardsNum()
+     *
+     * returns the number of shards of the queue
+     */
+    public int shardsNum() {
+        return this.shards.length;
+    }
+
+    /**
+     * public Handle insert(int key)
+     *
+     * Inserts the key into a random shard.
+     *
+     * Returns a handle of the new entry, which can be passed to decreaseKey and delete.
+     *
+     * time complexity: O(1) expected, when the shards are not contended
+     */
+    public Handle insert(int key) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard = this.shards[random.nextInt(this.shards.length)];
+            if (!shard.lock.tryLock()) {
+                continue;
+            }
+            try {
+                Handle handle = new Handle(shard, shard.heap.insert(key));
+                shard.updateTop();
+                return handle;
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * public long deleteMin()
+     *
+     * Samples two shards and deletes the minimum of the one whose minimum is smaller.
+     *
+     * Returns the deleted key, or EMPTY if every shard of the queue was found empty.
+     *
+     * time complexity: amortized O(log n) expected, when the shards are not contended
+     */
+    public long deleteMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard1 = this.shards[random.nextInt(this.shards.length)];
+            Shard shard2 = this.shards[random.nextInt(this.shards.length)];
+            Shard shard = shard1.top <= shard2.top ? shard1 : shard2;
+            if (shard.top == EMPTY) {
+                if (this.allShardsEmpty()) {
+                    return EMPTY;
+                }
+                continue;
+            }
+            if (!shard.lock.tryLock()) {
+                continue;
+            }
+            try {
+                // another thread may have emptied the shard since its top was read
+                if (shard.heap.isEmpty()) {
+                    continue;
+                }
+                int key = shard.heap.findMin().getKey();
+                shard.heap.deleteMin();
+                shard.updateTop();
+                return key;
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * public boolean decreaseKey(Handle handle, int delta)
+     *
+     * Decreases the key of the entry by a non-negative value delta, in the shard that owns it.
+     *
+     * Returns false if the entry was already deleted from the queue.
+     *
+     * time complexity: amortized O(1), waits for the lock of the owning shard
+     */
+    public boolean decreaseKey(Handle handle, int delta) {
+        Shard shard = handle.shard;
+        shard.lock.lock();
+        try {
+            if (!handle.isInHeap()) {
+                return false;
+            }
+            shard.heap.decreaseKey(handle.node, delta);
+            shard.updateTop();
+            return true;
+        }
+        finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * public boolean delete(Handle handle)
+     *
+     * Deletes the entry from the shard that owns it.
+     *
+     * Returns false if the entry was already deleted from the queue.
+     *
+     * time complexity: amortized O(log n), waits for the lock of the owning shard
+     */
+    public boolean delete(Handle handle) {
+        Shard shard = handle.shard;
+        shard.lock.lock();
+        try {
+            if (!handle.isInHeap()) {
+                return false;
+            }
+            shard.heap.delete(handle.node);
+            shard.updateTop();
+            return true;
+        }
+        finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * public int size()
+     *
+     * Returns the number of entries in the queue. The shards are read one after the other, so the result is only
+     * exact when no other thread modifies the queue.
+     *
+     * Complexity: O(#shards)
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : this.shards) {
+            shard.lock.lock();
+            try {
+                size += shard.heap.size();
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private boolean allShardsEmpty() {
+        for (Shard shard : this.shards) {
+            if (shard.top != EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * private static final class Shard
+     *
+     * a FibonacciHeap with its lock. top caches the minimum key of the heap (or EMPTY) so deleteMin can compare
+     * shards without locking them.
+     */
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final FibonacciHeap heap = new FibonacciHeap();
+        private volatile long top = EMPTY;
+
+        private void updateTop() {
+            this.top = this.heap.isEmpty() ? EMPTY : this.heap.findMin().getKey();
+        }
+    }
+
+    /**
+     * public static final class Handle
+     *
+     * An entry of the queue: the node holding it and the shard that owns the node.
+     */
+    public static final class Handle {
+        private final Shard shard;
+        private final FibonacciHeap.HeapNode node;
+
+        private Handle(Shard shard, FibonacciHeap.HeapNode node) {
+            this.shard = shard;
+            this.node = node;
+        }
+
+        /**
+         * public int getKey()
+         *
+         * Returns the current key of the entry. The key is read without locking the owning shard.
+         */
+        public int getKey() {
+            return this.node.getKey();
+        }
+
+        // deleteMin detaches the deleted node from its siblings, a node in a heap always has a next sibling
+        private boolean isInHeap() {
+            return this.node.getNext() != null;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FibonacciScheduler
+ *
+ * A scheduler of delayed tasks for workloads where most of the tasks are cancelled before they run, such as
+ * timeouts. The pending tasks are kept in a LongFibonacciHeap keyed by their deadline, in nanoseconds since the
+ * scheduler was created, so cancelling a task is a delete of its node, rescheduling it to an earlier deadline is a
+ * decreaseKey, and scheduling is an O(1) insert.
+ *
+ * A single timer thread sleeps until the earliest deadline, then takes every expired task out of the heap in one
+ * batch (up to DRAIN_BATCH tasks per lock hold) and hands them to the task executor: a virtual thread per task
+ * when the JVM has virtual threads, a cached pool of daemon threads otherwise. A task the executor rejects fails on
+ * its own: its Timeout keeps the exception, and the timer goes on with the other tasks.
+ */
+public class FibonacciScheduler implements AutoCloseable
+{
+    public static final int DRAIN_BATCH = 1024;
+
+    private final long origin = System.nanoTime();
+    private final ReentrantLock lock = new ReentrantLock();
+    // signalled when a task gets an earlier deadline than the current earliest one, or on close
+    private final Condition earliest_changed = this.lock.newCondition();
+    private final LongFibonacciHeap<Timeout> heap = new LongFibonacciHeap<>();
+    private final ExecutorService executor;
+    private final boolean owns_executor;
+    private final Thread timer;
+    private volatile boolean running = true;
+
+    public FibonacciScheduler() {
+        this(newTaskExecutor(), true);
+    }
+
+    /**
+     * public FibonacciScheduler(ExecutorService executor)
+     *
+     * Creates a scheduler that runs the expired tasks on the given executor, which close doesn't shut down.
+     */
+    public FibonacciScheduler(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private FibonacciScheduler(ExecutorService executor, boolean owns_executor) {
+        this.executor = executor;
+        this.owns_executor = owns_executor;
+        this.timer = new Thread(this::runTimer, "fibonacci-scheduler-timer");
+        this.timer.setDaemon(true);
+        this.timer.start();
+    }
+
+    /**
+     * public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+     *
+     * Schedules the task to run once the delay has passed.
+     *
+     * Returns the handle of the scheduled task, which can cancel or reschedule it.
+     *
+     * throws IllegalStateException if the scheduler was closed.
+     *
+     * time complexity: O(1)
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        Timeout timeout = new Timeout(this, task);
+        long deadline = this.deadline(unit.toNanos(delay));
+        this.lock.lock();
+        try {
+            if (!this.running) {
+                throw new IllegalStateException("the scheduler is closed");
+            }
+            timeout.node = this.heap.insert(deadline, timeout);
+            if (this.heap.findMin() == timeout.node) {
+                this.earliest_changed.signal();
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * public int pending()
+     *
+     * Returns the number of scheduled tasks that neither ran nor were cancelled yet.
+     */
+    public int pending() {
+        this.lock.lock();
+        try {
+            return this.heap.size();
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * public void close()
+     *
+     * Stops the timer thread and drops the pending tasks. The tasks that were already handed to the executor
+     * still run; the executor is shut down if the scheduler created it.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            this.running = false;
+            while (!this.heap.isEmpty()) {
+                this.heap.findMin().getValue().node = null;
+                this.heap.deleteMin();
+            }
+            this.earliest_changed.signal();
+        }
+        finally {
+            this.lock.unlock();
+        }
+        if (Thread.currentThread() != this.timer) {
+            try {
+                this.timer.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (this.owns_executor) {
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * private void runTimer()
+     *
+     * the loop of the timer thread: waits for the earliest deadline, then drains the expired tasks in batches and
+     * submits them outside of the lock. a task the executor rejects, for example with a
+     * RejectedExecutionException once the executor was shut down, is failed with the exception, and the loop keeps
+     * running.
+     */
+    private void runTimer() {
+        Timeout[] batch = new Timeout[DRAIN_BATCH];
+        while (true) {
+            int count = 0;
+            this.lock.lock();
+            try {
+                while (this.running && count == 0) {
+                    LongFibonacciHeap.HeapNode<Timeout> min = this.heap.findMin();
+                    if (min == null) {
+                        this.earliest_changed.await();
+                        continue;
+                    }
+                    long now = this.now();
+                    if (min.getKey() > now) {
+                        this.earliest_changed.awaitNanos(min.getKey() - now);
+                        continue;
+                    }
+                    while (count < DRAIN_BATCH && min != null && min.getKey() <= now) {
+                        this.heap.deleteMin();
+                        Timeout timeout = min.getValue();
+                        timeout.node = null;
+                        batch[count++] = timeout;
+                        min = this.heap.findMin();
+                    }
+                }
+                if (!this.running) {
+                    return;
+                }
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            finally {
+                this.lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                Timeout timeout = batch[i];
+                batch[i] = null;
+                try {
+                    this.executor.execute(timeout.task);
+                }
+                catch (RuntimeException e) {
+                    timeout.failure = e;
+                }
+            }
+        }
+    }
+
+    // the nanoseconds since the scheduler was created, the time base of the deadlines
+    private long now() {
+        return System.nanoTime() - this.origin;
+    }
+
+    // now + delay, saturated at Long.MAX_VALUE so a huge delay doesn't wrap around into the past
+    private long deadline(long delay_nanos) {
+        long now = this.now();
+        long delay = Math.max(0, delay_nanos);
+        return delay >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delay;
+    }
+
+    /**
+     * private static ExecutorService newTaskExecutor()
+     *
+     * a virtual thread per task executor when the JVM has virtual threads, looked up reflectively so the class
+     * still builds for older targets, and a cached pool of daemon threads otherwise.
+     */
+    private static ExecutorService newTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "fibonacci-scheduler-task");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * public static final class Timeout
+     *
+     * A scheduled task. node is its entry in the heap of the scheduler while the task is pending, and null once it
+     * was handed to the executor or cancelled. node is only accessed under the lock of the scheduler. failure is the
+     * exception the executor rejected the task with, set by the timer thread.
+     */
+    public static final class Timeout {
+        private final FibonacciScheduler scheduler;
+        private final Runnable task;
+        private LongFibonacciHeap.HeapNode<Timeout> node;
+        private volatile RuntimeException failure;
+
+        private Timeout(FibonacciScheduler scheduler, Runnable task) {
+            this.scheduler = scheduler;
+            this.task = task;
+        }
+
+        /**
+         * public boolean cancel()
+         *
+         * Cancels the task, deleting it from the heap of the scheduler.
+         *
+         * Returns false if the task already ran, is running or was cancelled before.
+         *
+         * time complexity: amortized O(log n)
+         */
+        public boolean cancel() {
+            ReentrantLock lock = this.scheduler.lock;
+            lock.lock();
+            try {
+                if (this.node == null) {
+                    return false;
+                }
+                this.scheduler.heap.delete(this.node);
+                this.node = null;
+                return true;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * public boolean reschedule(long delay, TimeUnit unit)
+         *
+         * Moves the deadline of the pending task to delay from now. An earlier deadline is a decreaseKey of its
+         * node, a later one deletes the node and inserts a new one.
+         *
+         * Returns false if the task already ran, is running or was cancelled.
+         *
+         * time complexity: amortized O(1) for an earlier deadline, amortized O(log n) for a later one
+         */
+        public boolean reschedule(long delay, TimeUnit unit) {
+            FibonacciScheduler scheduler = this.scheduler;
+            long deadline = scheduler.deadline(unit.toNanos(delay));
+            scheduler.lock.lock();
+            try {
+                if (this.node == null) {
+                    return false;
+                }
+                long current = this.node.getKey();
+                if (deadline <= current) {
+                    scheduler.heap.decreaseKey(this.node, current - deadline);
+                }
+                else {
+                    scheduler.heap.delete(this.node);
+                    this.node = scheduler.heap.insert(deadline, this);
+                }
+                if (scheduler.heap.findMin() == this.node) {
+                    scheduler.earliest_changed.signal();
+                }
+                return true;
+            }
+            finally {
+                scheduler.lock.unlock();
+            }
+        }
+
+        /**
+         * public boolean isPending()
+         *
+         * Returns true if and only if the task neither ran nor was cancelled yet.
+         */
+        public boolean isPending() {
+            ReentrantLock lock = this.scheduler.lock;
+            lock.lock();
+            try {
+                return this.node != null;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * public RuntimeException getFailure()
+         *
+         * Returns the exception the executor threw when the expired task was handed to it, or null if the task
+         * was not rejected. A rejected task never runs.
+         */
+        public RuntimeException getFailure() {
+            return this.failure;
+        }
+
+        /**
+         * public long getDelay(TimeUnit unit)
+         *
+         * Returns the remaining delay of the pending task, negative once its deadline passed, or 0 if it is no
+         * longer pending.
+         */
+        public long getDelay(TimeUnit unit) {
+            ReentrantLock lock = this.scheduler.lock;
+            lock.lock();
+            try {
+                if (this.node == null) {
+                    return 0;
+                }
+                return unit.convert(this.node.getKey() - this.scheduler.now(), TimeUnit.NANOSECONDS);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * GraphAlgorithms
+ *
+ * Dijkstra's shortest paths, Prim's minimum spanning tree and A* search over a CsrGraph, driven by the insert,
+ * decreaseKey and deleteMin of an IndexedFibonacciHeap keyed by vertex id. Every relaxed edge that improves a
+ * vertex already in the queue costs one decreaseKey, which is O(1) amortized on a Fibonacci heap.
+ *
+ * Path lengths are ints, UNREACHABLE marks a vertex that was not reached.
+ */
+public final class GraphAlgorithms
+{
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private GraphAlgorithms() {
+    }
+
+    /**
+     * public static int[] dijkstra(CsrGraph graph, int source)
+     *
+     * Returns the lengths of the shortest paths from source to every vertex of the graph.
+     *
+     * time complexity: O(E + V log V)
+     */
+    public static int[] dijkstra(CsrGraph graph, int source) {
+        int[] dist = new int[graph.verticesNum()];
+        int[] pred = new int[graph.verticesNum()];
+        dijkstra(graph, source, dist, pred, new IndexedFibonacciHeap(graph.verticesNum()));
+        return dist;
+    }
+
+    /**
+     * public static void dijkstra(CsrGraph graph, int source, int[] dist, int[] pred, IndexedFibonacciHeap heap)
+     *
+     * Fills dist with the lengths of the shortest paths from source, and pred with the previous vertex of every
+     * vertex on its shortest path (-1 for the source and the unreachable vertices).
+     * heap must be empty and have a capacity of at least the number of vertices, it is empty again on return.
+     *
+     * time complexity: O(E + V log V)
+     */
+    public static void dijkstra(CsrGraph graph, int source, int[] dist, int[] pred, IndexedFibonacciHeap heap) {
+        dijkstra(graph, source, dist, pred, new FibonacciVertexQueue(heap));
+    }
+
+    static void dijkstra(CsrGraph graph, int source, int[] dist, int[] pred, VertexQueue queue) {
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+        queue.insert(source, 0);
+        while (!queue.isEmpty()) {
+            int u = queue.deleteMin();
+            long dist_u = dist[u];
+            for (int e = graph.edgesBegin(u), end = graph.edgesEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                long candidate = dist_u + graph.weight(e);
+                // a settled vertex is never improved since the weights are non-negative
+                if (candidate >= dist[v]) {
+                    continue;
+                }
+                if (dist[v] == UNREACHABLE) {
+                    queue.insert(v, (int) candidate);
+                }
+                else {
+                    queue.decreaseKey(v, (int) candidate);
+                }
+                dist[v] = (int) candidate;
+                pred[v] = u;
+            }
+        }
+    }
+
+    /**
+     * public static long prim(CsrGraph graph, int root, int[] parent)
+     *
+     * Builds a minimum spanning tree of the connected component of root in an undirected graph, filling parent
+     * with the parent of every vertex in the tree (-1 for the root and the vertices outside the component).
+     *
+     * Returns the total weight of the tree.
+     *
+     * time complexity: O(E + V log V)
+     */
+    public static long prim(CsrGraph graph, int root, int[] parent) {
+        return prim(graph, root, parent, new IndexedFibonacciHeap(graph.verticesNum()));
+    }
+
+    /**
+     * public static long prim(CsrGraph graph, int root, int[] parent, IndexedFibonacciHeap heap)
+     *
+     * Same as prim(graph, root, parent), running on the given heap. heap must be empty and have a capacity of at
+     * least the number of vertices, it is empty again on return.
+     */
+    public static long prim(CsrGraph graph, int root, int[] parent, IndexedFibonacciHeap heap) {
+        return prim(graph, root, parent, new FibonacciVertexQueue(heap));
+    }
+
+    static long prim(CsrGraph graph, int root, int[] parent, VertexQueue queue) {
+        int vertices_num = graph.verticesNum();
+        // the weight of the lightest edge from the tree to every vertex in the queue
+        int[] key = new int[vertices_num];
+        boolean[] in_tree = new boolean[vertices_num];
+        Arrays.fill(key, UNREACHABLE);
+        Arrays.fill(parent, -1);
+        key[root] = 0;
+        queue.insert(root, 0);
+        long total = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.deleteMin();
+            in_tree[u] = true;
+            total += key[u];
+            for (int e = graph.edgesBegin(u), end = graph.edgesEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                int weight = graph.weight(e);
+                if (in_tree[v] || weight >= key[v]) {
+                    continue;
+                }
+                if (key[v] == UNREACHABLE) {
+                    queue.insert(v, weight);
+                }
+                else {
+                    queue.decreaseKey(v, weight);
+                }
+                key[v] = weight;
+                parent[v] = u;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic)
+     *
+     * Returns the length of the shortest path from source to target, or UNREACHABLE if there is none.
+     * heuristic gives a lower bound of the distance from every vertex to target, and must be consistent:
+     * heuristic(u) <= weight(u, v) + heuristic(v) for every edge (u, v).
+     *
+     * time complexity: O(E + V log V), usually far less since the search stops at target
+     */
+    public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic) {
+        int[] dist = new int[graph.verticesNum()];
+        int[] pred = new int[graph.verticesNum()];
+        return aStar(graph, source, target, heuristic, dist, pred, new IndexedFibonacciHeap(graph.verticesNum()));
+    }
+
+    /**
+     * public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic, int[] dist,
+     *                         int[] pred, IndexedFibonacciHeap heap)
+     *
+     * Same as aStar(graph, source, target, heuristic), filling dist and pred for the vertices the search settled
+     * or reached, like dijkstra does. heap must be empty and have a capacity of at least the number of vertices,
+     * on return it holds the frontier the search did not expand.
+     *
+     * throws ArithmeticException if the length of a path plus its heuristic doesn't fit an int.
+     */
+    public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic, int[] dist,
+                            int[] pred, IndexedFibonacciHeap heap) {
+        return aStar(graph, source, target, heuristic, dist, pred, new FibonacciVertexQueue(heap));
+    }
+
+    static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic, int[] dist, int[] pred,
+                     VertexQueue queue) {
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+        queue.insert(source, estimate(0, heuristic.applyAsInt(source)));
+        while (!queue.isEmpty()) {
+            int u = queue.deleteMin();
+            if (u == target) {
+                return dist[u];
+            }
+            long dist_u = dist[u];
+            for (int e = graph.edgesBegin(u), end = graph.edgesEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                long candidate = dist_u + graph.weight(e);
+                // with a consistent heuristic a settled vertex is never improved
+                if (candidate >= dist[v]) {
+                    continue;
+                }
+                int key = estimate(candidate, heuristic.applyAsInt(v));
+                if (dist[v] == UNREACHABLE) {
+                    queue.insert(v, key);
+                }
+                else {
+                    queue.decreaseKey(v, key);
+                }
+                dist[v] = (int) candidate;
+                pred[v] = u;
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    private static int estimate(long dist, int heuristic) {
+        long key = dist + heuristic;
+        if (key >= UNREACHABLE) {
+            throw new ArithmeticException("path length " + dist + " plus heuristic " + heuristic + " overflows");
+        }
+        return (int) key;
+    }
+
+    /**
+     * interface VertexQueue
+     *
+     * the priority queue of vertices the algorithms run on. decreaseKey sets the key of a vertex in the queue to
+     * a smaller key and deleteMin returns the vertex it removed. Package-private so benchmarks can run the same
+     * algorithms on a baseline queue.
+     */
+    interface VertexQueue {
+        void insert(int vertex, int key);
+
+        void decreaseKey(int vertex, int key);
+
+        int deleteMin();
+
+        boolean isEmpty();
+    }
+
+    /**
+     * private static final class FibonacciVertexQueue
+     *
+     * a VertexQueue over an IndexedFibonacciHeap, using the vertices as ids.
+     */
+    private static final class FibonacciVertexQueue implements VertexQueue {
+        private final IndexedFibonacciHeap heap;
+
+        private FibonacciVertexQueue(IndexedFibonacciHeap heap) {
+            this.heap = heap;
+        }
+
+        @Override
+        public void insert(int vertex, int key) {
+            this.heap.insertById(vertex, key);
+        }
+
+        @Override
+        public void decreaseKey(int vertex, int key) {
+            FibonacciHeap.HeapNode node = this.heap.nodeOf(vertex);
+            this.heap.decreaseKey(node, node.getKey() - key);
+        }
+
+        @Override
+        public int deleteMin() {
+            int vertex = this.heap.findMinId();
+            this.heap.deleteMin();
+            return vertex;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.heap.isEmpty();
+        }
+    }
+}
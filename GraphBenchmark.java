@@ -0,0 +1,398 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * GraphBenchmark
+ *
+ * Runs the GraphAlgorithms on synthetic graphs, once on an IndexedFibonacciHeap and once on an indexed binary heap
+ * baseline, and reports the time per query together with the decreaseKey, link and cut counts of the Fibonacci heap.
+ *
+ * - road: a square grid with random weights in [MIN_ROAD_WEIGHT, 10 * MIN_ROAD_WEIGHT), a stand-in for road
+ *   networks: low degree, long shortest paths and a Manhattan distance heuristic for A*.
+ * - powerlaw: a preferential attachment graph, every new vertex attaching POWER_LAW_DEGREE edges to existing
+ *   vertices chosen proportionally to their degree, which gives a few hubs and many decreaseKeys per extraction.
+ *
+ * The number of edges counts every undirected edge once. A* only runs on the road graphs, and on a graph loaded
+ * with --graph it runs with a zero heuristic.
+ *
+ * usage: java GraphBenchmark [--edges 1e5,1e6,1e7] [--graphs road,powerlaw] [--algorithms dijkstra,prim,astar]
+ *                            [--queries 10] [--warmup 2] [--seed 1] [--graph edges.txt]
+ */
+public class GraphBenchmark
+{
+    private static final int MIN_ROAD_WEIGHT = 100;
+    private static final int POWER_LAW_DEGREE = 8;
+    private static final int POWER_LAW_MAX_WEIGHT = 1000;
+
+    private static volatile long sink;
+
+    enum GraphType {
+        ROAD, POWER_LAW, FILE
+    }
+
+    enum Algorithm {
+        DIJKSTRA, PRIM, A_STAR
+    }
+
+    private final int queries;
+    private final int warmup;
+    private final long seed;
+
+    public GraphBenchmark(int queries, int warmup, long seed) {
+        this.queries = queries;
+        this.warmup = warmup;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] edges = {100000, 1000000, 10000000};
+        List<GraphType> graphs = new ArrayList<>(Arrays.asList(GraphType.ROAD, GraphType.POWER_LAW));
+        List<Algorithm> algorithms = new ArrayList<>(Arrays.asList(Algorithm.values()));
+        int queries = 10;
+        int warmup = 2;
+        long seed = 1;
+        String file = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--edges":
+                    edges = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+                    break;
+                case "--graphs":
+                    graphs.clear();
+                    for (String name : value.split(",")) {
+                        graphs.add(parse(GraphType.class, name));
+                    }
+                    break;
+                case "--algorithms":
+                    algorithms.clear();
+                    for (String name : value.split(",")) {
+                        algorithms.add(parse(Algorithm.class, name));
+                    }
+                    break;
+                case "--queries":
+                    queries = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--graph":
+                    file = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        GraphBenchmark benchmark = new GraphBenchmark(queries, warmup, seed);
+        System.out.printf("%-10s %10s %10s %-9s %-10s %12s %14s %14s %14s%n",
+                "graph", "edges", "vertices", "algorithm", "queue", "ms/query", "decreaseKeys", "links", "cuts");
+        if (file != null) {
+            CsrGraph graph = CsrGraph.load(Paths.get(file), true);
+            for (Algorithm algorithm : algorithms) {
+                benchmark.run(GraphType.FILE, graph, 0, algorithm);
+            }
+            return;
+        }
+        for (GraphType type : graphs) {
+            for (int edges_num : edges) {
+                Random random = new Random(seed);
+                CsrGraph graph = type == GraphType.ROAD ? roadGraph(edges_num, random) : powerLawGraph(edges_num, random);
+                int side = type == GraphType.ROAD ? roadSide(edges_num) : 0;
+                for (Algorithm algorithm : algorithms) {
+                    if (algorithm == Algorithm.A_STAR && type != GraphType.ROAD) {
+                        continue;
+                    }
+                    benchmark.run(type, graph, side, algorithm);
+                }
+            }
+        }
+    }
+
+    /**
+     * public void run(GraphType type, CsrGraph graph, int side, Algorithm algorithm)
+     *
+     * runs the warmup and measured queries of the algorithm on both queues and prints a result line for each.
+     * side is the side of a road grid, used by the A* heuristic, or 0 for a zero heuristic.
+     */
+    public void run(GraphType type, CsrGraph graph, int side, Algorithm algorithm) {
+        int vertices_num = graph.verticesNum();
+        Random random = new Random(this.seed * 31 + algorithm.ordinal());
+        int[] sources = new int[this.queries];
+        int[] targets = new int[this.queries];
+        for (int i = 0; i < this.queries; i++) {
+            sources[i] = random.nextInt(vertices_num);
+            targets[i] = random.nextInt(vertices_num);
+        }
+        for (int i = 0; i < this.warmup; i++) {
+            this.queries(graph, side, algorithm, sources, targets, true);
+            this.queries(graph, side, algorithm, sources, targets, false);
+        }
+        long[] fibonacci = this.queries(graph, side, algorithm, sources, targets, true);
+        long[] binary = this.queries(graph, side, algorithm, sources, targets, false);
+        int edges_num = type == GraphType.FILE ? graph.edgesNum() : graph.edgesNum() / 2;
+        System.out.printf(Locale.ROOT, "%-10s %10d %10d %-9s %-10s %12.2f %14d %14d %14d%n", type, edges_num,
+                vertices_num, algorithm, "fibonacci", fibonacci[0] / 1e6 / this.queries, fibonacci[1], fibonacci[2],
+                fibonacci[3]);
+        System.out.printf(Locale.ROOT, "%-10s %10d %10d %-9s %-10s %12.2f %14s %14s %14s%n", type, edges_num,
+                vertices_num, algorithm, "binary", binary[0] / 1e6 / this.queries, "-", "-", "-");
+    }
+
+    /**
+     * private long[] queries(CsrGraph graph, int side, Algorithm algorithm, int[] sources, int[] targets,
+     *                        boolean fibonacci)
+     *
+     * runs every query on a fresh queue, which is created outside of the timed part.
+     *
+     * returns {nanoseconds, decreaseKeys, links, cuts}, the counts being 0 for the binary heap.
+     */
+    private long[] queries(CsrGraph graph, int side, Algorithm algorithm, int[] sources, int[] targets,
+                           boolean fibonacci) {
+        int vertices_num = graph.verticesNum();
+        int[] dist = new int[vertices_num];
+        int[] pred = new int[vertices_num];
+        IntUnaryOperator heuristic = null;
+        long[] result = new long[4];
+        long checksum = 0;
+        for (int i = 0; i < sources.length; i++) {
+            IndexedFibonacciHeap heap = null;
+            GraphAlgorithms.VertexQueue queue;
+            if (fibonacci) {
+                heap = new IndexedFibonacciHeap(vertices_num);
+                queue = null;
+            }
+            else {
+                queue = new BinaryVertexQueue(vertices_num);
+            }
+            if (algorithm == Algorithm.A_STAR) {
+                heuristic = manhattan(side, targets[i]);
+            }
+            long start = System.nanoTime();
+            switch (algorithm) {
+                case DIJKSTRA:
+                    if (fibonacci) {
+                        GraphAlgorithms.dijkstra(graph, sources[i], dist, pred, heap);
+                    }
+                    else {
+                        GraphAlgorithms.dijkstra(graph, sources[i], dist, pred, queue);
+                    }
+                    checksum += dist[targets[i]];
+                    break;
+                case PRIM:
+                    checksum += fibonacci ? GraphAlgorithms.prim(graph, sources[i], pred, heap)
+                            : GraphAlgorithms.prim(graph, sources[i], pred, queue);
+                    break;
+                case A_STAR:
+                    checksum += fibonacci
+                            ? GraphAlgorithms.aStar(graph, sources[i], targets[i], heuristic, dist, pred, heap)
+                            : GraphAlgorithms.aStar(graph, sources[i], targets[i], heuristic, dist, pred, queue);
+                    break;
+                default:
+                    throw new IllegalArgumentException(algorithm.toString());
+            }
+            result[0] += System.nanoTime() - start;
+            if (fibonacci) {
+                FibonacciHeapMetrics metrics = heap.metrics();
+                result[1] += metrics.getDecreaseKeys();
+                result[2] += metrics.getLinks();
+                result[3] += metrics.getCuts();
+            }
+        }
+        sink += checksum;
+        return result;
+    }
+
+    /**
+     * private static IntUnaryOperator manhattan(int side, int target)
+     *
+     * the A* heuristic of a road grid: every edge has a weight of at least MIN_ROAD_WEIGHT and moves one step
+     * along a single axis, so MIN_ROAD_WEIGHT times the Manhattan distance is consistent. side 0 gives the zero
+     * heuristic.
+     */
+    private static IntUnaryOperator manhattan(int side, int target) {
+        if (side == 0) {
+            return v -> 0;
+        }
+        int target_row = target / side;
+        int target_column = target % side;
+        return v -> MIN_ROAD_WEIGHT * (Math.abs(v / side - target_row) + Math.abs(v % side - target_column));
+    }
+
+    private static int roadSide(int edges_num) {
+        // a side x side grid has 2 * side * (side - 1) edges
+        return Math.max(2, (int) Math.sqrt(edges_num / 2.0));
+    }
+
+    /**
+     * private static CsrGraph roadGraph(int edges_num, Random random)
+     *
+     * a square grid of about edges_num edges, every vertex connected to its right and lower neighbours.
+     */
+    private static CsrGraph roadGraph(int edges_num, Random random) {
+        int side = roadSide(edges_num);
+        int count = 2 * side * (side - 1);
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        int e = 0;
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int v = row * side + column;
+                if (column + 1 < side) {
+                    sources[e] = v;
+                    targets[e] = v + 1;
+                    weights[e++] = MIN_ROAD_WEIGHT + random.nextInt(9 * MIN_ROAD_WEIGHT);
+                }
+                if (row + 1 < side) {
+                    sources[e] = v;
+                    targets[e] = v + side;
+                    weights[e++] = MIN_ROAD_WEIGHT + random.nextInt(9 * MIN_ROAD_WEIGHT);
+                }
+            }
+        }
+        return CsrGraph.fromEdges(side * side, sources, targets, weights, count, true);
+    }
+
+    /**
+     * private static CsrGraph powerLawGraph(int edges_num, Random random)
+     *
+     * a preferential attachment graph of about edges_num edges. It starts from a clique of POWER_LAW_DEGREE + 1
+     * vertices, and every next vertex picks the other end of each of its edges as a random end of an existing
+     * edge, which chooses a vertex with a probability proportional to its degree.
+     */
+    private static CsrGraph powerLawGraph(int edges_num, Random random) {
+        int m = POWER_LAW_DEGREE;
+        int clique_edges = m * (m + 1) / 2;
+        int vertices_num = m + 1 + Math.max(0, (edges_num - clique_edges) / m);
+        int count = clique_edges + (vertices_num - m - 1) * m;
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        int e = 0;
+        for (int u = 0; u <= m; u++) {
+            for (int v = u + 1; v <= m; v++) {
+                sources[e] = u;
+                targets[e++] = v;
+            }
+        }
+        for (int v = m + 1; v < vertices_num; v++) {
+            for (int j = 0; j < m; j++) {
+                // the ends of the first e edges, sources[i] at 2i and targets[i] at 2i + 1
+                int end = random.nextInt(2 * e);
+                sources[e] = v;
+                targets[e++] = (end & 1) == 0 ? sources[end >> 1] : targets[end >> 1];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 + random.nextInt(POWER_LAW_MAX_WEIGHT);
+        }
+        return CsrGraph.fromEdges(vertices_num, sources, targets, weights, count, true);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        String normalized = name.replace("-", "").replace("_", "");
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("unknown " + type.getSimpleName() + " " + name);
+    }
+
+    /**
+     * private static final class BinaryVertexQueue
+     *
+     * the baseline queue: an indexed binary heap over int arrays, position[v] being the index of vertex v in heap
+     * or -1 when v is not in the queue. decreaseKey sifts the vertex up in O(log n).
+     */
+    private static final class BinaryVertexQueue implements GraphAlgorithms.VertexQueue {
+        private final int[] heap;
+        private final int[] keys;
+        private final int[] position;
+        private int size;
+
+        private BinaryVertexQueue(int capacity) {
+            this.heap = new int[capacity];
+            this.keys = new int[capacity];
+            this.position = new int[capacity];
+            Arrays.fill(this.position, -1);
+        }
+
+        @Override
+        public void insert(int vertex, int key) {
+            this.keys[vertex] = key;
+            this.heap[this.size] = vertex;
+            this.position[vertex] = this.size;
+            this.siftUp(this.size++);
+        }
+
+        @Override
+        public void decreaseKey(int vertex, int key) {
+            this.keys[vertex] = key;
+            this.siftUp(this.position[vertex]);
+        }
+
+        @Override
+        public int deleteMin() {
+            int min = this.heap[0];
+            this.position[min] = -1;
+            if (--this.size > 0) {
+                this.heap[0] = this.heap[this.size];
+                this.position[this.heap[0]] = 0;
+                this.siftDown(0);
+            }
+            return min;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        private void siftUp(int i) {
+            int vertex = this.heap[i];
+            int key = this.keys[vertex];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (this.keys[this.heap[parent]] <= key) {
+                    break;
+                }
+                this.heap[i] = this.heap[parent];
+                this.position[this.heap[i]] = i;
+                i = parent;
+            }
+            this.heap[i] = vertex;
+            this.position[vertex] = i;
+        }
+
+        private void siftDown(int i) {
+            int vertex = this.heap[i];
+            int key = this.keys[vertex];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= this.size) {
+                    break;
+                }
+                if (child + 1 < this.size && this.keys[this.heap[child + 1]] < this.keys[this.heap[child]]) {
+                    child++;
+                }
+                if (this.keys[this.heap[child]] >= key) {
+                    break;
+                }
+                this.heap[i] = this.heap[child];
+                this.position[this.heap[i]] = i;
+                i = child;
+            }
+            this.heap[i] = vertex;
+            this.position[vertex] = i;
+        }
+    }
+}
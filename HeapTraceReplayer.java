@@ -0,0 +1,491 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * HeapTraceReplayer
+ *
+ * Re-executes a trace written by a HeapTraceWriter against any AddressablePriorityQueue engine, in the order it was
+ * recorded, and reports for every operation type the latency percentiles of its calls, for Fibonacci heaps the sum
+ * of the potential() of the live heaps every sample_every operations, and the number of links and cuts the replay
+ * made. The replay is deterministic: the same trace makes the same calls on every run and every engine.
+ *
+ * Every call is timed on its own with System.nanoTime, whose own cost (tens of nanoseconds) is part of the reported
+ * latencies. The latencies are recorded into a LatencyHistogram per operation type, so a replay of any length takes
+ * fixed memory for them and the percentiles are reported within 1/8 of their value. A trace that is not monotone
+ * can't be replayed on the radix heap, which is reported and skipped.
+ *
+ * --record-random n first records a random workload of n steps on RecordingFibonacciHeaps into the trace, a step
+ * being a single operation or a meld of a fresh heap of 16 nodes.
+ *
+ * usage: java HeapTraceReplayer trace.bin [--engines fibonacci,pairing,dary,radix] [--sample-every 100000]
+ *                                         [--record-random 1e6] [--seed 1]
+ */
+public class HeapTraceReplayer
+{
+    private static final String[] OP_NAMES = {"newHeap", "insert", "deleteMin", "decreaseKey", "delete", "meld"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private final PriorityQueueFactory.Engine engine;
+    private final List<AddressablePriorityQueue<AddressablePriorityQueue.Handle>> queues = new ArrayList<>();
+    // melded_into[h] is the heap that heap h was melded into, or h itself while h is live
+    private int[] melded_into = new int[16];
+    // handles[n] is the handle of the node with sequence id n, or null once it was deleted
+    private AddressablePriorityQueue.Handle[] handles = new AddressablePriorityQueue.Handle[1024];
+    // the sequence id of every live handle, so a deleteMin can clear the handle of the node it removed
+    private final Map<AddressablePriorityQueue.Handle, Integer> node_ids = new IdentityHashMap<>();
+    // the heap every node was inserted into, the heap it is in now is found through melded_into
+    private int[] inserted_into = new int[1024];
+    private int count_nodes;
+
+    private HeapTraceReplayer(PriorityQueueFactory.Engine engine) {
+        this.engine = engine;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: java HeapTraceReplayer trace.bin [--engines fibonacci,dary]"
+                    + " [--sample-every 100000] [--record-random 1e6] [--seed 1]");
+        }
+        Path trace = Paths.get(args[0]);
+        List<PriorityQueueFactory.Engine> engines =
+                new ArrayList<>(Arrays.asList(PriorityQueueFactory.Engine.values()));
+        int sample_every = 100000;
+        int record_random = 0;
+        long seed = 1;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--engines":
+                    engines.clear();
+                    for (String name : value.split(",")) {
+                        engines.add(parse(PriorityQueueFactory.Engine.class, name));
+                    }
+                    break;
+                case "--sample-every":
+                    sample_every = Integer.parseInt(value);
+                    break;
+                case "--record-random":
+                    record_random = (int) Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        if (record_random > 0) {
+            recordRandom(trace, record_random, seed);
+        }
+        for (PriorityQueueFactory.Engine engine : engines) {
+            Report report;
+            try {
+                report = replay(trace, engine, sample_every);
+            }
+            catch (IllegalArgumentException e) {
+                System.out.printf("%s: can't replay the trace: %s%n%n", engine, e.getMessage());
+                continue;
+            }
+            report.print();
+        }
+    }
+
+    /**
+     * public static Report replay(Path trace, PriorityQueueFactory.Engine engine, int sample_every)
+     *
+     * Replays the trace on queues of the given engine, sampling the potential every sample_every operations when the
+     * engine is a Fibonacci heap.
+     *
+     * throws IOException if the trace can't be read or is malformed, and IllegalArgumentException if the engine
+     * rejects one of its operations.
+     */
+    public static Report replay(Path trace, PriorityQueueFactory.Engine engine, int sample_every) throws IOException {
+        if (sample_every <= 0) {
+            throw new IllegalArgumentException("sample_every must be positive: " + sample_every);
+        }
+        HeapTraceReplayer replayer = new HeapTraceReplayer(engine);
+        Report report = new Report(engine);
+        long links_before = FibonacciHeap.totalLinks();
+        long cuts_before = FibonacciHeap.totalCuts();
+        try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+            boolean eof = fill(channel, buffer);
+            if (buffer.remaining() < 8 || buffer.getInt() != HeapTraceWriter.TRACE_MAGIC) {
+                throw new IOException(trace + " is not a heap trace");
+            }
+            int version = buffer.getInt();
+            if (version != HeapTraceWriter.TRACE_VERSION) {
+                throw new IOException("unsupported trace version " + version);
+            }
+            while (true) {
+                if (!eof && buffer.remaining() < HeapTraceWriter.MAX_RECORD_BYTES) {
+                    buffer.compact();
+                    eof = fill(channel, buffer);
+                }
+                if (!buffer.hasRemaining()) {
+                    break;
+                }
+                byte op = buffer.get();
+                long nanos = replayer.replayRecord(op, buffer);
+                if (op == HeapTraceWriter.NEW_HEAP) {
+                    continue;
+                }
+                report.latencies[op].record(nanos);
+                if (++report.count_ops % sample_every == 0) {
+                    report.samplePotential(replayer.queues);
+                }
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("the trace ends in the middle of a record", e);
+        }
+        report.links = FibonacciHeap.totalLinks() - links_before;
+        report.cuts = FibonacciHeap.totalCuts() - cuts_before;
+        return report;
+    }
+
+    /**
+     * private long replayRecord(byte op, ByteBuffer buffer)
+     *
+     * decodes the arguments of the record of op and makes its call.
+     *
+     * returns the nanoseconds the call took, which only cover the call on the queue, not the decoding.
+     */
+    private long replayRecord(byte op, ByteBuffer buffer) throws IOException {
+        long start;
+        switch (op) {
+            case HeapTraceWriter.NEW_HEAP: {
+                int heap = this.queues.size();
+                if (heap == this.melded_into.length) {
+                    this.melded_into = Arrays.copyOf(this.melded_into, 2 * heap);
+                }
+                this.melded_into[heap] = heap;
+                this.queues.add(PriorityQueueFactory.create(this.engine));
+                return 0;
+            }
+            case HeapTraceWriter.INSERT: {
+                int heap = this.liveHeap(HeapTraceWriter.getVarLong(buffer));
+                int key = HeapTraceWriter.unzigzag(HeapTraceWriter.getVarLong(buffer));
+                if (this.count_nodes == this.handles.length) {
+                    this.handles = Arrays.copyOf(this.handles, 2 * this.count_nodes);
+                    this.inserted_into = Arrays.copyOf(this.inserted_into, 2 * this.count_nodes);
+                }
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue = this.queues.get(heap);
+                start = System.nanoTime();
+                AddressablePriorityQueue.Handle handle = queue.insert(key);
+                long nanos = System.nanoTime() - start;
+                this.inserted_into[this.count_nodes] = heap;
+                this.node_ids.put(handle, this.count_nodes);
+                this.handles[this.count_nodes++] = handle;
+                return nanos;
+            }
+            case HeapTraceWriter.DELETE_MIN: {
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue =
+                        this.queues.get(this.liveHeap(HeapTraceWriter.getVarLong(buffer)));
+                // null when the heap is empty, which a recording heap allows and records as a no-op
+                AddressablePriorityQueue.Handle min = queue.findMin();
+                start = System.nanoTime();
+                queue.deleteMin();
+                long nanos = System.nanoTime() - start;
+                if (min != null) {
+                    // a later record that names the removed node is rejected by node()
+                    this.handles[this.node_ids.remove(min)] = null;
+                }
+                return nanos;
+            }
+            case HeapTraceWriter.DECREASE_KEY: {
+                int node = this.node(HeapTraceWriter.getVarLong(buffer));
+                int delta = HeapTraceWriter.unzigzag(HeapTraceWriter.getVarLong(buffer));
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue =
+                        this.queues.get(this.find(this.inserted_into[node]));
+                AddressablePriorityQueue.Handle handle = this.handles[node];
+                start = System.nanoTime();
+                queue.decreaseKey(handle, delta);
+                break;
+            }
+            case HeapTraceWriter.DELETE: {
+                int node = this.node(HeapTraceWriter.getVarLong(buffer));
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue =
+                        this.queues.get(this.find(this.inserted_into[node]));
+                AddressablePriorityQueue.Handle handle = this.handles[node];
+                start = System.nanoTime();
+                queue.delete(handle);
+                long nanos = System.nanoTime() - start;
+                this.node_ids.remove(handle);
+                this.handles[node] = null;
+                return nanos;
+            }
+            case HeapTraceWriter.MELD: {
+                int heap = this.liveHeap(HeapTraceWriter.getVarLong(buffer));
+                int other_heap = this.liveHeap(HeapTraceWriter.getVarLong(buffer));
+                if (heap == other_heap) {
+                    throw new IOException("heap " + heap + " is melded with itself in the trace");
+                }
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> queue = this.queues.get(heap);
+                AddressablePriorityQueue<AddressablePriorityQueue.Handle> other = this.queues.get(other_heap);
+                start = System.nanoTime();
+                queue.meld(other);
+                long nanos = System.nanoTime() - start;
+                // the other queue must not be used after the meld, its nodes are now in heap
+                this.melded_into[other_heap] = heap;
+                this.queues.set(other_heap, null);
+                return nanos;
+            }
+            default:
+                throw new IOException("unknown op code " + op + " in the trace");
+        }
+        return System.nanoTime() - start;
+    }
+
+    // the heap with the given id, which must exist and not have been melded into another heap
+    private int liveHeap(long heap) throws IOException {
+        if (heap < 0 || heap >= this.queues.size()) {
+            throw new IOException("unknown heap " + heap + " in the trace");
+        }
+        if (this.queues.get((int) heap) == null) {
+            throw new IOException("heap " + heap + " is used after it was melded");
+        }
+        return (int) heap;
+    }
+
+    // the node with the given sequence id, which must have been inserted and not deleted
+    private int node(long node) throws IOException {
+        if (node < 0 || node >= this.count_nodes || this.handles[(int) node] == null) {
+            throw new IOException("unknown node " + node + " in the trace");
+        }
+        return (int) node;
+    }
+
+    // the live heap that heap was melded into, directly or through other melds, halving the paths on the way
+    private int find(int heap) {
+        while (this.melded_into[heap] != heap) {
+            this.melded_into[heap] = this.melded_into[this.melded_into[heap]];
+            heap = this.melded_into[heap];
+        }
+        return heap;
+    }
+
+    // reads from the channel until the buffer is full or the file ends, returns true at the end of the file
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        boolean eof = false;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                eof = true;
+                break;
+            }
+        }
+        buffer.flip();
+        return eof;
+    }
+
+    /**
+     * private static void recordRandom(Path trace, int ops, long seed)
+     *
+     * records a random workload into trace: a few heaps that grow through inserts, with decreaseKeys and deletes of
+     * random live nodes, deleteMins and occasional melds of a fresh heap into the first one.
+     */
+    private static void recordRandom(Path trace, int ops, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (HeapTraceWriter writer = HeapTraceWriter.open(trace)) {
+            RecordingFibonacciHeap heap = new RecordingFibonacciHeap(writer);
+            // the nodes in the heap, and the index of every one of them in live
+            List<FibonacciHeap.HeapNode> live = new ArrayList<>();
+            Map<FibonacciHeap.HeapNode, Integer> indexes = new IdentityHashMap<>();
+            for (int i = 0; i < ops; i++) {
+                int choice = random.nextInt(100);
+                if (!live.isEmpty() && choice < 30) {
+                    heap.decreaseKey(live.get(random.nextInt(live.size())), random.nextInt(1000));
+                }
+                else if (!live.isEmpty() && choice < 35) {
+                    FibonacciHeap.HeapNode node = live.get(random.nextInt(live.size()));
+                    heap.delete(node);
+                    remove(live, indexes, node);
+                }
+                else if (!live.isEmpty() && choice < 50) {
+                    FibonacciHeap.HeapNode min = heap.findMin();
+                    heap.deleteMin();
+                    remove(live, indexes, min);
+                }
+                else if (choice == 99) {
+                    RecordingFibonacciHeap other = new RecordingFibonacciHeap(writer);
+                    for (int j = 0; j < 16; j++) {
+                        add(live, indexes, other.insert(random.nextInt(Integer.MAX_VALUE)));
+                    }
+                    heap.meld(other);
+                }
+                else {
+                    add(live, indexes, heap.insert(random.nextInt(Integer.MAX_VALUE)));
+                }
+            }
+        }
+    }
+
+    private static void add(List<FibonacciHeap.HeapNode> live, Map<FibonacciHeap.HeapNode, Integer> indexes,
+                            FibonacciHeap.HeapNode node) {
+        indexes.put(node, live.size());
+        live.add(node);
+    }
+
+    // removes node from live by moving the last node into its place
+    private static void remove(List<FibonacciHeap.HeapNode> live, Map<FibonacciHeap.HeapNode, Integer> indexes,
+                               FibonacciHeap.HeapNode node) {
+        int index = indexes.remove(node);
+        FibonacciHeap.HeapNode last = live.remove(live.size() - 1);
+        if (last != node) {
+            live.set(index, last);
+            indexes.put(last, index);
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        String normalized = name.replace("-", "").replace("_", "");
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("unknown " + type.getSimpleName() + " " + name);
+    }
+
+    /**
+     * public static final class Report
+     *
+     * The result of a replay: the latencies of every call by operation type, the potential samples and the link and
+     * cut totals.
+     */
+    public static final class Report {
+        private final PriorityQueueFactory.Engine engine;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[OP_NAMES.length];
+        private final LongList potential_ops = new LongList();
+        private final LongList potentials = new LongList();
+        private long count_ops;
+        private long links;
+        private long cuts;
+
+        private Report(PriorityQueueFactory.Engine engine) {
+            this.engine = engine;
+            for (int i = 0; i < this.latencies.length; i++) {
+                this.latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        public long getOpsNum() {
+            return this.count_ops;
+        }
+
+        /**
+         * public long getLatency(String op, double percentile)
+         *
+         * Returns the given percentile, in [0, 100], of the latencies of the calls to op (such as "decreaseKey") in
+         * nanoseconds, as LatencyHistogram.getPercentile reports it, or -1 if the replay made no such call.
+         */
+        public long getLatency(String op, double percentile) {
+            int index = Arrays.asList(OP_NAMES).indexOf(op);
+            if (index < 0) {
+                throw new IllegalArgumentException("unknown operation " + op);
+            }
+            LatencyHistogram latencies = this.latencies[index];
+            return latencies.getCount() == 0 ? -1 : latencies.getPercentile(percentile);
+        }
+
+        /**
+         * public long[][] getPotentials()
+         *
+         * Returns the potential samples as {operation numbers, sum of the potentials of the live heaps}, both empty
+         * if the engine has no potential.
+         */
+        public long[][] getPotentials() {
+            return new long[][] {this.potential_ops.toArray(), this.potentials.toArray()};
+        }
+
+        public long getLinks() {
+            return this.links;
+        }
+
+        public long getCuts() {
+            return this.cuts;
+        }
+
+        private void samplePotential(List<? extends AddressablePriorityQueue<?>> queues) {
+            long potential = 0;
+            for (AddressablePriorityQueue<?> queue : queues) {
+                if (queue instanceof FibonacciHeap) {
+                    potential += ((FibonacciHeap) queue).potential();
+                }
+                else if (queue != null) {
+                    return;
+                }
+            }
+            this.potential_ops.add(this.count_ops);
+            this.potentials.add(potential);
+        }
+
+        /**
+         * public void print()
+         *
+         * Prints the report to System.out.
+         */
+        public void print() {
+            System.out.printf("%s: %d operations, %d links, %d cuts%n", this.engine, this.count_ops, this.links,
+                    this.cuts);
+            System.out.printf("%-12s %12s", "op", "calls");
+            for (double percentile : PERCENTILES) {
+                System.out.printf(Locale.ROOT, " %10s", "p" + (percentile == (int) percentile
+                        ? Integer.toString((int) percentile) : Double.toString(percentile)) + " ns");
+            }
+            System.out.printf(" %10s%n", "max ns");
+            for (int op = 1; op < OP_NAMES.length; op++) {
+                LatencyHistogram latencies = this.latencies[op];
+                if (latencies.getCount() == 0) {
+                    continue;
+                }
+                System.out.printf("%-12s %12d", OP_NAMES[op], latencies.getCount());
+                for (double percentile : PERCENTILES) {
+                    System.out.printf(" %10d", latencies.getPercentile(percentile));
+                }
+                System.out.printf(" %10d%n", latencies.getMax());
+            }
+            if (this.potentials.size > 0) {
+                System.out.printf("%-12s %12s%n", "ops", "potential");
+                for (int i = 0; i < this.potentials.size; i++) {
+                    System.out.printf("%-12d %12d%n", this.potential_ops.values[i], this.potentials.values[i]);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * private static final class LongList
+     *
+     * a growable array of longs.
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
+            }
+            this.values[this.size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
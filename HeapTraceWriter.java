@@ -0,0 +1,230 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * HeapTraceWriter
+ *
+ * Writes the operations of RecordingFibonacciHeaps into a compact binary trace file that HeapTraceReplayer can
+ * re-execute. The file starts with TRACE_MAGIC and TRACE_VERSION, followed by one record per operation: an op code
+ * byte and its arguments as variable length ints (keys zigzag encoded, so small negative keys stay short).
+ *
+ * - NEW_HEAP: a heap was created, it gets the next heap id.
+ * - INSERT heap key: the inserted node gets the next node id.
+ * - DELETE_MIN heap
+ * - DECREASE_KEY node delta
+ * - DELETE node
+ * - MELD heap other_heap
+ *
+ * Records are appended to an in-memory buffer. A full buffer is handed to a background thread that writes it
+ * through the FileChannel while the recording continues into a spare buffer, so the recorded heaps only block on
+ * the disk when every spare buffer is waiting to be written. The writer may be shared by heaps on several threads.
+ */
+public final class HeapTraceWriter implements Closeable
+{
+    public static final int TRACE_MAGIC = 0x46485452;
+    public static final int TRACE_VERSION = 1;
+
+    static final byte NEW_HEAP = 0;
+    static final byte INSERT = 1;
+    static final byte DELETE_MIN = 2;
+    static final byte DECREASE_KEY = 3;
+    static final byte DELETE = 4;
+    static final byte MELD = 5;
+    // an op code and two variable length ints
+    static final int MAX_RECORD_BYTES = 1 + 2 * 10;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int BUFFERS = 4;
+    // handed to the background thread to make it stop
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> free_buffers = new ArrayBlockingQueue<>(BUFFERS);
+    private final BlockingQueue<ByteBuffer> full_buffers = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final Thread writer;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private int count_heaps;
+    private long count_nodes;
+    private boolean closed;
+
+    private HeapTraceWriter(FileChannel channel) {
+        this.channel = channel;
+        for (int i = 1; i < BUFFERS; i++) {
+            this.free_buffers.add(ByteBuffer.allocateDirect(BUFFER_BYTES));
+        }
+        this.current = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        this.current.putInt(TRACE_MAGIC).putInt(TRACE_VERSION);
+        this.writer = new Thread(this::runWriter, "heap-trace-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * public static HeapTraceWriter open(Path path)
+     *
+     * Creates the trace file at path, replacing it if it exists.
+     */
+    public static HeapTraceWriter open(Path path) throws IOException {
+        return new HeapTraceWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    synchronized int newHeap() {
+        this.reserve().put(NEW_HEAP);
+        return this.count_heaps++;
+    }
+
+    synchronized long insert(int heap, int key) {
+        ByteBuffer buffer = this.reserve();
+        buffer.put(INSERT);
+        putVarLong(buffer, heap);
+        putVarLong(buffer, zigzag(key));
+        return this.count_nodes++;
+    }
+
+    synchronized void deleteMin(int heap) {
+        ByteBuffer buffer = this.reserve();
+        buffer.put(DELETE_MIN);
+        putVarLong(buffer, heap);
+    }
+
+    synchronized void decreaseKey(long node, int delta) {
+        ByteBuffer buffer = this.reserve();
+        buffer.put(DECREASE_KEY);
+        putVarLong(buffer, node);
+        putVarLong(buffer, zigzag(delta));
+    }
+
+    synchronized void delete(long node) {
+        ByteBuffer buffer = this.reserve();
+        buffer.put(DELETE);
+        putVarLong(buffer, node);
+    }
+
+    synchronized void meld(int heap, int other_heap) {
+        ByteBuffer buffer = this.reserve();
+        buffer.put(MELD);
+        putVarLong(buffer, heap);
+        putVarLong(buffer, other_heap);
+    }
+
+    /**
+     * public void close()
+     *
+     * Writes the buffered records, waits for the background thread and closes the file.
+     *
+     * throws IOException if writing the trace failed, now or in the background.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.current.flip();
+            this.full_buffers.put(this.current);
+            this.full_buffers.put(END);
+            this.writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while closing the trace");
+        }
+        finally {
+            this.channel.close();
+        }
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * private ByteBuffer reserve()
+     *
+     * returns the current buffer with room for one more record, handing it to the background thread and taking a
+     * spare one first if it is too full. the hot path only waits here when all the spare buffers are in use.
+     */
+    private ByteBuffer reserve() {
+        if (this.closed) {
+            throw new IllegalStateException("the trace is closed");
+        }
+        if (this.failure != null) {
+            throw new IllegalStateException("writing the trace failed", this.failure);
+        }
+        if (this.current.remaining() < MAX_RECORD_BYTES) {
+            try {
+                this.current.flip();
+                this.full_buffers.put(this.current);
+                this.current = this.free_buffers.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for a trace buffer", e);
+            }
+        }
+        return this.current;
+    }
+
+    private void runWriter() {
+        while (true) {
+            ByteBuffer buffer;
+            try {
+                buffer = this.full_buffers.take();
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+            if (buffer == END) {
+                return;
+            }
+            try {
+                while (buffer.hasRemaining() && this.failure == null) {
+                    this.channel.write(buffer);
+                }
+            }
+            catch (IOException e) {
+                // reported by the next record or by close, the buffers keep circulating so nothing blocks
+                this.failure = e;
+            }
+            buffer.clear();
+            this.free_buffers.add(buffer);
+        }
+    }
+
+    static long zigzag(int value) {
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed variable length int in the trace");
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IndexedFibonacciHeap
+ *
+ * A FibonacciHeap whose entries can be inserted under a caller supplied id in [0, capacity), and then decreased,
+ * deleted and looked up by that id instead of by their HeapNode. The id of every entry is kept on its node and the
+ * node of every id in a primitive table, so graph algorithms can address entries by vertex id without keeping a
+ * HeapNode[] or a map of their own.
+ *
+ * Entries inserted with the plain insert(int key) have no id and are only reachable through their HeapNode.
+ */
+public class IndexedFibonacciHeap extends FibonacciHeap
+{
+    private HeapNode[] nodes_by_id;
+    // the nodes of the ids passed to decreaseKeysById, reused between calls
+    private HeapNode[] batch_nodes = new HeapNode[0];
+
+    public IndexedFibonacciHeap(int capacity) {
+        super();
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative: " + capacity);
+        }
+        this.nodes_by_id = new HeapNode[capacity];
+    }
+
+    /**
+     * public int capacity()
+     *
+     * Returns the number of ids the heap can hold, ids are in [0, capacity).
+     */
+    public int capacity() {
+        return this.nodes_by_id.length;
+    }
+
+    /**
+     * public HeapNode insertById(int id, int key)
+     *
+     * Inserts the key under the given id, which must not be in the heap already.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(1)
+     */
+    public HeapNode insertById(int id, int key) {
+        this.checkId(id);
+        if (this.nodes_by_id[id] != null) {
+            throw new IllegalArgumentException("id " + id + " is already in the heap");
+        }
+        IndexedHeapNode node = new IndexedHeapNode(id, key);
+        this.nodes_by_id[id] = node;
+        this.insertNode(node);
+        return node;
+    }
+
+    /**
+     * public boolean containsId(int id)
+     *
+     * Returns true if and only if an entry with the given id is in the heap.
+     *
+     * Complexity: O(1)
+     */
+    public boolean containsId(int id) {
+        this.checkId(id);
+        return this.nodes_by_id[id] != null;
+    }
+
+    /**
+     * public int keyOf(int id)
+     *
+     * Returns the key of the entry with the given id.
+     *
+     * throws NoSuchElementException if the id isn't in the heap.
+     *
+     * Complexity: O(1)
+     */
+    public int keyOf(int id) {
+        return this.nodeOf(id).getKey();
+    }
+
+    /**
+     * public HeapNode nodeOf(int id)
+     *
+     * Returns the node of the entry with the given id.
+     *
+     * throws NoSuchElementException if the id isn't in the heap.
+     *
+     * Complexity: O(1)
+     */
+    public HeapNode nodeOf(int id) {
+        this.checkId(id);
+        HeapNode node = this.nodes_by_id[id];
+        if (node == null) {
+            throw new NoSuchElementException("id " + id + " is not in the heap");
+        }
+        return node;
+    }
+
+    /**
+     * public int findMinId()
+     *
+     * Returns the id of the entry whose key is minimal, or -1 if the heap is empty or that entry has no id.
+     *
+     * Complexity: O(1)
+     */
+    public int findMinId() {
+        return idOf(this.findMin());
+    }
+
+    /**
+     * public int idOf(HeapNode node)
+     *
+     * Returns the id of the entry held by the node, or -1 if the node is null or its entry has no id.
+     *
+     * Complexity: O(1)
+     */
+    public int idOf(HeapNode node) {
+        if (!(node instanceof IndexedHeapNode)) {
+            return -1;
+        }
+        // a recycled node may still carry the id of its previous entry
+        int id = ((IndexedHeapNode) node).id;
+        return id < this.nodes_by_id.length && this.nodes_by_id[id] == node ? id : -1;
+    }
+
+    /**
+     * public void decreaseKeyById(int id, int delta)
+     *
+     * Decreases the key of the entry with the given id by a non-negative value delta.
+     *
+     * throws NoSuchElementException if the id isn't in the heap.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKeyById(int id, int delta) {
+        this.decreaseKey(this.nodeOf(id), delta);
+    }
+
+    /**
+     * public void decreaseKeysById(int[] ids, int[] deltas, int len)
+     *
+     * Decreases the key of the entry with id ids[i] by the non-negative deltas[i] for every i < len, as one batch
+     * (see decreaseKeys).
+     *
+     * throws IndexOutOfBoundsException if len or one of the ids is out of bounds, and NoSuchElementException if one
+     * of the ids isn't in the heap, in both cases before any key is changed.
+     *
+     * time complexity: WC O(n), amortized O(len)
+     */
+    public void decreaseKeysById(int[] ids, int[] deltas, int len) {
+        if (len < 0 || len > ids.length || len > deltas.length) {
+            throw new IndexOutOfBoundsException("len " + len + " out of bounds for " + ids.length + " ids and "
+                    + deltas.length + " deltas");
+        }
+        if (this.batch_nodes.length < len) {
+            this.batch_nodes = new HeapNode[Math.max(len, 2 * this.batch_nodes.length)];
+        }
+        try {
+            for (int i = 0; i < len; i++) {
+                this.batch_nodes[i] = this.nodeOf(ids[i]);
+            }
+            this.decreaseKeys(this.batch_nodes, deltas, len);
+        }
+        finally {
+            // not keeping removed nodes reachable
+            Arrays.fill(this.batch_nodes, 0, len, null);
+        }
+    }
+
+    /**
+     * public void updateKeyById(int id, int new_key)
+     *
+     * Sets the key of the entry with the given id to new_key, keeping its node (see updateKey).
+     *
+     * throws NoSuchElementException if the id isn't in the heap.
+     *
+     * time complexity: amortized O(1) for a smaller key, see updateKey for a larger one
+     */
+    public void updateKeyById(int id, int new_key) {
+        this.updateKey(this.nodeOf(id), new_key);
+    }
+
+    /**
+     * public void deleteById(int id)
+     *
+     * Deletes the entry with the given id from the heap.
+     *
+     * throws NoSuchElementException if the id isn't in the heap.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public void deleteById(int id) {
+        this.delete(this.nodeOf(id));
+    }
+
+    /**
+     * public void meld(FibonacciHeap heap2)
+     *
+     * Melds heap2 with the current heap. If heap2 is an IndexedFibonacciHeap, its ids move to this heap, so they
+     * must all fit the capacity of this heap and not be in it already. An IndexedFibonacciHeap melded into a plain
+     * FibonacciHeap loses its ids instead (see meldedInto).
+     *
+     * Complexity: O(1), O(capacity of heap2) if heap2 is an IndexedFibonacciHeap
+     */
+    @Override
+    public void meld(FibonacciHeap heap2) {
+        if (heap2 instanceof IndexedFibonacciHeap) {
+            HeapNode[] ids2 = ((IndexedFibonacciHeap) heap2).nodes_by_id;
+            for (int id = 0; id < ids2.length; id++) {
+                if (ids2[id] != null && (id >= this.nodes_by_id.length || this.nodes_by_id[id] != null)) {
+                    throw new IllegalArgumentException("id " + id + " of the melded heap can't be added to this heap");
+                }
+            }
+            for (int id = 0; id < ids2.length; id++) {
+                if (ids2[id] != null) {
+                    this.nodes_by_id[id] = ids2[id];
+                    ids2[id] = null;
+                }
+            }
+        }
+        super.meld(heap2);
+    }
+
+    /**
+     * public IndexedFibonacciHeap extractBelow(int threshold)
+     *
+     * Moves every entry whose key is below threshold to a new IndexedFibonacciHeap of the same capacity and returns
+     * it (see FibonacciHeap.extractBelow). The ids of the moved entries move with them.
+     *
+     * Complexity: O(#roots + #moved entries * log n), plus O(capacity) if any entry moved
+     */
+    @Override
+    public IndexedFibonacciHeap extractBelow(int threshold) {
+        IndexedFibonacciHeap below = this.extractBelowInto(threshold, new IndexedFibonacciHeap(this.capacity()));
+        if (!below.isEmpty()) {
+            // exactly the entries below threshold moved
+            for (int id = 0; id < this.nodes_by_id.length; id++) {
+                HeapNode node = this.nodes_by_id[id];
+                if (node != null && node.getKey() < threshold) {
+                    below.nodes_by_id[id] = node;
+                    this.nodes_by_id[id] = null;
+                }
+            }
+        }
+        return below;
+    }
+
+    /**
+     * protected void meldedInto(FibonacciHeap heap)
+     *
+     * clears the ids of this heap, whose nodes now belong to heap: an id left behind would let decreaseKeyById or
+     * deleteById change the other heap. when heap is an IndexedFibonacciHeap, meld already moved the ids to it.
+     */
+    @Override
+    protected void meldedInto(FibonacciHeap heap) {
+        Arrays.fill(this.nodes_by_id, null);
+    }
+
+    @Override
+    protected void nodeRemoved(HeapNode node) {
+        int id = this.idOf(node);
+        if (id >= 0) {
+            this.nodes_by_id[id] = null;
+        }
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= this.nodes_by_id.length) {
+            throw new IndexOutOfBoundsException("id " + id + " is out of [0, " + this.nodes_by_id.length + ")");
+        }
+    }
+
+    /**
+     * private static class IndexedHeapNode
+     *
+     * a HeapNode that remembers the id it was inserted under.
+     */
+    private static class IndexedHeapNode extends HeapNode {
+
+        private final int id;
+
+        private IndexedHeapNode(int id, int key) {
+            super(key);
+            this.id = id;
+        }
+    }
+}
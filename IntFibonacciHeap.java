@@ -0,0 +1,630 @@
+import java.util.Arrays;
+
+/**
+ * IntFibonacciHeap
+ *
+ * An implementation of a Fibonacci Heap over integers that keeps its nodes in parallel primitive arrays
+ * instead of HeapNode objects.
+ *
+ * A node is addressed by an int handle, which is its index in the arrays. NONE (-1) stands for "no node".
+ * A handle stays valid until its node is removed from the heap (by deleteMin or delete), after which
+ * the slot may be handed out again by a later insert.
+ *
+ * Unlike FibonacciHeap.meld, meld is not O(1): it copies every slot heap2 has used into the arrays of this heap,
+ * so melding a large heap is O(n) in its capacity, and every handle of heap2 changes, by the offset meld returns.
+ */
+public class IntFibonacciHeap
+{
+    public static final int NONE = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] key;
+    private int[] rank;
+    private boolean[] marked;
+    private int[] parent;
+    private int[] child;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+
+    private int min_node;
+    private int first;
+    private int size;
+    private int count_roots;
+    private int count_marked;
+    private int slots_used;
+    private int free_slots;
+    private long count_links;
+    private long count_cuts;
+
+    public IntFibonacciHeap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntFibonacciHeap(int capacity){
+        capacity = Math.max(capacity, 1);
+        this.key = new int[capacity];
+        this.rank = new int[capacity];
+        this.marked = new boolean[capacity];
+        this.parent = new int[capacity];
+        this.child = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.buckets = new int[0];
+        this.min_node = NONE;
+        this.first = NONE;
+        this.size = 0;
+        this.count_roots = 0;
+        this.count_marked = 0;
+        this.slots_used = 0;
+        this.free_slots = NONE;
+    }
+
+    /**
+     * public int findMin()
+     *
+     * Returns the handle of the node whose key is minimal, or NONE if the heap is empty.
+     *
+     * time complexity: O(1)
+     */
+    public int findMin() {
+        return this.min_node;
+    }
+
+    /**
+     * public int getFirst()
+     *
+     * Returns the handle of the first root in the roots list of the heap, or NONE if the heap is empty.
+     */
+    public int getFirst() {
+        return this.first;
+    }
+
+    /**
+     * public int getKey(int node)
+     *
+     * Returns the key of the given node.
+     */
+    public int getKey(int node) {
+        return this.key[node];
+    }
+
+    /**
+     * public int getRank(int node)
+     *
+     * Returns the number of children of the given node.
+     */
+    public int getRank(int node) {
+        return this.rank[node];
+    }
+
+    /**
+     * public boolean getMarked(int node)
+     *
+     * Returns true if and only if the given node has lost a child since it became a child of its parent.
+     */
+    public boolean getMarked(int node) {
+        return this.marked[node];
+    }
+
+    /**
+     * public int getRootsNum()
+     *
+     * returns the number of roots in the heap
+     */
+    public int getRootsNum() {
+        return this.count_roots;
+    }
+
+    /**
+     * public int getMarkedNum()
+     *
+     * returns the number of marked nodes in the heap
+     */
+    public int getMarkedNum() {
+        return this.count_marked;
+    }
+
+    /**
+     * public boolean isEmpty()
+     *
+     * Returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * public int size()
+     *
+     * Returns the number of elements in the heap.
+     *
+     * Complexity: O(1)
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * public int insert(int key)
+     *
+     * Creates a node which contains the given key, and inserts it into the heap.
+     *
+     * Returns the handle of the newly created node.
+     *
+     * time complexity: amortized O(1)
+     */
+    public int insert(int key) {
+        int node = this.allocate();
+        this.key[node] = key;
+        this.rank[node] = 0;
+        this.marked[node] = false;
+        this.parent[node] = NONE;
+        this.child[node] = NONE;
+        if (this.isEmpty()) {
+            this.min_node = node;
+            this.setNext(node, node);
+        }
+        else {
+            this.setNext(this.prev[this.first], node);
+            this.setNext(node, this.first);
+            this.findNewMin(node);
+        }
+        this.first = node;
+        this.size += 1;
+        this.count_roots += 1;
+        return node;
+    }
+
+    /**
+     * public void deleteMin()
+     *
+     * Deletes the node containing the minimum key. The handle of the deleted node becomes invalid.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public void deleteMin() {
+        if (this.isEmpty()) {
+            return;
+        }
+        int min = this.min_node;
+        int min_child = this.child[min];
+        int min_next = this.next[min];
+        int min_prev = this.prev[min];
+        int min_rank = this.rank[min];
+
+        // if min_node has children, they become roots
+        if (min_rank != 0) {
+            if (this.count_roots == 1) {
+                this.first = min_child;
+            }
+            else {
+                this.setNext(this.prev[min_child], min_next);
+                this.setNext(min_prev, min_child);
+                if (min == this.first) {
+                    this.first = min_child;
+                }
+            }
+            int child_for_loop = min_child;
+            for (int i = 1; i <= min_rank; i++) {
+                this.setMarked(child_for_loop, false);
+                this.parent[child_for_loop] = NONE;
+                child_for_loop = this.next[child_for_loop];
+            }
+        }
+        else {
+            if (this.count_roots == 1) {
+                this.first = NONE;
+            }
+            else {
+                this.setNext(min_prev, min_next);
+                if (min == this.first) {
+                    this.first = min_next;
+                }
+            }
+        }
+        this.release(min);
+        this.count_roots += min_rank - 1;
+        this.size -= 1;
+        this.min_node = this.successiveLinking();
+    }
+
+    /**
+     * public void decreaseKey(int x, int delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta, applying cascading cuts if needed.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKey(int x, int delta) {
+        this.key[x] -= delta;
+        int x_parent = this.parent[x];
+        if (x_parent == NONE) {
+            this.findNewMin(x);
+            return;
+        }
+        if (this.key[x] >= this.key[x_parent]) {
+            return;
+        }
+        this.cascadingCut(x, x_parent);
+    }
+
+    /**
+     * public void delete(int x)
+     *
+     * Deletes the node x from the heap. It is assumed that x indeed belongs to the heap.
+     * The handle x becomes invalid.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    public void delete(int x) {
+        int x_parent = this.parent[x];
+        if (x_parent != NONE) {
+            this.cascadingCut(x, x_parent);
+        }
+        // x is now a root, making it the min_node lets deleteMin remove it regardless of its key
+        this.min_node = x;
+        this.deleteMin();
+    }
+
+    /**
+     * public int meld(IntFibonacciHeap heap2)
+     *
+     * Melds heap2 with the current heap. The nodes of heap2 are copied into this heap's arrays and heap2 is left empty.
+     *
+     * Returns the offset that has to be added to a handle of heap2 to get the handle of the same node in this heap.
+     *
+     * throws IllegalArgumentException if heap2 is this heap.
+     *
+     * Complexity: O(heap2 capacity)
+     */
+    public int meld(IntFibonacciHeap heap2) {
+        if (heap2 == this) {
+            throw new IllegalArgumentException("can't meld a heap with itself");
+        }
+        int offset = this.slots_used;
+        if (heap2.slots_used == 0) {
+            return offset;
+        }
+        int used = heap2.slots_used;
+        this.ensureCapacity(offset + used);
+        System.arraycopy(heap2.key, 0, this.key, offset, used);
+        System.arraycopy(heap2.rank, 0, this.rank, offset, used);
+        System.arraycopy(heap2.marked, 0, this.marked, offset, used);
+        shiftHandles(heap2.parent, this.parent, offset, used);
+        shiftHandles(heap2.child, this.child, offset, used);
+        shiftHandles(heap2.next, this.next, offset, used);
+        shiftHandles(heap2.prev, this.prev, offset, used);
+        this.slots_used += used;
+
+        // free slots of heap2 are chained in front of this heap's free slots
+        if (heap2.free_slots != NONE) {
+            int last_free = heap2.free_slots + offset;
+            while (this.next[last_free] != NONE) {
+                last_free = this.next[last_free];
+            }
+            this.next[last_free] = this.free_slots;
+            this.free_slots = heap2.free_slots + offset;
+        }
+
+        if (!heap2.isEmpty()) {
+            int heap2_first = heap2.first + offset;
+            int heap2_min = heap2.min_node + offset;
+            if (this.isEmpty()) {
+                this.first = heap2_first;
+                this.min_node = heap2_min;
+            }
+            else {
+                int last_node_in_this_heap = this.prev[this.first];
+                int last_node_in_heap2 = this.prev[heap2_first];
+                this.setNext(last_node_in_this_heap, heap2_first);
+                this.setNext(last_node_in_heap2, this.first);
+                this.findNewMin(heap2_min);
+            }
+        }
+        this.size += heap2.size;
+        this.count_roots += heap2.count_roots;
+        this.count_marked += heap2.count_marked;
+        this.count_links += heap2.count_links;
+        this.count_cuts += heap2.count_cuts;
+        heap2.clear();
+        return offset;
+    }
+
+    /**
+     * public int[] countersRep()
+     *
+     * Return an array of counters. The i-th entry contains the number of trees of order i in the heap.
+     *
+     * Complexity: O(#roots)
+     */
+    public int[] countersRep() {
+        if (this.isEmpty()) {
+            return new int[0];
+        }
+        int max_rank = 0;
+        int node = this.first;
+        for (int i = 0; i < this.count_roots; i++) {
+            max_rank = Math.max(max_rank, this.rank[node]);
+            node = this.next[node];
+        }
+        int[] countersRep = new int[max_rank + 1];
+        node = this.first;
+        for (int i = 0; i < this.count_roots; i++) {
+            countersRep[this.rank[node]]++;
+            node = this.next[node];
+        }
+        return countersRep;
+    }
+
+    /**
+     * public int nonMarked()
+     *
+     * This function returns the current number of non-marked items in the heap
+     *
+     * Complexity: O(1)
+     */
+    public int nonMarked() {
+        return this.size - this.count_marked;
+    }
+
+    /**
+     * public int potential()
+     *
+     * This function returns the current potential of the heap: #trees + 2*#marked
+     *
+     * Complexity: O(1)
+     */
+    public int potential() {
+        return this.count_roots + 2 * this.count_marked;
+    }
+
+    /**
+     * public long links()
+     *
+     * Returns the number of link operations made by this heap.
+     */
+    public long links() {
+        return this.count_links;
+    }
+
+    /**
+     * public long cuts()
+     *
+     * Returns the number of cut operations made by this heap.
+     */
+    public long cuts() {
+        return this.count_cuts;
+    }
+
+    /**
+     * private int successiveLinking()
+     *
+     * goes throw all heap roots and links every two trees that have the same rank, then rebuilds the roots list
+     * from the buckets.
+     *
+     * returns the new min_node of the heap after all the links.
+     *
+     * time complexity: WC O(n), amortized O(log n)
+     */
+    private int successiveLinking() {
+        if (this.first == NONE) {
+            return NONE;
+        }
+        // the rank of a Fibonacci Heap tree is at most log_phi(n) < 1.5 * log2(n) + 1
+        int max_rank = (32 - Integer.numberOfLeadingZeros(this.size)) * 3 / 2 + 2;
+        if (this.buckets.length < max_rank) {
+            this.buckets = new int[max_rank];
+            Arrays.fill(this.buckets, NONE);
+        }
+        int[] buckets = this.buckets;
+        int count_roots_copy = this.count_roots;
+        int node = this.first;
+        int tmp = this.next[node];
+        while (count_roots_copy > 0) {
+            int node_rank = this.rank[node];
+            if (buckets[node_rank] == NONE) {
+                buckets[node_rank] = node;
+                node = tmp;
+                tmp = this.next[tmp];
+                count_roots_copy--;
+            }
+            else {
+                node = this.link(node, buckets[node_rank]);
+                buckets[node_rank] = NONE;
+            }
+        }
+
+        // rebuild the roots list from the buckets, leaving the buckets empty for the next call
+        this.first = NONE;
+        this.count_roots = 0;
+        int min = NONE;
+        int last_added_tree = NONE;
+        for (int i = 0; i < buckets.length; i++) {
+            int tree = buckets[i];
+            if (tree == NONE) {
+                continue;
+            }
+            buckets[i] = NONE;
+            this.count_roots += 1;
+            if (this.first == NONE) {
+                this.first = tree;
+                min = tree;
+            }
+            else {
+                this.setNext(last_added_tree, tree);
+                if (this.key[tree] < this.key[min]) {
+                    min = tree;
+                }
+            }
+            last_added_tree = tree;
+        }
+        this.setNext(last_added_tree, this.first);
+        return min;
+    }
+
+    /**
+     * private int link(int node1, int node2)
+     *
+     * given two trees of the same rank k, this function links them to a one tree of rank k + 1.
+     *
+     * returns the root of the new linked tree
+     *
+     * time complexity: O(1)
+     */
+    private int link(int node1, int node2) {
+        int root;
+        int left_child;
+        if (this.key[node1] < this.key[node2]) {
+            root = node1;
+            left_child = node2;
+        }
+        else {
+            root = node2;
+            left_child = node1;
+        }
+        int root_child = this.child[root];
+        if (root_child != NONE) {
+            this.setNext(this.prev[root_child], left_child);
+            this.setNext(left_child, root_child);
+        }
+        else {
+            this.setNext(left_child, left_child);
+        }
+        this.child[root] = left_child;
+        this.parent[left_child] = root;
+        this.rank[root] += 1;
+        this.count_links++;
+        return root;
+    }
+
+    /**
+     * private void cascadingCut(int x, int x_parent)
+     *
+     * cuts x from its parent, then keeps cutting every marked ancestor until an unmarked one (which gets marked)
+     * or a root is reached.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    private void cascadingCut(int x, int x_parent) {
+        while (true) {
+            this.cut(x, x_parent);
+            int grandfather = this.parent[x_parent];
+            if (grandfather == NONE) {
+                return;
+            }
+            if (!this.marked[x_parent]) {
+                this.setMarked(x_parent, true);
+                return;
+            }
+            x = x_parent;
+            x_parent = grandfather;
+        }
+    }
+
+    /**
+     * private void cut(int x, int y)
+     *
+     * cuts a node from its parent and adds the node to the root's list of the heap.
+     *
+     * Complexity: O(1)
+     */
+    private void cut(int x, int y) {
+        this.parent[x] = NONE;
+        this.setMarked(x, false);
+        this.rank[y] -= 1;
+        if (this.next[x] == x) {
+            this.child[y] = NONE;
+        }
+        else {
+            if (this.child[y] == x) {
+                this.child[y] = this.next[x];
+            }
+            this.setNext(this.prev[x], this.next[x]);
+        }
+        this.setNext(this.prev[this.first], x);
+        this.setNext(x, this.first);
+        this.first = x;
+        this.findNewMin(x);
+        this.count_roots++;
+        this.count_cuts++;
+    }
+
+    private void findNewMin(int node) {
+        if (this.key[node] < this.key[this.min_node]) {
+            this.min_node = node;
+        }
+    }
+
+    private void setMarked(int node, boolean value) {
+        if (this.marked[node] != value) {
+            this.count_marked += value ? 1 : -1;
+            this.marked[node] = value;
+        }
+    }
+
+    private void setNext(int node, int node_next) {
+        this.next[node] = node_next;
+        this.prev[node_next] = node;
+    }
+
+    /**
+     * private int allocate()
+     *
+     * returns a free slot for a new node, reusing slots of removed nodes before growing the arrays.
+     */
+    private int allocate() {
+        int node = this.free_slots;
+        if (node != NONE) {
+            this.free_slots = this.next[node];
+            return node;
+        }
+        this.ensureCapacity(this.slots_used + 1);
+        return this.slots_used++;
+    }
+
+    /**
+     * private void release(int node)
+     *
+     * returns the slot of a removed node to the free slots list, which is chained through the next array.
+     */
+    private void release(int node) {
+        this.parent[node] = NONE;
+        this.child[node] = NONE;
+        this.prev[node] = NONE;
+        this.next[node] = this.free_slots;
+        this.free_slots = node;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int old_capacity = this.key.length;
+        if (capacity <= old_capacity) {
+            return;
+        }
+        int new_capacity = Math.max(capacity, old_capacity + (old_capacity >> 1));
+        this.key = Arrays.copyOf(this.key, new_capacity);
+        this.rank = Arrays.copyOf(this.rank, new_capacity);
+        this.marked = Arrays.copyOf(this.marked, new_capacity);
+        this.parent = Arrays.copyOf(this.parent, new_capacity);
+        this.child = Arrays.copyOf(this.child, new_capacity);
+        this.next = Arrays.copyOf(this.next, new_capacity);
+        this.prev = Arrays.copyOf(this.prev, new_capacity);
+    }
+
+    private void clear() {
+        this.min_node = NONE;
+        this.first = NONE;
+        this.size = 0;
+        this.count_roots = 0;
+        this.count_marked = 0;
+        this.slots_used = 0;
+        this.free_slots = NONE;
+    }
+
+    private static void shiftHandles(int[] source, int[] target, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            int handle = source[i];
+            target[offset + i] = handle == NONE ? NONE : handle + offset;
+        }
+    }
+}
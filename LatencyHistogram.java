@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * LatencyHistogram
+ *
+ * A histogram of latencies in nanoseconds with log-linear buckets: every value below LINEAR_LIMIT has a bucket of
+ * its own, and every power of two above it is split into SUB_BUCKETS buckets, so a percentile is reported with an
+ * error of at most 1/SUB_BUCKETS of its value. The counts are a fixed long[] allocated once, recording a value is a
+ * few shifts and an increment and allocates nothing.
+ *
+ * Like the heaps it measures, a LatencyHistogram is not thread safe.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    // the linear buckets, then SUB_BUCKETS buckets for every exponent from log2(LINEAR_LIMIT) to 62
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    /**
+     * public void record(long nanos)
+     *
+     * Adds a latency to the histogram, negative latencies are counted as 0.
+     *
+     * Complexity: O(1)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucket(value)]++;
+        this.count++;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * public long getMax()
+     *
+     * Returns the largest recorded latency, exactly, or 0 if the histogram is empty.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * public long getPercentile(double percentile)
+     *
+     * Returns the latency below or at which the given percentile, in [0, 100], of the recorded latencies fall: the
+     * upper bound of the bucket that holds the nearest rank, capped at getMax(). Returns 0 if the histogram is
+     * empty.
+     *
+     * Complexity: O(#buckets)
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * public void add(LatencyHistogram other)
+     *
+     * Adds the latencies recorded by other to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.max = Math.max(this.max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.max = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d, p50=%dns, p99=%dns, p99.9=%dns, max=%dns", this.count,
+                this.getPercentile(50), this.getPercentile(99), this.getPercentile(99.9), this.max);
+    }
+
+    private static int bucket(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub_bucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub_bucket;
+    }
+
+    // the largest value that falls into the bucket
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long sub_bucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub_bucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
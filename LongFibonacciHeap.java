@@ -0,0 +1,78 @@
+/**
+ * LongFibonacciHeap
+ *
+ * A Fibonacci Heap with long keys that carries a value of type V inline on every node.
+ *
+ * @param <V> the type of the values
+ */
+public class LongFibonacciHeap<V> extends AbstractFibonacciHeap<LongFibonacciHeap.HeapNode<V>>
+{
+    @Override
+    protected boolean less(HeapNode<V> node1, HeapNode<V> node2) {
+        return node1.key < node2.key;
+    }
+
+    /**
+     * public HeapNode<V> insert(long key, V value)
+     *
+     * Creates a node which contains the given key and value, and inserts it into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(1)
+     */
+    public HeapNode<V> insert(long key, V value) {
+        return this.insertNode(new HeapNode<>(key, value));
+    }
+
+    /**
+     * public void decreaseKey(HeapNode<V> x, long delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta.
+     *
+     * time complexity: WC O(n), amortized O(1)
+     */
+    public void decreaseKey(HeapNode<V> x, long delta) {
+        x.key -= delta;
+        this.keyDecreased(x);
+    }
+
+    /**
+     * public void meld(LongFibonacciHeap<V> heap2)
+     *
+     * Melds heap2 with the current heap.
+     *
+     * Complexity: O(1)
+     */
+    public void meld(LongFibonacciHeap<V> heap2) {
+        this.meldWith(heap2);
+    }
+
+    /**
+     * public static class HeapNode
+     *
+     * A node of a LongFibonacciHeap, holding a long key and a value.
+     */
+    public static class HeapNode<V> extends AbstractFibonacciHeap.Node<HeapNode<V>> {
+
+        private long key;
+        private V value;
+
+        public HeapNode(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public long getKey() {
+            return this.key;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        public void setValue(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MultiQueueBenchmark
+ *
+ * Measures FibonacciMultiQueue against java.util.concurrent.PriorityBlockingQueue:
+ * - rank error: how far from the true minimum the keys deleted by FibonacciMultiQueue.deleteMin are.
+ * - throughput: an even mix of insert and deleteMin on a prefilled queue, run by a growing number of threads.
+ *
+ * usage: java MultiQueueBenchmark [--threads 1,2,4,8] [--prefill 1000000] [--ops 1000000] [--c 2]
+ */
+public class MultiQueueBenchmark
+{
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] threads = {1, 2, 4, 8, 16, 32};
+        int prefill = 1000000;
+        int ops = 1000000;
+        int c = 2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--threads":
+                    String[] parts = value.split(",");
+                    threads = new int[parts.length];
+                    for (int j = 0; j < parts.length; j++) {
+                        threads[j] = Integer.parseInt(parts[j]);
+                    }
+                    break;
+                case "--prefill":
+                    prefill = (int) Double.parseDouble(value);
+                    break;
+                case "--ops":
+                    ops = (int) Double.parseDouble(value);
+                    break;
+                case "--c":
+                    c = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        System.out.printf("%-8s %10s %12s %12s%n", "threads", "shards", "mean rank", "max rank");
+        for (int thread_count : threads) {
+            FibonacciMultiQueue queue = new FibonacciMultiQueue(c, thread_count);
+            long[] rank_error = rankError(queue, Math.min(prefill, 100000), 10000);
+            System.out.printf(Locale.ROOT, "%-8d %10d %12.2f %12d%n",
+                    thread_count, queue.shardsNum(), rank_error[0] / 10000.0, rank_error[1]);
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %-24s %14s%n", "threads", "queue", "ops/s");
+        for (int thread_count : threads) {
+            for (int repetition = 0; repetition < 2; repetition++) {
+                // the first repetition warms up both queues
+                double multi_queue = throughput(new MultiQueueAdapter(new FibonacciMultiQueue(c, thread_count)),
+                        thread_count, prefill, ops);
+                double blocking_queue = throughput(new BlockingQueueAdapter(), thread_count, prefill, ops);
+                if (repetition == 1) {
+                    System.out.printf(Locale.ROOT, "%-8d %-24s %14.0f%n", thread_count, "FibonacciMultiQueue",
+                            multi_queue);
+                    System.out.printf(Locale.ROOT, "%-8d %-24s %14.0f%n", thread_count, "PriorityBlockingQueue",
+                            blocking_queue);
+                }
+            }
+        }
+    }
+
+    /**
+     * private static long[] rankError(FibonacciMultiQueue queue, int size, int extractions)
+     *
+     * fills the queue with a permutation of 0..size-1 and performs the extractions, recording for every deleted
+     * key how many smaller keys were still in the queue. a Fenwick tree over the keys counts the present keys.
+     *
+     * returns {sum of the rank errors, max rank error}.
+     */
+    private static long[] rankError(FibonacciMultiQueue queue, int size, int extractions) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        Random random = new Random(1);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        int[] fenwick = new int[size + 1];
+        for (int key : keys) {
+            queue.insert(key);
+            fenwickAdd(fenwick, key, 1);
+        }
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < extractions && i < size; i++) {
+            int key = (int) queue.deleteMin();
+            long rank = fenwickPrefix(fenwick, key);
+            fenwickAdd(fenwick, key, -1);
+            sum += rank;
+            max = Math.max(max, rank);
+        }
+        return new long[] {sum, max};
+    }
+
+    private static void fenwickAdd(int[] fenwick, int key, int value) {
+        for (int i = key + 1; i < fenwick.length; i += i & -i) {
+            fenwick[i] += value;
+        }
+    }
+
+    // the number of present keys smaller than key
+    private static long fenwickPrefix(int[] fenwick, int key) {
+        long count = 0;
+        for (int i = key; i > 0; i -= i & -i) {
+            count += fenwick[i];
+        }
+        return count;
+    }
+
+    private static double throughput(Adapter queue, int thread_count, int prefill, int ops)
+            throws InterruptedException {
+        Random random = new Random(2);
+        for (int i = 0; i < prefill; i++) {
+            queue.insert(random.nextInt(Integer.MAX_VALUE));
+        }
+        int ops_per_thread = ops / thread_count;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(thread_count);
+        for (int t = 0; t < thread_count; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom thread_random = ThreadLocalRandom.current();
+                long checksum = 0;
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ops_per_thread; i++) {
+                    if ((i & 1) == 0) {
+                        queue.insert(thread_random.nextInt(Integer.MAX_VALUE));
+                    }
+                    else {
+                        checksum += queue.deleteMin();
+                    }
+                }
+                sink += checksum;
+                done.countDown();
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long nanos = System.nanoTime() - begin;
+        return (double) ops_per_thread * thread_count / (nanos / 1e9);
+    }
+
+    private interface Adapter {
+        void insert(int key);
+
+        long deleteMin();
+    }
+
+    private static final class MultiQueueAdapter implements Adapter {
+        private final FibonacciMultiQueue queue;
+
+        private MultiQueueAdapter(FibonacciMultiQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void insert(int key) {
+            this.queue.insert(key);
+        }
+
+        @Override
+        public long deleteMin() {
+            return this.queue.deleteMin();
+        }
+    }
+
+    private static final class BlockingQueueAdapter implements Adapter {
+        private final PriorityBlockingQueue<Integer> queue = new PriorityBlockingQueue<>();
+
+        @Override
+        public void insert(int key) {
+            this.queue.add(key);
+        }
+
+        @Override
+        public long deleteMin() {
+            Integer key = this.queue.poll();
+            return key == null ? FibonacciMultiQueue.EMPTY : key;
+        }
+    }
+}
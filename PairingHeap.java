@@ -0,0 +1,252 @@
+import java.util.Arrays;
+
+/**
+ * PairingHeap
+ *
+ * A pairing heap over integers. Every node keeps its leftmost child and its siblings in a doubly linked list, the
+ * prev of a leftmost child being its parent. insert, meld and decreaseKey link a tree with the root in O(1), and
+ * deleteMin pairs the children of the root in two passes.
+ *
+ * Its amortized bounds are weaker than a Fibonacci heap's, but it does far less work per operation and usually wins
+ * on constant factors.
+ */
+public class PairingHeap implements AddressablePriorityQueue<PairingHeap.Node>
+{
+    private Node root;
+    private int size;
+    // the scratch list of the first pass of deleteMin, kept between calls
+    private Node[] pairs = new Node[16];
+
+    /**
+     * public Node insert(int key)
+     *
+     * Inserts the key into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public Node insert(int key) {
+        Node node = new Node(key);
+        this.root = this.root == null ? node : link(this.root, node);
+        this.size++;
+        return node;
+    }
+
+    /**
+     * public Node findMin()
+     *
+     * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public Node findMin() {
+        return this.root;
+    }
+
+    /**
+     * public void deleteMin()
+     *
+     * Deletes the node containing the minimum key.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    @Override
+    public void deleteMin() {
+        if (this.root == null) {
+            return;
+        }
+        Node min = this.root;
+        this.root = this.mergePairs(min.child);
+        min.child = null;
+        this.size--;
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta, cutting the subtree of x and linking it with
+     * the root.
+     *
+     * time complexity: amortized O(log n), O(1) in practice
+     */
+    @Override
+    public void decreaseKey(Node x, int delta) {
+        x.key -= delta;
+        if (x == this.root) {
+            return;
+        }
+        cut(x);
+        this.root = link(this.root, x);
+    }
+
+    /**
+     * public void delete(Node x)
+     *
+     * Deletes the node x from the heap. It is assumed that x indeed belongs to the heap.
+     *
+     * time complexity: WC - O(n), amortized - O(log n)
+     */
+    @Override
+    public void delete(Node x) {
+        if (x == this.root) {
+            this.deleteMin();
+            return;
+        }
+        cut(x);
+        Node subtree = this.mergePairs(x.child);
+        x.child = null;
+        if (subtree != null) {
+            this.root = link(this.root, subtree);
+        }
+        this.size--;
+    }
+
+    /**
+     * public void meld(AddressablePriorityQueue<Node> heap2)
+     *
+     * Melds heap2, which must be a PairingHeap, with the current heap.
+     *
+     * Complexity: O(1)
+     */
+    @Override
+    public void meld(AddressablePriorityQueue<Node> heap2) {
+        if (!(heap2 instanceof PairingHeap)) {
+            throw new IllegalArgumentException("can't meld a " + heap2.getClass().getSimpleName()
+                    + " into a PairingHeap");
+        }
+        PairingHeap other = (PairingHeap) heap2;
+        if (other.root != null) {
+            this.root = this.root == null ? other.root : link(this.root, other.root);
+            this.size += other.size;
+        }
+        other.root = null;
+        other.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * private Node mergePairs(Node first)
+     *
+     * links the siblings starting at first in pairs from left to right, then links the resulting trees from right
+     * to left into a single tree.
+     *
+     * returns the root of that tree, or null if first is null.
+     *
+     * time complexity: O(#siblings)
+     */
+    private Node mergePairs(Node first) {
+        int count = 0;
+        Node node = first;
+        while (node != null) {
+            Node second = node.next;
+            Node rest = second == null ? null : second.next;
+            node.prev = null;
+            node.next = null;
+            if (second != null) {
+                second.prev = null;
+                second.next = null;
+                node = link(node, second);
+            }
+            if (count == this.pairs.length) {
+                this.pairs = Arrays.copyOf(this.pairs, 2 * count);
+            }
+            this.pairs[count++] = node;
+            node = rest;
+        }
+        if (count == 0) {
+            return null;
+        }
+        Node tree = this.pairs[--count];
+        this.pairs[count] = null;
+        while (count > 0) {
+            tree = link(this.pairs[--count], tree);
+            this.pairs[count] = null;
+        }
+        return tree;
+    }
+
+    /**
+     * private static Node link(Node node1, Node node2)
+     *
+     * given two roots, makes the one with the larger key the leftmost child of the other.
+     *
+     * returns the root of the linked tree
+     *
+     * time complexity: O(1)
+     */
+    private static Node link(Node node1, Node node2) {
+        Node root;
+        Node child;
+        if (node2.key < node1.key) {
+            root = node2;
+            child = node1;
+        }
+        else {
+            root = node1;
+            child = node2;
+        }
+        child.next = root.child;
+        if (root.child != null) {
+            root.child.prev = child;
+        }
+        child.prev = root;
+        root.child = child;
+        return root;
+    }
+
+    /**
+     * private static void cut(Node x)
+     *
+     * detaches the subtree of the non root node x from its parent and siblings.
+     *
+     * Complexity: O(1)
+     */
+    private static void cut(Node x) {
+        if (x.prev.child == x) {
+            x.prev.child = x.next;
+        }
+        else {
+            x.prev.next = x.next;
+        }
+        if (x.next != null) {
+            x.next.prev = x.prev;
+        }
+        x.prev = null;
+        x.next = null;
+    }
+
+    /**
+     * public static class Node
+     *
+     * A node of a PairingHeap, the handle of its entry.
+     */
+    public static class Node implements AddressablePriorityQueue.Handle {
+
+        private int key;
+        private Node child;
+        private Node next;
+        // the left sibling, or the parent of a leftmost child
+        private Node prev;
+
+        private Node(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public int getKey() {
+            return this.key;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * PriorityQueueFactory
+ *
+ * Creates the AddressablePriorityQueue engine of a service from an engine name or a hint about its workload, so a
+ * service can switch engines through its configuration once throughput has been measured.
+ *
+ * The handle type of the created queue is inferred from the caller, code that works with any engine should declare
+ * the queue as AddressablePriorityQueue<AddressablePriorityQueue.Handle> and only pass back handles the same queue
+ * returned.
+ */
+public final class PriorityQueueFactory
+{
+    /**
+     * public enum Engine
+     *
+     * the available implementations.
+     */
+    public enum Engine {
+        FIBONACCI, PAIRING, DARY, RADIX
+    }
+
+    /**
+     * public enum Hint
+     *
+     * what dominates the workload of a queue.
+     * - DECREASE_KEY_HEAVY: many decreaseKeys per deleteMin, as in Dijkstra or Prim on dense graphs.
+     * - MELD_HEAVY: queues are often melded.
+     * - EXTRACT_HEAVY: mostly inserts and deleteMins with few or no decreaseKeys.
+     * - MONOTONE: no key is ever inserted or decreased below the last deleted key.
+     * - GENERAL: a mix of everything.
+     */
+    public enum Hint {
+        DECREASE_KEY_HEAVY, MELD_HEAVY, EXTRACT_HEAVY, MONOTONE, GENERAL
+    }
+
+    private PriorityQueueFactory() {
+    }
+
+    /**
+     * public static Engine engineFor(Hint hint)
+     *
+     * Returns the engine that suits the hinted workload: a Fibonacci heap when decreaseKey dominates, a pairing heap
+     * for melds and mixed workloads, a 4-ary heap when there are few decreaseKeys and a radix heap for monotone keys.
+     */
+    public static Engine engineFor(Hint hint) {
+        switch (hint) {
+            case DECREASE_KEY_HEAVY:
+                return Engine.FIBONACCI;
+            case EXTRACT_HEAVY:
+                return Engine.DARY;
+            case MONOTONE:
+                return Engine.RADIX;
+            default:
+                return Engine.PAIRING;
+        }
+    }
+
+    /**
+     * public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(Engine engine)
+     *
+     * Returns a new empty queue of the given engine.
+     */
+    @SuppressWarnings("unchecked")
+    public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(Engine engine) {
+        AddressablePriorityQueue<?> queue;
+        switch (engine) {
+            case FIBONACCI:
+                queue = new FibonacciHeap();
+                break;
+            case PAIRING:
+                queue = new PairingHeap();
+                break;
+            case DARY:
+                queue = new DaryHeap();
+                break;
+            case RADIX:
+                queue = new RadixHeap();
+                break;
+            default:
+                throw new IllegalArgumentException(engine.toString());
+        }
+        // every engine only accepts its own handles, which are the only ones a caller can get from it
+        return (AddressablePriorityQueue<H>) queue;
+    }
+
+    /**
+     * public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(Hint hint)
+     *
+     * Returns a new empty queue of the engine that suits the hinted workload.
+     */
+    public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(Hint hint) {
+        return create(engineFor(hint));
+    }
+
+    /**
+     * public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(String name)
+     *
+     * Returns a new empty queue from a configuration value, which is either an engine or a hint name such as
+     * "pairing", "dary", "decrease-key-heavy" or "MONOTONE".
+     *
+     * throws IllegalArgumentException if the name is neither an engine nor a hint.
+     */
+    public static <H extends AddressablePriorityQueue.Handle> AddressablePriorityQueue<H> create(String name) {
+        String normalized = name.trim().replace("-", "").replace("_", "");
+        for (Engine engine : Engine.values()) {
+            if (engine.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return create(engine);
+            }
+        }
+        for (Hint hint : Hint.values()) {
+            if (hint.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return create(hint);
+            }
+        }
+        throw new IllegalArgumentException("unknown priority queue engine or hint " + name);
+    }
+}
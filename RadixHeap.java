@@ -0,0 +1,251 @@
+/**
+ * RadixHeap
+ *
+ * A radix heap over integers, for monotone workloads such as Dijkstra's algorithm: every inserted or decreased key
+ * must be at least the last key deleted by deleteMin. The nodes are kept in 33 buckets by the highest bit in which
+ * their key differs from that last key, bucket 0 holding the keys equal to it. A deleteMin that finds bucket 0
+ * empty takes the minimum of the first non-empty bucket as the new last key and redistributes that bucket to
+ * lower ones, so every node moves down at most 32 times over its life.
+ */
+public class RadixHeap implements AddressablePriorityQueue<RadixHeap.Node>
+{
+    private static final int BUCKETS = 33;
+
+    // the first node of every bucket, the nodes of a bucket form a doubly linked list
+    private final Node[] buckets = new Node[BUCKETS];
+    private int last = Integer.MIN_VALUE;
+    private int size;
+    // the minimum node, or null if it has to be searched for again
+    private Node min_node;
+
+    /**
+     * public int lastDeleted()
+     *
+     * returns the last key deleted by deleteMin, the lower bound of the keys that can be inserted, or
+     * Integer.MIN_VALUE if nothing was deleted yet
+     */
+    public int lastDeleted() {
+        return this.last;
+    }
+
+    /**
+     * public Node insert(int key)
+     *
+     * Inserts the key into the heap.
+     *
+     * Returns the newly created node.
+     *
+     * throws IllegalArgumentException if key is smaller than lastDeleted().
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public Node insert(int key) {
+        this.checkMonotone(key);
+        Node node = new Node(key);
+        this.add(node);
+        this.size++;
+        if (this.min_node != null && key < this.min_node.key) {
+            this.min_node = node;
+        }
+        return node;
+    }
+
+    /**
+     * public Node findMin()
+     *
+     * Returns the node of the heap whose key is minimal, or null if the heap is empty.
+     *
+     * time complexity: O(1) if the minimum is known, O(size of the first non-empty bucket) otherwise
+     */
+    @Override
+    public Node findMin() {
+        if (this.min_node == null && this.size != 0) {
+            Node node = this.buckets[this.firstBucket()];
+            Node min = node;
+            for (; node != null; node = node.next) {
+                if (node.key < min.key) {
+                    min = node;
+                }
+            }
+            this.min_node = min;
+        }
+        return this.min_node;
+    }
+
+    /**
+     * public void deleteMin()
+     *
+     * Deletes the node containing the minimum key, making its key the new lastDeleted().
+     *
+     * time complexity: amortized O(log C), C being the range of the keys
+     */
+    @Override
+    public void deleteMin() {
+        if (this.size == 0) {
+            return;
+        }
+        Node min = this.findMin();
+        int bucket = min.bucket;
+        this.last = min.key;
+        if (bucket != 0) {
+            // every node of the bucket lands in a lower bucket relative to the new last key
+            Node node = this.buckets[bucket];
+            this.buckets[bucket] = null;
+            while (node != null) {
+                Node next = node.next;
+                this.add(node);
+                node = next;
+            }
+        }
+        this.remove(min);
+        this.size--;
+        this.min_node = this.buckets[0];
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     *
+     * Decreases the key of the node x by a non-negative value delta.
+     *
+     * throws IllegalArgumentException if the new key is smaller than lastDeleted().
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public void decreaseKey(Node x, int delta) {
+        int key = x.key - delta;
+        this.checkMonotone(key);
+        this.remove(x);
+        x.key = key;
+        this.add(x);
+        if (this.min_node != null && key < this.min_node.key) {
+            this.min_node = x;
+        }
+    }
+
+    /**
+     * public void delete(Node x)
+     *
+     * Deletes the node x from the heap. It is assumed that x indeed belongs to the heap.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public void delete(Node x) {
+        this.remove(x);
+        this.size--;
+        if (x == this.min_node) {
+            this.min_node = null;
+        }
+    }
+
+    /**
+     * public void meld(AddressablePriorityQueue<Node> heap2)
+     *
+     * Melds heap2, which must be a RadixHeap whose keys are all at least lastDeleted(), with the current heap.
+     *
+     * throws IllegalArgumentException if heap2 isn't a RadixHeap or holds a key smaller than lastDeleted().
+     *
+     * Complexity: O(m)
+     */
+    @Override
+    public void meld(AddressablePriorityQueue<Node> heap2) {
+        if (!(heap2 instanceof RadixHeap)) {
+            throw new IllegalArgumentException("can't meld a " + heap2.getClass().getSimpleName()
+                    + " into a RadixHeap");
+        }
+        RadixHeap other = (RadixHeap) heap2;
+        if (other.size == 0) {
+            return;
+        }
+        this.checkMonotone(other.findMin().key);
+        for (int i = 0; i < BUCKETS; i++) {
+            Node node = other.buckets[i];
+            other.buckets[i] = null;
+            while (node != null) {
+                Node next = node.next;
+                this.add(node);
+                node = next;
+            }
+        }
+        this.size += other.size;
+        if (this.min_node != null && other.min_node.key < this.min_node.key) {
+            this.min_node = other.min_node;
+        }
+        other.size = 0;
+        other.min_node = null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private void checkMonotone(int key) {
+        if (key < this.last) {
+            throw new IllegalArgumentException("key " + key + " is smaller than the last deleted key " + this.last);
+        }
+    }
+
+    private int firstBucket() {
+        int i = 0;
+        while (this.buckets[i] == null) {
+            i++;
+        }
+        return i;
+    }
+
+    // adds node to the front of its bucket, the highest bit in which its key differs from last
+    private void add(Node node) {
+        int bucket = 32 - Integer.numberOfLeadingZeros(node.key ^ this.last);
+        node.bucket = bucket;
+        node.prev = null;
+        node.next = this.buckets[bucket];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        this.buckets[bucket] = node;
+    }
+
+    private void remove(Node node) {
+        if (node.prev == null) {
+            this.buckets[node.bucket] = node.next;
+        }
+        else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * public static class Node
+     *
+     * An entry of a RadixHeap: its key and its place in the bucket lists.
+     */
+    public static class Node implements AddressablePriorityQueue.Handle {
+
+        private int key;
+        private int bucket;
+        private Node prev;
+        private Node next;
+
+        private Node(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public int getKey() {
+            return this.key;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * RecordingFibonacciHeap
+ *
+ * An opt-in decorator of a FibonacciHeap that logs every operation into a HeapTraceWriter, so a workload seen in
+ * production can be replayed offline by HeapTraceReplayer against any heap implementation. Every node the heap
+ * creates carries a sequence id, the position of its insert in the trace, which stands for the node in the
+ * records of later operations on it.
+ *
+ * Recording adds a synchronized append to an in-memory buffer per operation; the file is written by the background
+ * thread of the writer. The wrapped heap can be inspected through heap(), but must only be changed through the
+ * decorator or the trace won't replay.
+ */
+public class RecordingFibonacciHeap implements AddressablePriorityQueue<FibonacciHeap.HeapNode>
+{
+    private final FibonacciHeap heap;
+    private final HeapTraceWriter trace;
+    private final int heap_id;
+
+    /**
+     * public RecordingFibonacciHeap(HeapTraceWriter trace)
+     *
+     * Creates an empty recording heap whose operations are logged into trace. Heaps that are melded together must
+     * record into the same trace.
+     */
+    public RecordingFibonacciHeap(HeapTraceWriter trace) {
+        this.heap = new FibonacciHeap();
+        this.trace = trace;
+        this.heap_id = trace.newHeap();
+    }
+
+    /**
+     * public FibonacciHeap heap()
+     *
+     * Returns the wrapped heap, to read its metrics or potential.
+     */
+    public FibonacciHeap heap() {
+        return this.heap;
+    }
+
+    /**
+     * public HeapNode insert(int key)
+     *
+     * Inserts the key into the heap and records the insert.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public FibonacciHeap.HeapNode insert(int key) {
+        long sequence_id = this.trace.insert(this.heap_id, key);
+        return this.heap.insertNode(new RecordedNode(key, sequence_id));
+    }
+
+    @Override
+    public FibonacciHeap.HeapNode findMin() {
+        return this.heap.findMin();
+    }
+
+    /**
+     * public void deleteMin()
+     *
+     * Records the deleteMin, then deletes the minimum of the heap.
+     *
+     * time complexity: amortized O(log n)
+     */
+    @Override
+    public void deleteMin() {
+        this.trace.deleteMin(this.heap_id);
+        this.heap.deleteMin();
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta)
+     *
+     * Records the decreaseKey, then decreases the key of x by delta.
+     *
+     * throws IllegalArgumentException if x wasn't created by a recording heap.
+     *
+     * time complexity: amortized O(1)
+     */
+    @Override
+    public void decreaseKey(FibonacciHeap.HeapNode x, int delta) {
+        this.trace.decreaseKey(sequenceId(x), delta);
+        this.heap.decreaseKey(x, delta);
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     *
+     * Records the delete, then deletes x from the heap.
+     *
+     * throws IllegalArgumentException if x wasn't created by a recording heap.
+     *
+     * time complexity: amortized O(log n)
+     */
+    @Override
+    public void delete(FibonacciHeap.HeapNode x) {
+        this.trace.delete(sequenceId(x));
+        this.heap.delete(x);
+    }
+
+    /**
+     * public void meld(AddressablePriorityQueue<HeapNode> heap2)
+     *
+     * Records the meld, then melds heap2, which must be a RecordingFibonacciHeap of the same trace, into this heap.
+     *
+     * time complexity: O(1)
+     */
+    @Override
+    public void meld(AddressablePriorityQueue<FibonacciHeap.HeapNode> heap2) {
+        if (!(heap2 instanceof RecordingFibonacciHeap) || ((RecordingFibonacciHeap) heap2).trace != this.trace) {
+            throw new IllegalArgumentException("can only meld a RecordingFibonacciHeap of the same trace");
+        }
+        RecordingFibonacciHeap other = (RecordingFibonacciHeap) heap2;
+        this.trace.meld(this.heap_id, other.heap_id);
+        this.heap.meld(other.heap);
+    }
+
+    @Override
+    public int size() {
+        return this.heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.heap.isEmpty();
+    }
+
+    private static long sequenceId(FibonacciHeap.HeapNode x) {
+        if (!(x instanceof RecordedNode)) {
+            throw new IllegalArgumentException("the node wasn't inserted by a RecordingFibonacciHeap");
+        }
+        return ((RecordedNode) x).sequence_id;
+    }
+
+    /**
+     * private static class RecordedNode
+     *
+     * a node that remembers the position of its insert in the trace.
+     */
+    private static class RecordedNode extends FibonacciHeap.HeapNode {
+
+        private final long sequence_id;
+
+        private RecordedNode(int key, long sequence_id) {
+            super(key);
+            this.sequence_id = sequence_id;
+        }
+    }
+}
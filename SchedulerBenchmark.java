@@ -0,0 +1,190 @@
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SchedulerBenchmark
+ *
+ * Measures FibonacciScheduler against java.util.concurrent.ScheduledThreadPoolExecutor (with its remove on cancel
+ * policy, so cancelled tasks leave its queue) on a timeout workload: every thread schedules tasks with random
+ * delays, and cancels a given fraction of them a fixed number of schedules later, keeping a window of live
+ * timeouts like requests that complete before their timeout fires.
+ *
+ * For every scheduler the benchmark reports the throughput of the schedule and cancel calls, and after the
+ * longest delay passed, how many of the tasks that were not cancelled ran.
+ *
+ * usage: java SchedulerBenchmark [--timeouts 1000000] [--threads 1,4] [--cancel 0.9] [--lag 1000]
+ *                                [--max-delay-ms 1000]
+ */
+public class SchedulerBenchmark
+{
+    public static void main(String[] args) throws InterruptedException {
+        int timeouts = 1000000;
+        int[] threads = {1, 4};
+        double cancel_rate = 0.9;
+        int lag = 1000;
+        long max_delay_ms = 1000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--timeouts":
+                    timeouts = (int) Double.parseDouble(value);
+                    break;
+                case "--threads":
+                    String[] parts = value.split(",");
+                    threads = new int[parts.length];
+                    for (int j = 0; j < parts.length; j++) {
+                        threads[j] = Integer.parseInt(parts[j]);
+                    }
+                    break;
+                case "--cancel":
+                    cancel_rate = Double.parseDouble(value);
+                    break;
+                case "--lag":
+                    lag = Integer.parseInt(value);
+                    break;
+                case "--max-delay-ms":
+                    max_delay_ms = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        System.out.printf("%-8s %-28s %14s %12s %12s%n", "threads", "scheduler", "ops/s", "expected", "ran");
+        for (int thread_count : threads) {
+            for (int repetition = 0; repetition < 2; repetition++) {
+                // the first repetition warms up both schedulers
+                FibonacciScheduler fibonacci_scheduler = new FibonacciScheduler();
+                long[] fibonacci = run(new FibonacciAdapter(fibonacci_scheduler), thread_count, timeouts,
+                        cancel_rate, lag, max_delay_ms);
+                fibonacci_scheduler.close();
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+                executor.setRemoveOnCancelPolicy(true);
+                long[] pool = run(new ExecutorAdapter(executor), thread_count, timeouts, cancel_rate, lag,
+                        max_delay_ms);
+                executor.shutdownNow();
+                if (repetition == 1) {
+                    print(thread_count, "FibonacciScheduler", fibonacci);
+                    print(thread_count, "ScheduledThreadPoolExecutor", pool);
+                }
+            }
+        }
+    }
+
+    private static void print(int thread_count, String name, long[] result) {
+        System.out.printf(Locale.ROOT, "%-8d %-28s %14.0f %12d %12d%n", thread_count, name,
+                result[0] / (result[1] / 1e9), result[2], result[3]);
+    }
+
+    /**
+     * private static long[] run(Adapter scheduler, int thread_count, int timeouts, double cancel_rate, int lag,
+     *                           long max_delay_ms)
+     *
+     * runs the schedule and cancel phase on thread_count threads, then waits for the longest delay to pass.
+     *
+     * returns {schedule and cancel calls, nanoseconds of the phase, tasks that were not cancelled, tasks that ran}.
+     */
+    private static long[] run(Adapter scheduler, int thread_count, int timeouts, double cancel_rate, int lag,
+                              long max_delay_ms) throws InterruptedException {
+        int per_thread = timeouts / thread_count;
+        LongAdder ran = new LongAdder();
+        LongAdder calls = new LongAdder();
+        LongAdder expected = new LongAdder();
+        Runnable task = ran::increment;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(thread_count);
+        for (int t = 0; t < thread_count; t++) {
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed);
+                Object[] handles = new Object[lag];
+                boolean[] cancel = new boolean[lag];
+                long thread_calls = 0;
+                long thread_expected = 0;
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < per_thread + lag; i++) {
+                    // the slot of the timeout scheduled lag schedules ago
+                    int slot = i % lag;
+                    if (i >= lag) {
+                        if (cancel[slot]) {
+                            scheduler.cancel(handles[slot]);
+                            thread_calls++;
+                        }
+                        else {
+                            thread_expected++;
+                        }
+                    }
+                    if (i < per_thread) {
+                        long delay = max_delay_ms / 2 + random.nextInt((int) Math.max(1, max_delay_ms / 2));
+                        handles[slot] = scheduler.schedule(task, delay);
+                        cancel[slot] = random.nextDouble() < cancel_rate;
+                        thread_calls++;
+                    }
+                }
+                calls.add(thread_calls);
+                expected.add(thread_expected);
+                done.countDown();
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long nanos = System.nanoTime() - begin;
+        // every remaining task is due within max_delay_ms of the end of the phase
+        Thread.sleep(max_delay_ms + 200);
+        return new long[] {calls.sum(), nanos, expected.sum(), ran.sum()};
+    }
+
+    private interface Adapter {
+        Object schedule(Runnable task, long delay_ms);
+
+        void cancel(Object handle);
+    }
+
+    private static final class FibonacciAdapter implements Adapter {
+        private final FibonacciScheduler scheduler;
+
+        private FibonacciAdapter(FibonacciScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public Object schedule(Runnable task, long delay_ms) {
+            return this.scheduler.schedule(task, delay_ms, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void cancel(Object handle) {
+            ((FibonacciScheduler.Timeout) handle).cancel();
+        }
+    }
+
+    private static final class ExecutorAdapter implements Adapter {
+        private final ScheduledThreadPoolExecutor executor;
+
+        private ExecutorAdapter(ScheduledThreadPoolExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public Object schedule(Runnable task, long delay_ms) {
+            return this.executor.schedule(task, delay_ms, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void cancel(Object handle) {
+            ((ScheduledFuture<?>) handle).cancel(false);
+        }
+    }
+}
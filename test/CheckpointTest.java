@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of checkpoint and restore: the restored heap has the shape of the written one, and behaves like it.
+ */
+class CheckpointTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoreKeepsTheShapeAndTheKeys() throws IOException {
+        Random random = new Random(9);
+        for (int round = 0; round < 100; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            int range = 1 + random.nextInt(2000);
+            model.randomOps(random, random.nextInt(1500), range);
+            Path path = this.directory.resolve("heap-" + round + ".bin");
+            model.heap.checkpoint(path);
+            FibonacciHeap restored = FibonacciHeap.restore(path);
+            HeapInvariants.check(restored);
+            assertEquals(model.heap.size(), restored.size());
+            assertEquals(model.heap.getRootsNum(), restored.getRootsNum());
+            assertEquals(model.heap.getMarkedNum(), restored.getMarkedNum());
+            assertEquals(model.heap.potential(), restored.potential());
+            assertArrayEquals(model.heap.countersRep(), restored.countersRep());
+            HeapInvariants.assertSameKeys(model.expected, restored);
+            if (!restored.isEmpty()) {
+                assertEquals(model.heap.findMin().getKey(), restored.findMin().getKey());
+            }
+            // the restored heap drains in the order of the original
+            while (!restored.isEmpty()) {
+                assertEquals(model.heap.findMin().getKey(), restored.findMin().getKey());
+                model.deleteMin();
+                restored.deleteMin();
+                HeapInvariants.check(restored);
+            }
+            assertEquals(0, model.heap.size());
+        }
+    }
+
+    @Test
+    void restoredHeapAcceptsFurtherOperations() throws IOException {
+        Random random = new Random(10);
+        HeapModel model = new HeapModel(new FibonacciHeap());
+        model.randomOps(random, 2000, 1000);
+        Path path = this.directory.resolve("heap.bin");
+        model.heap.checkpoint(path);
+        FibonacciHeap restored = FibonacciHeap.restore(path);
+        // the same inserts and deleteMins on the original and the restored heap
+        for (int i = 0; i < 3000; i++) {
+            if (model.size() == 0 || random.nextInt(3) > 0) {
+                int key = random.nextInt(1000);
+                model.insert(key);
+                restored.insert(key);
+            }
+            else {
+                assertEquals(model.heap.findMin().getKey(), restored.findMin().getKey());
+                model.deleteMin();
+                restored.deleteMin();
+            }
+        }
+        HeapInvariants.check(restored);
+        HeapInvariants.assertSameKeys(model.expected, restored);
+    }
+
+    @Test
+    void restoreRejectsCorruptFiles() throws IOException {
+        Path empty = Files.createFile(this.directory.resolve("empty.bin"));
+        assertThrows(IOException.class, () -> FibonacciHeap.restore(empty));
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int i = 0; i < 100; i++) {
+            heap.insert(i);
+        }
+        heap.deleteMin();
+        Path path = this.directory.resolve("truncated.bin");
+        heap.checkpoint(path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(IOException.class, () -> FibonacciHeap.restore(path));
+    }
+}
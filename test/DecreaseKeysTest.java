@@ -0,0 +1,180 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of decreaseKeys and decreaseKeysById against java.util.PriorityQueue, checking the heap
+ * invariants after every batch.
+ */
+class DecreaseKeysTest
+{
+    // 0 10 20 -1 30, then deleteMin links them into 0 -> {10, 20 -> {30}}
+    private static FibonacciHeap.HeapNode[] chainHeap(FibonacciHeap heap) {
+        int[] keys = {0, 10, 20, -1, 30};
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            nodes[i] = heap.insert(keys[i]);
+        }
+        heap.deleteMin();
+        assertSame(nodes[2], nodes[4].getParent());
+        assertSame(nodes[0], nodes[2].getParent());
+        return nodes;
+    }
+
+    @Test
+    void childDecreasedToTheKeyOfItsDecreasedParentIsNotTheMin() {
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode[] nodes = chainHeap(heap);
+        // the child comes first, and ends up equal to its parent, so it is never cut
+        heap.decreaseKeys(new FibonacciHeap.HeapNode[] {nodes[4], nodes[2]}, new int[] {35, 25}, 2);
+        HeapInvariants.check(heap);
+        assertEquals(-5, heap.findMin().getKey());
+        assertNull(heap.findMin().getParent());
+        heap.deleteMin();
+        HeapInvariants.check(heap);
+        assertEquals(3, heap.size());
+        assertEquals(-5, heap.findMin().getKey());
+    }
+
+    @Test
+    void parentAndChildDecreasedToEqualKeysInEitherOrder() {
+        for (boolean child_first : new boolean[] {true, false}) {
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = chainHeap(heap);
+            FibonacciHeap.HeapNode[] batch = child_first
+                    ? new FibonacciHeap.HeapNode[] {nodes[4], nodes[2], nodes[0]}
+                    : new FibonacciHeap.HeapNode[] {nodes[0], nodes[2], nodes[4]};
+            // every node of the chain 0 -> 20 -> 30 ends at -7
+            int[] deltas = child_first ? new int[] {37, 27, 7} : new int[] {7, 27, 37};
+            heap.decreaseKeys(batch, deltas, 3);
+            HeapInvariants.check(heap);
+            int[] drained = new int[heap.size()];
+            for (int i = 0; i < drained.length; i++) {
+                drained[i] = heap.findMin().getKey();
+                heap.deleteMin();
+                HeapInvariants.check(heap);
+            }
+            assertArrayEquals(new int[] {-7, -7, -7, 10}, drained);
+        }
+    }
+
+    @Test
+    void decreaseKeysMatchesPriorityQueue() {
+        Random random = new Random(23);
+        for (int round = 0; round < 200; round++) {
+            FibonacciHeap heap = new FibonacciHeap();
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            int n = 1 + random.nextInt(300);
+            // a small key range, so batches often decrease a child to the key of its parent
+            int range = 1 + random.nextInt(60);
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[n];
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextInt(range);
+                nodes[i] = heap.insert(keys[i]);
+                expected.add(keys[i]);
+            }
+            boolean[] removed = new boolean[n];
+            FibonacciHeap.HeapNode[] batch = new FibonacciHeap.HeapNode[64];
+            int[] deltas = new int[64];
+            while (!heap.isEmpty()) {
+                FibonacciHeap.HeapNode min = heap.findMin();
+                assertEquals(expected.poll().intValue(), min.getKey());
+                removed[indexOf(nodes, min)] = true;
+                heap.deleteMin();
+                int len = random.nextInt(batch.length);
+                int filled = 0;
+                for (int j = 0; j < len; j++) {
+                    int i = random.nextInt(n);
+                    if (removed[i]) {
+                        continue;
+                    }
+                    // a node may appear twice in a batch
+                    batch[filled] = nodes[i];
+                    deltas[filled] = random.nextInt(4) == 0 ? 0 : random.nextInt(range);
+                    expected.remove(keys[i]);
+                    keys[i] -= deltas[filled];
+                    expected.add(keys[i]);
+                    filled++;
+                }
+                heap.decreaseKeys(batch, deltas, filled);
+                HeapInvariants.check(heap);
+                HeapInvariants.assertSameKeys(expected, heap);
+            }
+            assertEquals(0, expected.size());
+        }
+    }
+
+    @Test
+    void decreaseKeysByIdMatchesPriorityQueue() {
+        Random random = new Random(24);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(300);
+            IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            int range = 1 + random.nextInt(60);
+            for (int id = 0; id < n; id++) {
+                int key = random.nextInt(range);
+                heap.insertById(id, key);
+                expected.add(key);
+            }
+            int[] ids = new int[64];
+            int[] deltas = new int[64];
+            while (!heap.isEmpty()) {
+                assertEquals(expected.poll().intValue(), heap.findMin().getKey());
+                heap.deleteMin();
+                int len = random.nextInt(ids.length);
+                int filled = 0;
+                int[] pending = new int[n];
+                for (int j = 0; j < len; j++) {
+                    int id = random.nextInt(n);
+                    if (!heap.containsId(id)) {
+                        continue;
+                    }
+                    ids[filled] = id;
+                    deltas[filled] = random.nextInt(range);
+                    int key = heap.keyOf(id) - pending[id];
+                    expected.remove(key);
+                    expected.add(key - deltas[filled]);
+                    pending[id] += deltas[filled];
+                    filled++;
+                }
+                heap.decreaseKeysById(ids, deltas, filled);
+                HeapInvariants.check(heap);
+                HeapInvariants.assertSameKeys(expected, heap);
+            }
+        }
+    }
+
+    @Test
+    void invalidBatchChangesNothing() {
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(4);
+        heap.insertById(0, 10);
+        heap.insertById(1, 5);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> heap.decreaseKeys(new FibonacciHeap.HeapNode[1], new int[2], 2));
+        assertThrows(NoSuchElementException.class,
+                () -> heap.decreaseKeysById(new int[] {0, 2}, new int[] {3, 3}, 2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> heap.decreaseKeysById(new int[] {0, 7}, new int[] {3, 3}, 2));
+        assertEquals(10, heap.keyOf(0));
+        assertEquals(5, heap.keyOf(1));
+        HeapInvariants.check(heap);
+    }
+
+    private static int indexOf(FibonacciHeap.HeapNode[] nodes, FibonacciHeap.HeapNode node) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == node) {
+                return i;
+            }
+        }
+        throw new AssertionError("not a node of the heap");
+    }
+}
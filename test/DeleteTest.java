@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Differential tests of delete, eager and lazy, against java.util.PriorityQueue, with and without node recycling.
+ */
+class DeleteTest
+{
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteMatchesPriorityQueue(boolean lazy) {
+        Random random = new Random(lazy ? 18 : 17);
+        for (int round = 0; round < 300; round++) {
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.setLazyDelete(lazy);
+            HeapModel model = new HeapModel(heap);
+            int range = 1 + random.nextInt(500);
+            model.randomOps(random, random.nextInt(400), range);
+            // cancellation heavy: most steps delete a random entry, the minimum included
+            for (int i = 0; i < 400 && model.size() > 0; i++) {
+                int op = random.nextInt(10);
+                if (op < 6) {
+                    model.delete(random.nextInt(8) == 0 ? heap.findMin() : model.randomNode(random));
+                }
+                else if (op < 8) {
+                    model.insert(random.nextInt(range));
+                }
+                else if (op < 9) {
+                    model.decreaseKey(model.randomNode(random), random.nextInt(range / 4 + 1));
+                }
+                else {
+                    model.deleteMin();
+                }
+                model.check();
+            }
+            model.drain();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteOfARecycledNodeIsRejected(boolean lazy) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.setLazyDelete(lazy);
+        heap.setNodePoolCapacity(16);
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[8];
+        int[] generations = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = heap.insert(i);
+            generations[i] = nodes[i].getGeneration();
+        }
+        heap.deleteMin();
+        heap.delete(nodes[5], generations[5]);
+        assertFalse(heap.isLive(nodes[5], generations[5]));
+        assertThrows(IllegalStateException.class, () -> heap.delete(nodes[5], generations[5]));
+        // the next insert reuses a recycled node, with a new generation
+        FibonacciHeap.HeapNode reused = heap.insert(100);
+        assertTrue(reused == nodes[0] || reused == nodes[5]);
+        assertThrows(IllegalStateException.class, () -> heap.delete(nodes[0], generations[0]));
+        assertThrows(IllegalStateException.class, () -> heap.decreaseKey(nodes[5], 1, generations[5]));
+        assertTrue(heap.isLive(reused, reused.getGeneration()));
+        HeapInvariants.check(heap);
+        assertEquals(7, heap.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteTheOnlyAndTheMinimalNode(boolean lazy) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.setLazyDelete(lazy);
+        FibonacciHeap.HeapNode only = heap.insert(Integer.MIN_VALUE);
+        heap.delete(only);
+        HeapInvariants.check(heap);
+        assertTrue(heap.isEmpty());
+        FibonacciHeap.HeapNode low = heap.insert(1);
+        heap.insert(2);
+        heap.insert(Integer.MAX_VALUE);
+        heap.delete(low);
+        HeapInvariants.check(heap);
+        assertEquals(2, heap.findMin().getKey());
+    }
+}
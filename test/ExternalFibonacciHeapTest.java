@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Differential tests of ExternalFibonacciHeap against java.util.PriorityQueue, with a memory capacity small enough
+ * that the keys keep moving between memory and the run files.
+ */
+class ExternalFibonacciHeapTest
+{
+    private static final int MEMORY_CAPACITY = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deleteMinOrderMatchesPriorityQueueAcrossRefillsAndMerges() throws IOException {
+        Random random = new Random(22);
+        PriorityQueue<Integer> expected = new PriorityQueue<>();
+        try (ExternalFibonacciHeap heap = new ExternalFibonacciHeap(this.directory, MEMORY_CAPACITY)) {
+            for (int phase = 0; phase < 6; phase++) {
+                // mostly inserts, some of them below the boundary so it moves down, then mostly deleteMins
+                int range = 1 + random.nextInt(10000);
+                for (int i = 0; i < 3000; i++) {
+                    if (expected.isEmpty() || random.nextInt(10) < (phase % 2 == 0 ? 8 : 2)) {
+                        int key = random.nextInt(range) - range / 2;
+                        heap.insert(key);
+                        expected.add(key);
+                    }
+                    else {
+                        assertEquals(expected.peek().intValue(), heap.findMin());
+                        assertEquals(expected.poll().intValue(), heap.deleteMin());
+                    }
+                    assertEquals(expected.size(), heap.size());
+                    assertTrue(heap.getHotNum() <= MEMORY_CAPACITY);
+                    assertTrue(heap.getRunsNum() <= ExternalFibonacciHeap.MAX_RUNS);
+                    assertEquals(heap.getRunsNum(), runFiles());
+                }
+            }
+            while (!expected.isEmpty()) {
+                assertEquals(expected.poll().intValue(), heap.deleteMin());
+            }
+            assertTrue(heap.isEmpty());
+            assertThrows(NoSuchElementException.class, heap::deleteMin);
+            // the workload spilled, refilled and merged the runs many times over
+            assertTrue(heap.getRefills() > 100, "refills: " + heap.getRefills());
+            assertTrue(heap.getRunsWritten() > 2 * ExternalFibonacciHeap.MAX_RUNS,
+                    "runs written: " + heap.getRunsWritten());
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    void closeDeletesTheRunFiles() throws IOException {
+        ExternalFibonacciHeap heap = new ExternalFibonacciHeap(this.directory, MEMORY_CAPACITY);
+        // descending keys make every spill move the boundary down
+        for (int key = 1000; key > 0; key--) {
+            heap.insert(key);
+        }
+        assertTrue(heap.getRunsNum() > 0);
+        assertEquals(heap.getRunsNum(), runFiles());
+        assertEquals(1, heap.deleteMin());
+        heap.close();
+        assertEquals(0, runFiles());
+        assertThrows(IllegalStateException.class, () -> heap.insert(1));
+        assertThrows(IllegalStateException.class, heap::findMin);
+        heap.close();
+    }
+
+    private long runFiles() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of extractBelow against java.util.PriorityQueue, checking the invariants of both heaps after
+ * the split and while they keep being used.
+ */
+class ExtractBelowTest
+{
+    @Test
+    void extractBelowMatchesPriorityQueue() {
+        Random random = new Random(24);
+        for (int round = 0; round < 500; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            int range = 1 + random.nextInt(1000);
+            model.randomOps(random, random.nextInt(800), range);
+            model.check();
+            // thresholds below, inside and above the keys
+            int threshold = random.nextInt(range + range / 2 + 1) - range / 4;
+            HeapModel below = model.splitBelow(threshold, model.heap.extractBelow(threshold));
+            model.check();
+            below.check();
+            if (!model.heap.isEmpty()) {
+                assertTrue(model.heap.findMin().getKey() >= threshold);
+            }
+            // both heaps keep their shape through further operations
+            below.randomOps(random, random.nextInt(200), range);
+            model.randomOps(random, random.nextInt(200), range);
+            below.check();
+            model.check();
+            below.drain();
+            model.drain();
+        }
+    }
+
+    @Test
+    void extractBelowEmptyAndEverything() {
+        FibonacciHeap heap = new FibonacciHeap();
+        assertTrue(heap.extractBelow(5).isEmpty());
+        heap.insert(3);
+        heap.insert(10);
+        assertTrue(heap.extractBelow(3).isEmpty());
+        assertEquals(2, heap.size());
+        FibonacciHeap all = heap.extractBelow(Integer.MAX_VALUE);
+        HeapInvariants.check(heap);
+        HeapInvariants.check(all);
+        assertEquals(2, all.size());
+        assertTrue(heap.isEmpty());
+        heap.insert(1);
+        HeapInvariants.check(heap);
+    }
+
+    @Test
+    void indexedExtractBelowMovesTheIds() {
+        Random random = new Random(25);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(300);
+            IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+            for (int id = 0; id < n; id++) {
+                heap.insertById(id, random.nextInt(1000));
+            }
+            heap.deleteMin();
+            for (int id = 0; id < n; id++) {
+                if (heap.containsId(id) && random.nextInt(3) == 0) {
+                    heap.decreaseKeyById(id, random.nextInt(300));
+                }
+            }
+            int threshold = random.nextInt(1000);
+            IndexedFibonacciHeap below = heap.extractBelow(threshold);
+            HeapInvariants.check(heap);
+            HeapInvariants.check(below);
+            assertEquals(n, below.capacity());
+            for (int id = 0; id < n; id++) {
+                if (below.containsId(id)) {
+                    assertFalse(heap.containsId(id));
+                    assertTrue(below.keyOf(id) < threshold);
+                    assertEquals(id, below.idOf(below.nodeOf(id)));
+                }
+                else if (heap.containsId(id)) {
+                    assertTrue(heap.keyOf(id) >= threshold);
+                }
+            }
+            if (!below.isEmpty()) {
+                assertEquals(below.findMin().getKey(), below.keyOf(below.findMinId()));
+            }
+        }
+    }
+}
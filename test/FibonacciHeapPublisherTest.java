@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of FibonacciHeapPublisher with a subscriber that throws from onNext.
+ */
+class FibonacciHeapPublisherTest
+{
+    @Test
+    void keysOfAThrowingSubscriberGoBackToTheHeap() {
+        List<RuntimeException> errors = new ArrayList<>();
+        // runs the drain tasks on the calling thread, keeping what they throw
+        Executor executor = task -> {
+            try {
+                task.run();
+            }
+            catch (RuntimeException e) {
+                errors.add(e);
+            }
+        };
+        FibonacciHeapPublisher publisher = new FibonacciHeapPublisher(executor);
+        for (int key = 0; key < 10; key++) {
+            publisher.insert(key);
+        }
+        List<Integer> received = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(5);
+            }
+
+            @Override
+            public void onNext(Integer key) {
+                received.add(key);
+                if (received.size() == 2) {
+                    throw new IllegalStateException("subscriber failure");
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(List.of(0, 1), received);
+        assertEquals(1, errors.size());
+        // 2, 3 and 4 were extracted for the subscriber but not delivered
+        assertEquals(8, publisher.size());
+        List<Integer> rest = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Integer key) {
+                rest.add(key);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(List.of(2, 3, 4, 5, 6, 7, 8, 9), rest);
+    }
+}
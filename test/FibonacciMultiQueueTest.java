@@ -0,0 +1,151 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multi-threaded tests of FibonacciMultiQueue: however the threads interleave, every inserted key is deleted
+ * exactly once.
+ */
+class FibonacciMultiQueueTest
+{
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 20_000;
+
+    @Test
+    void concurrentInsertsThenConcurrentDeleteMinsLoseAndDuplicateNothing() throws Exception {
+        FibonacciMultiQueue queue = new FibonacciMultiQueue(2, THREADS);
+        // thread t inserts the keys t, t + THREADS, t + 2 * THREADS, ...
+        runAll(thread -> {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                queue.insert(i * THREADS + thread);
+            }
+            return new long[0];
+        });
+        assertEquals(THREADS * KEYS_PER_THREAD, queue.size());
+        List<long[]> deleted = runAll(thread -> drain(queue));
+        assertEquals(0, queue.size());
+        assertEquals(FibonacciMultiQueue.EMPTY, queue.deleteMin());
+        assertEachKeyOnce(deleted, THREADS * KEYS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentInsertsAndDeleteMinsLoseAndDuplicateNothing() throws Exception {
+        FibonacciMultiQueue queue = new FibonacciMultiQueue(2, THREADS);
+        // every thread inserts its keys and deletes about as many minimums, in random order
+        List<long[]> deleted = runAll(thread -> {
+            long[] keys = new long[KEYS_PER_THREAD];
+            int count = 0;
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                queue.insert(i * THREADS + thread);
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    long key = queue.deleteMin();
+                    if (key != FibonacciMultiQueue.EMPTY) {
+                        keys[count++] = key;
+                    }
+                }
+            }
+            return Arrays.copyOf(keys, count);
+        });
+        deleted.add(drain(queue));
+        assertEachKeyOnce(deleted, THREADS * KEYS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentDeletesAndDeleteMinsDeleteEveryEntryOnce() throws Exception {
+        FibonacciMultiQueue queue = new FibonacciMultiQueue(2, THREADS);
+        int keys = THREADS * KEYS_PER_THREAD;
+        FibonacciMultiQueue.Handle[] handles = new FibonacciMultiQueue.Handle[keys];
+        for (int key = 0; key < keys; key++) {
+            handles[key] = queue.insert(key);
+        }
+        // half of the threads delete the entries by their handles, from the largest key down, while the other
+        // half delete minimums
+        List<long[]> deleted = runAll(thread -> {
+            if (thread % 2 == 0) {
+                return drain(queue);
+            }
+            long[] by_handle = new long[keys];
+            int count = 0;
+            for (int key = keys - 1 - thread / 2; key >= 0; key -= THREADS / 2) {
+                if (queue.delete(handles[key])) {
+                    by_handle[count++] = key;
+                }
+            }
+            return Arrays.copyOf(by_handle, count);
+        });
+        deleted.add(drain(queue));
+        assertEachKeyOnce(deleted, keys);
+        for (FibonacciMultiQueue.Handle handle : handles) {
+            assertFalse(queue.delete(handle));
+            assertFalse(queue.decreaseKey(handle, 1));
+        }
+    }
+
+    private static long[] drain(FibonacciMultiQueue queue) {
+        long[] keys = new long[16];
+        int count = 0;
+        for (long key = queue.deleteMin(); key != FibonacciMultiQueue.EMPTY; key = queue.deleteMin()) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * count);
+            }
+            keys[count++] = key;
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    private static void assertEachKeyOnce(List<long[]> deleted, int keys) {
+        BitSet seen = new BitSet(keys);
+        for (long[] thread_keys : deleted) {
+            for (long key : thread_keys) {
+                assertTrue(key >= 0 && key < keys, "key " + key + " was never inserted");
+                assertFalse(seen.get((int) key), "key " + key + " was deleted twice");
+                seen.set((int) key);
+            }
+        }
+        assertEquals(keys, seen.cardinality(), "keys lost: " + (keys - seen.cardinality()));
+    }
+
+    // runs task on THREADS threads that start together, and returns what each of them returned
+    private static List<long[]> runAll(ThreadTask task) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int t = thread;
+                Callable<long[]> call = () -> {
+                    start.await();
+                    return task.run(t);
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            List<long[]> results = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask
+    {
+        long[] run(int thread) throws Exception;
+    }
+}
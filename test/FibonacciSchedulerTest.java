@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the timer thread of FibonacciScheduler when its executor rejects tasks.
+ */
+class FibonacciSchedulerTest
+{
+    @Test
+    void rejectedTaskFailsAloneAndTheTimerKeepsRunning() throws InterruptedException {
+        Runnable rejected = () -> { };
+        RejectingExecutor executor = new RejectingExecutor(rejected);
+        try (FibonacciScheduler scheduler = new FibonacciScheduler(executor)) {
+            FibonacciScheduler.Timeout failed = scheduler.schedule(rejected, 0, TimeUnit.NANOSECONDS);
+            CountDownLatch ran = new CountDownLatch(1);
+            FibonacciScheduler.Timeout later = scheduler.schedule(ran::countDown, 20, TimeUnit.MILLISECONDS);
+            assertTrue(ran.await(10, TimeUnit.SECONDS), "the timer stopped after the rejection");
+            assertInstanceOf(RejectedExecutionException.class, failed.getFailure());
+            assertFalse(failed.isPending());
+            assertNull(later.getFailure());
+        }
+    }
+
+    /**
+     * runs its tasks on the calling thread, except the one task it rejects.
+     */
+    private static final class RejectingExecutor extends AbstractExecutorService
+    {
+        private final Runnable rejected;
+        private volatile boolean shutdown;
+
+        RejectingExecutor(Runnable rejected) {
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (task == this.rejected) {
+                throw new RejectedExecutionException("rejected");
+            }
+            task.run();
+        }
+
+        @Override
+        public void shutdown() {
+            this.shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            this.shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return this.shutdown;
+        }
+    }
+}
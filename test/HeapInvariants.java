@@ -0,0 +1,129 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * HeapInvariants
+ *
+ * Walks the whole forest of a FibonacciHeap and fails the test on any broken invariant: the sibling lists, parent
+ * pointers, heap order and ranks, the Fibonacci bound on the subtree size of every rank, the size, root and mark
+ * counters, and min_node being a root with the minimal key.
+ */
+final class HeapInvariants
+{
+    private HeapInvariants() {
+    }
+
+    static void check(FibonacciHeap heap) {
+        if (heap.isEmpty()) {
+            assertNull(heap.getFirst(), "first of an empty heap");
+            assertNull(heap.findMin(), "min of an empty heap");
+            assertEquals(0, heap.getRootsNum(), "roots of an empty heap");
+            assertEquals(0, heap.getMarkedNum(), "marked of an empty heap");
+            return;
+        }
+        FibonacciHeap.HeapNode first = heap.getFirst();
+        assertNotNull(first, "first of a non-empty heap");
+        int[] counts = new int[2];
+        boolean min_is_root = false;
+        int min_key = Integer.MAX_VALUE;
+        int roots = 0;
+        FibonacciHeap.HeapNode root = first;
+        do {
+            assertNull(root.getParent(), "parent of a root");
+            assertSame(root, root.getNext().getPrev(), "roots list links");
+            min_is_root |= root == heap.findMin();
+            min_key = Math.min(min_key, root.getKey());
+            checkTree(root, counts);
+            roots++;
+            assertTrue(roots <= heap.size(), "roots list is not circular");
+            root = root.getNext();
+        } while (root != first);
+        assertEquals(heap.size(), counts[0], "size");
+        assertEquals(heap.getRootsNum(), roots, "roots");
+        assertEquals(heap.getMarkedNum(), counts[1], "marked");
+        assertTrue(min_is_root, "min_node is not a root");
+        assertEquals(min_key, heap.findMin().getKey(), "min key");
+    }
+
+    /**
+     * fails unless the heap holds exactly the keys of expected.
+     */
+    static void assertSameKeys(PriorityQueue<Integer> expected, FibonacciHeap heap) {
+        int[] expected_keys = expected.stream().mapToInt(Integer::intValue).sorted().toArray();
+        assertArrayEquals(expected_keys, keys(heap), "keys");
+    }
+
+    /**
+     * the keys of the heap in ascending order, collected by walking the forest.
+     */
+    static int[] keys(FibonacciHeap heap) {
+        int[] keys = new int[heap.size()];
+        int[] next = {0};
+        if (!heap.isEmpty()) {
+            FibonacciHeap.HeapNode root = heap.getFirst();
+            do {
+                collect(root, keys, next);
+                root = root.getNext();
+            } while (root != heap.getFirst());
+        }
+        Arrays.sort(keys, 0, next[0]);
+        return next[0] == keys.length ? keys : Arrays.copyOf(keys, next[0]);
+    }
+
+    private static void collect(FibonacciHeap.HeapNode node, int[] keys, int[] next) {
+        if (next[0] == keys.length) {
+            fail("more nodes than the size of the heap");
+        }
+        keys[next[0]++] = node.getKey();
+        FibonacciHeap.HeapNode child = node.getChild();
+        for (int i = 0; i < node.getRank(); i++) {
+            collect(child, keys, next);
+            child = child.getNext();
+        }
+    }
+
+    // checks the tree of node and returns its size. counts[0] sums the nodes and counts[1] the marked ones
+    private static int checkTree(FibonacciHeap.HeapNode node, int[] counts) {
+        counts[0]++;
+        if (node.getMarked()) {
+            counts[1]++;
+        }
+        int size = 1;
+        int rank = 0;
+        FibonacciHeap.HeapNode child = node.getChild();
+        if (child != null) {
+            do {
+                assertSame(node, child.getParent(), "parent of a child");
+                assertSame(child, child.getNext().getPrev(), "children list links");
+                assertTrue(child.getKey() >= node.getKey(), "heap order: " + child.getKey() + " under "
+                        + node.getKey());
+                size += checkTree(child, counts);
+                rank++;
+                assertTrue(rank <= counts[0], "children list is not circular");
+                child = child.getNext();
+            } while (child != node.getChild());
+        }
+        assertEquals(rank, node.getRank(), "rank");
+        assertTrue(size >= fibonacci(rank + 2), "a tree of rank " + rank + " has only " + size + " nodes");
+        return size;
+    }
+
+    private static long fibonacci(int n) {
+        long previous = 0;
+        long current = 1;
+        for (int i = 1; i < n; i++) {
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,205 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * HeapModel
+ *
+ * A FibonacciHeap driven side by side with a java.util.PriorityQueue of the same keys. Every operation is applied to
+ * both, and check() compares them and checks the invariants of the heap. The model also keeps the handles of the
+ * live entries, so tests can pick random nodes to change or delete.
+ */
+final class HeapModel
+{
+    final FibonacciHeap heap;
+    final PriorityQueue<Integer> expected = new PriorityQueue<>();
+    private final List<FibonacciHeap.HeapNode> live = new ArrayList<>();
+    private final Map<FibonacciHeap.HeapNode, Integer> live_index = new IdentityHashMap<>();
+
+    HeapModel(FibonacciHeap heap) {
+        this.heap = heap;
+    }
+
+    int size() {
+        return this.live.size();
+    }
+
+    FibonacciHeap.HeapNode insert(int key) {
+        FibonacciHeap.HeapNode node = this.heap.insert(key);
+        this.expected.add(key);
+        this.track(node);
+        return node;
+    }
+
+    void deleteMin() {
+        FibonacciHeap.HeapNode min = this.heap.findMin();
+        assertEquals(this.expected.poll().intValue(), min.getKey(), "deleted min");
+        this.untrack(min);
+        this.heap.deleteMin();
+    }
+
+    void decreaseKey(FibonacciHeap.HeapNode node, int delta) {
+        this.changed(node.getKey(), node.getKey() - delta);
+        this.heap.decreaseKey(node, delta);
+    }
+
+    void increaseKey(FibonacciHeap.HeapNode node, int delta) {
+        this.changed(node.getKey(), node.getKey() + delta);
+        this.heap.increaseKey(node, delta);
+    }
+
+    void updateKey(FibonacciHeap.HeapNode node, int new_key) {
+        this.changed(node.getKey(), new_key);
+        this.heap.updateKey(node, new_key);
+    }
+
+    void delete(FibonacciHeap.HeapNode node) {
+        assertTrue(this.expected.remove(node.getKey()));
+        this.untrack(node);
+        this.heap.delete(node);
+    }
+
+    /**
+     * deletes the k smallest entries with heap.pollMins and checks the keys and the count it returns.
+     */
+    void pollMins(int k) {
+        int[] out = new int[Math.max(k, 0)];
+        int count = this.heap.pollMins(k, out);
+        assertEquals(Math.max(0, Math.min(k, this.expected.size())), count, "polled");
+        for (int i = 0; i < count; i++) {
+            assertEquals(this.expected.poll().intValue(), out[i], "polled key " + i);
+        }
+        // the polled nodes were recycled, so the live entries are the ones still in the forest
+        Set<FibonacciHeap.HeapNode> in_heap = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!this.heap.isEmpty()) {
+            FibonacciHeap.HeapNode root = this.heap.getFirst();
+            do {
+                collect(root, in_heap);
+                root = root.getNext();
+            } while (root != this.heap.getFirst());
+        }
+        for (FibonacciHeap.HeapNode node : new ArrayList<>(this.live)) {
+            if (!in_heap.contains(node)) {
+                this.untrack(node);
+            }
+        }
+        assertEquals(in_heap.size(), this.live.size(), "live entries");
+    }
+
+    /**
+     * deletes the k smallest entries with heap.pollMinNodes and checks the nodes and the count it returns.
+     */
+    void pollMinNodes(int k) {
+        FibonacciHeap.HeapNode[] out = new FibonacciHeap.HeapNode[Math.max(k, 0)];
+        int count = this.heap.pollMinNodes(k, out);
+        assertEquals(Math.max(0, Math.min(k, this.expected.size())), count, "polled");
+        for (int i = 0; i < count; i++) {
+            assertEquals(this.expected.poll().intValue(), out[i].getKey(), "polled key " + i);
+            assertTrue(this.live_index.containsKey(out[i]), "polled a node that isn't live");
+            this.untrack(out[i]);
+        }
+        for (int i = count; i < out.length; i++) {
+            assertNull(out[i]);
+        }
+    }
+
+    FibonacciHeap.HeapNode randomNode(Random random) {
+        return this.live.get(random.nextInt(this.live.size()));
+    }
+
+    /**
+     * applies count random inserts, deleteMins, decreaseKeys and deletes with keys in [0, range), so the heap
+     * gets linked trees, marks and cascading cuts.
+     */
+    void randomOps(Random random, int count, int range) {
+        for (int i = 0; i < count; i++) {
+            int op = random.nextInt(10);
+            if (this.live.isEmpty() || op < 4) {
+                this.insert(random.nextInt(range));
+            }
+            else if (op < 6) {
+                this.deleteMin();
+            }
+            else if (op < 9) {
+                this.decreaseKey(this.randomNode(random), random.nextInt(range / 4 + 1));
+            }
+            else {
+                this.delete(this.randomNode(random));
+            }
+        }
+    }
+
+    /**
+     * removes the entries below threshold from the model as heap.extractBelow does, and returns a model of them
+     * over the extracted heap.
+     */
+    HeapModel splitBelow(int threshold, FibonacciHeap below) {
+        HeapModel model = new HeapModel(below);
+        for (FibonacciHeap.HeapNode node : new ArrayList<>(this.live)) {
+            if (node.getKey() < threshold) {
+                assertTrue(this.expected.remove(node.getKey()));
+                this.untrack(node);
+                model.expected.add(node.getKey());
+                model.track(node);
+            }
+        }
+        return model;
+    }
+
+    void check() {
+        HeapInvariants.check(this.heap);
+        assertEquals(this.expected.size(), this.heap.size(), "size");
+        if (!this.expected.isEmpty()) {
+            assertEquals(this.expected.peek().intValue(), this.heap.findMin().getKey(), "min");
+        }
+        HeapInvariants.assertSameKeys(this.expected, this.heap);
+    }
+
+    /**
+     * deletes every entry in ascending order, checking the heap after each deleteMin.
+     */
+    void drain() {
+        while (!this.live.isEmpty()) {
+            this.deleteMin();
+            this.check();
+        }
+        assertTrue(this.heap.isEmpty());
+    }
+
+    private static void collect(FibonacciHeap.HeapNode node, Set<FibonacciHeap.HeapNode> nodes) {
+        nodes.add(node);
+        FibonacciHeap.HeapNode child = node.getChild();
+        for (int i = 0; i < node.getRank(); i++) {
+            collect(child, nodes);
+            child = child.getNext();
+        }
+    }
+
+    private void changed(int old_key, int new_key) {
+        assertTrue(this.expected.remove(old_key));
+        this.expected.add(new_key);
+    }
+
+    private void track(FibonacciHeap.HeapNode node) {
+        this.live_index.put(node, this.live.size());
+        this.live.add(node);
+    }
+
+    private void untrack(FibonacciHeap.HeapNode node) {
+        int i = this.live_index.remove(node);
+        FibonacciHeap.HeapNode last = this.live.remove(this.live.size() - 1);
+        if (last != node) {
+            this.live.set(i, last);
+            this.live_index.put(last, i);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of HeapTraceReplayer on hand written traces.
+ */
+class HeapTraceReplayerTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void nodeRemovedByDeleteMinIsRejectedLater() throws IOException {
+        Path path = this.directory.resolve("trace.bin");
+        try (HeapTraceWriter trace = HeapTraceWriter.open(path)) {
+            int heap = trace.newHeap();
+            long node = trace.insert(heap, 5);
+            trace.insert(heap, 7);
+            trace.deleteMin(heap);
+            // node was the minimum, so the trace is corrupt from here on
+            trace.decreaseKey(node, 1);
+        }
+        for (PriorityQueueFactory.Engine engine : PriorityQueueFactory.Engine.values()) {
+            IOException error = assertThrows(IOException.class, () -> HeapTraceReplayer.replay(path, engine, 1));
+            assertTrue(error.getMessage().contains("unknown node"), error.getMessage());
+        }
+    }
+
+    @Test
+    void deleteMinOfAnEmptyHeapReplays() throws IOException {
+        Path path = this.directory.resolve("trace.bin");
+        try (HeapTraceWriter trace = HeapTraceWriter.open(path)) {
+            int heap = trace.newHeap();
+            trace.deleteMin(heap);
+            trace.insert(heap, 5);
+            trace.deleteMin(heap);
+            trace.deleteMin(heap);
+            long node = trace.insert(heap, 3);
+            trace.decreaseKey(node, 1);
+        }
+        assertDoesNotThrow(() -> HeapTraceReplayer.replay(path, PriorityQueueFactory.Engine.FIBONACCI, 1));
+    }
+
+    @Test
+    void latenciesAreReportedByOperation() throws IOException {
+        Path path = this.directory.resolve("trace.bin");
+        try (HeapTraceWriter trace = HeapTraceWriter.open(path)) {
+            int heap = trace.newHeap();
+            for (int key = 0; key < 10_000; key++) {
+                trace.insert(heap, key);
+            }
+            for (int i = 0; i < 100; i++) {
+                trace.deleteMin(heap);
+            }
+        }
+        HeapTraceReplayer.Report report = HeapTraceReplayer.replay(path, PriorityQueueFactory.Engine.FIBONACCI, 1000);
+        assertEquals(10_100, report.getOpsNum());
+        long median = report.getLatency("insert", 50);
+        assertTrue(median >= 0);
+        assertTrue(median <= report.getLatency("insert", 99.9));
+        assertTrue(report.getLatency("insert", 99.9) <= report.getLatency("insert", 100));
+        assertTrue(report.getLatency("deleteMin", 50) >= 0);
+        // no call of the operation was replayed
+        assertEquals(-1, report.getLatency("decreaseKey", 50));
+        assertThrows(IllegalArgumentException.class, () -> report.getLatency("peek", 50));
+    }
+}
@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the ids of IndexedFibonacciHeap across melds.
+ */
+class IndexedFibonacciHeapTest
+{
+    @Test
+    void meldIntoAPlainHeapClearsTheIds() {
+        FibonacciHeap plain = new FibonacciHeap();
+        plain.insert(50);
+        IndexedFibonacciHeap indexed = new IndexedFibonacciHeap(8);
+        for (int id = 0; id < 8; id++) {
+            indexed.insertById(id, 10 * id);
+        }
+        indexed.deleteMin();
+        plain.meld(indexed);
+        for (int id = 0; id < 8; id++) {
+            assertFalse(indexed.containsId(id));
+        }
+        // the ids can't reach the nodes that now belong to plain
+        assertThrows(NoSuchElementException.class, () -> indexed.decreaseKeyById(3, 100));
+        assertThrows(NoSuchElementException.class, () -> indexed.deleteById(5));
+        HeapInvariants.check(plain);
+        assertEquals(8, plain.size());
+    }
+
+    @Test
+    void meldIntoAnIndexedHeapMovesTheIds() {
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(8);
+        IndexedFibonacciHeap heap2 = new IndexedFibonacciHeap(8);
+        for (int id = 0; id < 4; id++) {
+            heap.insertById(id, 10 * id);
+            heap2.insertById(id + 4, 10 * id + 5);
+        }
+        heap.meld(heap2);
+        for (int id = 0; id < 8; id++) {
+            assertTrue(heap.containsId(id));
+            assertFalse(heap2.containsId(id));
+        }
+        heap.decreaseKeyById(7, 100);
+        assertEquals(7, heap.findMinId());
+        HeapInvariants.check(heap);
+    }
+}
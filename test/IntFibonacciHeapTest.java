@@ -0,0 +1,191 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of IntFibonacciHeap against java.util.PriorityQueue, handles and melds included.
+ */
+class IntFibonacciHeapTest
+{
+    @Test
+    void intHeapMatchesPriorityQueue() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            Model model = new Model(new IntFibonacciHeap(1 + random.nextInt(8)));
+            model.randomOps(random, 1 + random.nextInt(600), 1 + random.nextInt(1000));
+            model.drain();
+        }
+    }
+
+    @Test
+    void meldMovesTheHandlesByTheOffset() {
+        Random random = new Random(2);
+        for (int round = 0; round < 200; round++) {
+            int range = 1 + random.nextInt(1000);
+            Model model = new Model(new IntFibonacciHeap());
+            Model other = new Model(new IntFibonacciHeap());
+            model.randomOps(random, random.nextInt(300), range);
+            // other has free slots too, which meld chains into the free slots of model
+            other.randomOps(random, random.nextInt(300), range);
+            int offset = model.heap.meld(other.heap);
+            assertTrue(other.heap.isEmpty());
+            for (int i = 0; i < other.handles.size(); i++) {
+                int handle = other.handles.get(i) + offset;
+                assertEquals(other.keys.get(i).intValue(), model.heap.getKey(handle));
+                model.track(handle, other.keys.get(i));
+            }
+            model.expected.addAll(other.expected);
+            other.clear();
+            model.check();
+            // the moved handles work for every operation, and the emptied heap is usable again
+            model.randomOps(random, random.nextInt(300), range);
+            other.randomOps(random, random.nextInt(100), range);
+            model.drain();
+            other.drain();
+        }
+    }
+
+    @Test
+    void freeSlotsAreReusedBeforeGrowing() {
+        IntFibonacciHeap heap = new IntFibonacciHeap(4);
+        int[] handles = new int[64];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = heap.insert(i);
+        }
+        heap.deleteMin();
+        Set<Integer> freed = new HashSet<>();
+        freed.add(handles[0]);
+        for (int i = 1; i < handles.length; i += 3) {
+            heap.delete(handles[i]);
+            freed.add(handles[i]);
+        }
+        int max_handle = Arrays.stream(handles).max().getAsInt();
+        // every insert takes a freed slot until there is none left
+        for (int i = 0, count = freed.size(); i < count; i++) {
+            int handle = heap.insert(1000 + i);
+            assertTrue(freed.remove(handle), "slot " + handle + " was not free");
+            assertEquals(1000 + i, heap.getKey(handle));
+        }
+        assertEquals(max_handle + 1, heap.insert(5000));
+        assertEquals(2, heap.getKey(heap.findMin()));
+    }
+
+    @Test
+    void meldRejectsItself() {
+        IntFibonacciHeap heap = new IntFibonacciHeap();
+        heap.insert(1);
+        assertThrows(IllegalArgumentException.class, () -> heap.meld(heap));
+        assertEquals(1, heap.size());
+    }
+
+    /**
+     * an IntFibonacciHeap with the keys of its live handles and a PriorityQueue of the same keys.
+     */
+    private static final class Model
+    {
+        final IntFibonacciHeap heap;
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final List<Integer> handles = new ArrayList<>();
+        final List<Integer> keys = new ArrayList<>();
+
+        Model(IntFibonacciHeap heap) {
+            this.heap = heap;
+        }
+
+        void track(int handle, int key) {
+            assertTrue(!this.handles.contains(handle), "handle " + handle + " is live twice");
+            this.handles.add(handle);
+            this.keys.add(key);
+        }
+
+        void randomOps(Random random, int count, int range) {
+            for (int i = 0; i < count; i++) {
+                int op = random.nextInt(10);
+                if (this.handles.isEmpty() || op < 4) {
+                    int key = random.nextInt(range);
+                    this.track(this.heap.insert(key), key);
+                    this.expected.add(key);
+                }
+                else if (op < 6) {
+                    this.deleteMin();
+                }
+                else if (op < 9) {
+                    int j = random.nextInt(this.handles.size());
+                    int delta = random.nextInt(range / 4 + 1);
+                    int key = this.keys.get(j);
+                    assertTrue(this.expected.remove(key));
+                    this.expected.add(key - delta);
+                    this.keys.set(j, key - delta);
+                    this.heap.decreaseKey(this.handles.get(j), delta);
+                }
+                else {
+                    int j = random.nextInt(this.handles.size());
+                    assertTrue(this.expected.remove(this.keys.get(j)));
+                    this.heap.delete(this.handles.get(j));
+                    this.untrack(j);
+                }
+                this.check();
+            }
+        }
+
+        void deleteMin() {
+            int min = this.heap.findMin();
+            int j = this.handles.indexOf(min);
+            assertTrue(j >= 0, "min " + min + " is not a live handle");
+            assertEquals(this.expected.poll().intValue(), this.heap.getKey(min));
+            this.heap.deleteMin();
+            this.untrack(j);
+        }
+
+        void check() {
+            assertEquals(this.expected.size(), this.heap.size());
+            int roots = 0;
+            for (int count : this.heap.countersRep()) {
+                roots += count;
+            }
+            assertEquals(this.heap.getRootsNum(), roots);
+            assertEquals(this.heap.getRootsNum() + 2 * this.heap.getMarkedNum(), this.heap.potential());
+            if (this.expected.isEmpty()) {
+                assertEquals(IntFibonacciHeap.NONE, this.heap.findMin());
+            }
+            else {
+                assertEquals(this.expected.peek().intValue(), this.heap.getKey(this.heap.findMin()));
+            }
+            for (int j = 0; j < this.handles.size(); j++) {
+                assertEquals(this.keys.get(j).intValue(), this.heap.getKey(this.handles.get(j)));
+            }
+        }
+
+        void drain() {
+            while (!this.expected.isEmpty()) {
+                this.deleteMin();
+                this.check();
+            }
+            assertTrue(this.heap.isEmpty());
+        }
+
+        // forgets the entries, after a meld moved them into another heap
+        void clear() {
+            this.expected.clear();
+            this.handles.clear();
+            this.keys.clear();
+        }
+
+        private void untrack(int j) {
+            int last = this.handles.size() - 1;
+            this.handles.set(j, this.handles.get(last));
+            this.keys.set(j, this.keys.get(last));
+            this.handles.remove(last);
+            this.keys.remove(last);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the key streams of FibonacciHeap: keys() in any order, with a spliterator that splits the forest, and
+ * sortedKeys() in ascending order. Both fail fast once the heap is changed.
+ */
+class KeyStreamsTest
+{
+    @Test
+    void keysAndSortedKeysMatchTheSortedKeys() {
+        Random random = new Random(15);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            model.randomOps(random, random.nextInt(2000), 1 + random.nextInt(1000));
+            FibonacciHeap heap = model.heap;
+            int[] keys = HeapInvariants.keys(heap);
+            assertArrayEquals(keys, heap.keys().sorted().toArray());
+            assertArrayEquals(keys, heap.keys().parallel().sorted().toArray());
+            assertArrayEquals(keys, heap.sortedKeys().toArray());
+            int k = random.nextInt(keys.length + 1);
+            int[] top = new int[k];
+            heap.topK(k, top);
+            assertArrayEquals(top, heap.sortedKeys().limit(k).toArray());
+            assertEquals(keys.length, heap.keys().count());
+            // the streams don't change the heap
+            model.check();
+        }
+    }
+
+    @Test
+    void spliteratorSplitsIntoPartsThatCoverTheKeys() {
+        Random random = new Random(16);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            model.randomOps(random, random.nextInt(2000), 1 + random.nextInt(1000));
+            FibonacciHeap heap = model.heap;
+            Spliterator.OfInt spliterator = heap.keys().spliterator();
+            // exact until the first split
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+            assertEquals(heap.size(), spliterator.estimateSize());
+            assertEquals(heap.size(), spliterator.getExactSizeIfKnown());
+            List<Spliterator.OfInt> parts = new ArrayList<>();
+            split(spliterator, parts, random.nextInt(8));
+            long estimates = 0;
+            List<Integer> keys = new ArrayList<>();
+            for (Spliterator.OfInt part : parts) {
+                if (parts.size() > 1) {
+                    assertFalse(part.hasCharacteristics(Spliterator.SIZED));
+                    assertEquals(-1, part.getExactSizeIfKnown());
+                }
+                estimates += part.estimateSize();
+                // half of the parts are consumed one key at a time
+                if (random.nextBoolean()) {
+                    part.forEachRemaining((int key) -> keys.add(key));
+                }
+                else {
+                    while (part.tryAdvance((int key) -> keys.add(key))) {
+                        // tryAdvance adds the key
+                    }
+                }
+                assertFalse(part.tryAdvance((int key) -> keys.add(key)));
+            }
+            assertEquals(heap.size(), estimates);
+            assertArrayEquals(HeapInvariants.keys(heap), keys.stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+    }
+
+    @Test
+    void aSingleTreeIsSplitBelowItsRoot() {
+        FibonacciHeap heap = FibonacciHeap.fromArray(IntStream.range(0, 64).toArray());
+        assertEquals(1, heap.getRootsNum());
+        Spliterator.OfInt spliterator = heap.keys().spliterator();
+        Spliterator.OfInt prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        List<Integer> keys = new ArrayList<>();
+        prefix.forEachRemaining((int key) -> keys.add(key));
+        spliterator.forEachRemaining((int key) -> keys.add(key));
+        assertArrayEquals(IntStream.range(0, 64).toArray(),
+                keys.stream().mapToInt(Integer::intValue).sorted().toArray());
+        FibonacciHeap single = new FibonacciHeap();
+        single.insert(1);
+        assertNull(single.keys().spliterator().trySplit());
+        assertEquals(0, new FibonacciHeap().keys().count());
+        assertEquals(0, new FibonacciHeap().sortedKeys().count());
+    }
+
+    @Test
+    void streamsFailFastWhenTheHeapChanges() {
+        FibonacciHeap heap = FibonacciHeap.fromArray(IntStream.range(0, 100).toArray());
+        FibonacciHeap.HeapNode node = heap.insert(500);
+
+        PrimitiveIterator.OfInt keys = heap.keys().iterator();
+        keys.nextInt();
+        heap.insert(7);
+        assertThrows(ConcurrentModificationException.class, keys::nextInt);
+
+        Spliterator.OfInt spliterator = heap.keys().spliterator();
+        spliterator.tryAdvance((int key) -> { });
+        heap.decreaseKey(node, 1);
+        assertThrows(ConcurrentModificationException.class, spliterator::trySplit);
+        assertThrows(ConcurrentModificationException.class, () -> spliterator.tryAdvance((int key) -> { }));
+
+        PrimitiveIterator.OfInt sorted = heap.sortedKeys().iterator();
+        assertEquals(0, sorted.nextInt());
+        heap.deleteMin();
+        assertThrows(ConcurrentModificationException.class, sorted::nextInt);
+
+        PrimitiveIterator.OfInt ascending = heap.ascending();
+        ascending.nextInt();
+        heap.delete(node);
+        assertThrows(ConcurrentModificationException.class, ascending::nextInt);
+
+        assertThrows(ConcurrentModificationException.class,
+                () -> heap.keys().forEach((int key) -> heap.insert(key)));
+    }
+
+    // splits the spliterator up to depth times and collects the parts
+    private static void split(Spliterator.OfInt spliterator, List<Spliterator.OfInt> parts, int depth) {
+        Spliterator.OfInt prefix = depth > 0 ? spliterator.trySplit() : null;
+        if (prefix != null) {
+            split(prefix, parts, depth - 1);
+            split(spliterator, parts, depth - 1);
+        }
+        else {
+            parts.add(spliterator);
+        }
+    }
+}
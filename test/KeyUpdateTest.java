@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of increaseKey and updateKey against java.util.PriorityQueue, checking the heap invariants
+ * after every change.
+ */
+class KeyUpdateTest
+{
+    @Test
+    void increaseKeyMatchesPriorityQueue() {
+        Random random = new Random(19);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            int range = 1 + random.nextInt(500);
+            model.randomOps(random, random.nextInt(400), range);
+            for (int i = 0; i < 300 && model.size() > 0; i++) {
+                int op = random.nextInt(10);
+                if (op < 5) {
+                    // the minimum often, since increasing it makes the heap look for a new one
+                    FibonacciHeap.HeapNode node = random.nextInt(4) == 0
+                            ? model.heap.findMin() : model.randomNode(random);
+                    model.increaseKey(node, random.nextInt(range));
+                }
+                else if (op < 8) {
+                    model.randomOps(random, 1, range);
+                }
+                else {
+                    model.deleteMin();
+                }
+                model.check();
+            }
+            model.drain();
+        }
+    }
+
+    @Test
+    void updateKeyMatchesPriorityQueue() {
+        Random random = new Random(20);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            int range = 1 + random.nextInt(500);
+            model.randomOps(random, random.nextInt(400), range);
+            for (int i = 0; i < 300 && model.size() > 0; i++) {
+                if (random.nextInt(5) == 0) {
+                    model.deleteMin();
+                }
+                else {
+                    // up, down or unchanged
+                    model.updateKey(model.randomNode(random), random.nextInt(range));
+                }
+                model.check();
+            }
+            model.drain();
+        }
+    }
+
+    @Test
+    void increaseKeyKeepsTheNode() {
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode node = heap.insert(1);
+        heap.insert(5);
+        heap.increaseKey(node, 10);
+        assertEquals(11, node.getKey());
+        assertEquals(5, heap.findMin().getKey());
+        heap.deleteMin();
+        assertSame(node, heap.findMin());
+        HeapInvariants.check(heap);
+    }
+
+    @Test
+    void increaseKeyRejectsNegativeDeltasAndOverflow() {
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode node = heap.insert(Integer.MAX_VALUE - 1);
+        assertThrows(IllegalArgumentException.class, () -> heap.increaseKey(node, -1));
+        assertThrows(IllegalArgumentException.class, () -> heap.increaseKey(node, 2));
+        assertEquals(Integer.MAX_VALUE - 1, node.getKey());
+        HeapInvariants.check(heap);
+    }
+}
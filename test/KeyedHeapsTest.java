@@ -0,0 +1,219 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of the heaps built on AbstractFibonacciHeap against java.util.PriorityQueue. FibonacciHeap
+ * keeps its own copy of the structure, so these cover the shared core that the other tests do not reach.
+ */
+class KeyedHeapsTest
+{
+    @Test
+    void longHeapMatchesPriorityQueue() {
+        Random random = new Random(31);
+        for (int round = 0; round < 200; round++) {
+            LongFibonacciHeap<Integer> heap = new LongFibonacciHeap<>();
+            PriorityQueue<Long> expected = new PriorityQueue<>();
+            List<LongFibonacciHeap.HeapNode<Integer>> live = new ArrayList<>();
+            int range = 1 + random.nextInt(1000);
+            for (int i = 0; i < 600; i++) {
+                int op = random.nextInt(10);
+                if (live.isEmpty() || op < 4) {
+                    long key = random.nextInt(range) - range / 2L;
+                    live.add(heap.insert(key, i));
+                    expected.add(key);
+                }
+                else if (op < 6) {
+                    LongFibonacciHeap.HeapNode<Integer> min = heap.deleteMin();
+                    assertEquals(expected.poll().longValue(), min.getKey());
+                    assertTrue(live.remove(min));
+                }
+                else if (op < 9) {
+                    LongFibonacciHeap.HeapNode<Integer> node = live.get(random.nextInt(live.size()));
+                    long delta = random.nextInt(range / 4 + 1);
+                    assertTrue(expected.remove(node.getKey()));
+                    expected.add(node.getKey() - delta);
+                    heap.decreaseKey(node, delta);
+                }
+                else {
+                    LongFibonacciHeap.HeapNode<Integer> node = live.remove(random.nextInt(live.size()));
+                    assertTrue(expected.remove(node.getKey()));
+                    heap.delete(node);
+                }
+                checkStructure(heap);
+                assertEquals(expected.size(), heap.size());
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.peek().longValue(), heap.findMin().getKey());
+                }
+            }
+            while (!expected.isEmpty()) {
+                assertEquals(expected.poll().longValue(), heap.deleteMin().getKey());
+                checkStructure(heap);
+            }
+            assertNull(heap.findMin());
+        }
+    }
+
+    @Test
+    void comparatorHeapMeldsAndDrainsInOrder() {
+        Random random = new Random(32);
+        Comparator<String> order = Comparator.comparing(String::length).thenComparing(Comparator.reverseOrder());
+        for (int round = 0; round < 200; round++) {
+            List<ComparatorFibonacciHeap<String, Integer>> heaps = new ArrayList<>();
+            List<PriorityQueue<String>> expected = new ArrayList<>();
+            for (int h = 0; h < 2; h++) {
+                heaps.add(new ComparatorFibonacciHeap<>(order));
+                expected.add(new PriorityQueue<>(order));
+            }
+            for (int i = 0; i < 300; i++) {
+                int h = random.nextInt(2);
+                if (expected.get(h).isEmpty() || random.nextInt(4) > 0) {
+                    String key = Integer.toString(random.nextInt(100000), 36);
+                    heaps.get(h).insert(key, i);
+                    expected.get(h).add(key);
+                }
+                else {
+                    // consolidates the heap, so the meld joins linked trees
+                    assertEquals(expected.get(h).poll(), heaps.get(h).deleteMin().getKey());
+                }
+                checkStructure(heaps.get(h));
+            }
+            ComparatorFibonacciHeap<String, Integer> heap = heaps.get(0);
+            heap.meld(heaps.get(1));
+            expected.get(0).addAll(expected.get(1));
+            checkStructure(heap);
+            while (!expected.get(0).isEmpty()) {
+                assertEquals(expected.get(0).poll(), heap.deleteMin().getKey());
+                checkStructure(heap);
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    void doubleHeapOrdersNaNAndSignedZerosLikeDoubleCompare() {
+        double[][] orders = {
+                {5, Double.NaN, 1, 3},
+                {Double.NaN, 5, 1, 3},
+                {0.0, Double.NaN, -0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NaN},
+        };
+        for (double[] keys : orders) {
+            DoubleFibonacciHeap<Integer> heap = new DoubleFibonacciHeap<>();
+            for (int i = 0; i < keys.length; i++) {
+                heap.insert(keys[i], i);
+            }
+            double[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            for (double key : sorted) {
+                checkStructure(heap);
+                assertEquals(key, heap.deleteMin().getKey());
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    void doubleHeapMatchesPriorityQueue() {
+        Random random = new Random(33);
+        for (int round = 0; round < 200; round++) {
+            DoubleFibonacciHeap<Integer> heap = new DoubleFibonacciHeap<>();
+            PriorityQueue<Double> expected = new PriorityQueue<>();
+            List<DoubleFibonacciHeap.HeapNode<Integer>> live = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                int op = random.nextInt(10);
+                if (live.isEmpty() || op < 5) {
+                    double key = random.nextInt(20) == 0 ? Double.NaN : random.nextInt(200) / 4.0;
+                    live.add(heap.insert(key, i));
+                    expected.add(key);
+                }
+                else if (op < 7) {
+                    DoubleFibonacciHeap.HeapNode<Integer> min = heap.deleteMin();
+                    assertEquals(expected.poll(), min.getKey());
+                    assertTrue(live.remove(min));
+                }
+                else if (op < 9) {
+                    DoubleFibonacciHeap.HeapNode<Integer> node = live.get(random.nextInt(live.size()));
+                    double delta = random.nextInt(40) / 4.0;
+                    assertTrue(expected.remove(node.getKey()));
+                    expected.add(node.getKey() - delta);
+                    heap.decreaseKey(node, delta);
+                }
+                else {
+                    DoubleFibonacciHeap.HeapNode<Integer> node = live.remove(random.nextInt(live.size()));
+                    assertTrue(expected.remove(node.getKey()));
+                    heap.delete(node);
+                }
+                checkStructure(heap);
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.peek(), heap.findMin().getKey());
+                }
+            }
+        }
+    }
+
+    @Test
+    void doubleHeapRejectsANaNDelta() {
+        DoubleFibonacciHeap<Integer> heap = new DoubleFibonacciHeap<>();
+        DoubleFibonacciHeap.HeapNode<Integer> node = heap.insert(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(node, Double.NaN));
+        assertEquals(1, node.getKey());
+    }
+
+    /**
+     * checks the links, the ranks, the counters and the minimum of heap, and the heap order with less().
+     */
+    private static <N extends AbstractFibonacciHeap.Node<N>> void checkStructure(AbstractFibonacciHeap<N> heap) {
+        if (heap.isEmpty()) {
+            assertNull(heap.findMin());
+            assertNull(heap.getFirst());
+            assertEquals(0, heap.size());
+            return;
+        }
+        int[] counts = new int[2];
+        int roots = 0;
+        N root = heap.getFirst();
+        do {
+            assertNull(root.getParent(), "root with a parent");
+            assertSame(root, root.getNext().getPrev(), "root links");
+            assertTrue(!heap.less(root, heap.findMin()), "min_node is not minimal");
+            checkTree(heap, root, counts);
+            roots++;
+            root = root.getNext();
+        } while (root != heap.getFirst());
+        assertNull(heap.findMin().getParent(), "min_node is not a root");
+        assertEquals(counts[0], heap.size(), "size");
+        assertEquals(roots, heap.getRootsNum(), "roots");
+        assertEquals(counts[1], heap.getMarkedNum(), "marked");
+    }
+
+    private static <N extends AbstractFibonacciHeap.Node<N>> void checkTree(AbstractFibonacciHeap<N> heap, N node,
+                                                                          int[] counts) {
+        counts[0]++;
+        if (node.getMarked()) {
+            counts[1]++;
+        }
+        int rank = 0;
+        N child = node.getChild();
+        if (child != null) {
+            do {
+                assertSame(node, child.getParent(), "parent pointer");
+                assertSame(child, child.getNext().getPrev(), "child links");
+                assertTrue(!heap.less(child, node), "heap order");
+                checkTree(heap, child, counts);
+                rank++;
+                child = child.getNext();
+            } while (child != node.getChild());
+        }
+        assertEquals(rank, node.getRank(), "rank");
+    }
+}
@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests of the operation counters and the latency histograms: every public call is counted and timed once, under
+ * the operation that was called.
+ */
+class MetricsTest
+{
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteIsCountedAndTimedOnlyAsADelete(boolean lazy) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.setLazyDelete(lazy);
+        heap.setLatencyHistogramsEnabled(true);
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[32];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = heap.insert(i);
+        }
+        heap.deleteMin();
+        // the minimum, a root and a child after the consolidation
+        heap.delete(heap.findMin());
+        heap.delete(nodes[31]);
+        heap.delete(nodes[10]);
+        heap.decreaseKey(nodes[20], 100);
+        HeapInvariants.check(heap);
+        FibonacciHeapMetrics metrics = heap.metrics();
+        assertEquals(32, metrics.getInserts());
+        assertEquals(1, metrics.getDeleteMins());
+        assertEquals(3, metrics.getDeletes());
+        assertEquals(1, metrics.getDecreaseKeys());
+        assertEquals(32, heap.getLatencyHistogram(FibonacciHeap.Operation.INSERT).getCount());
+        assertEquals(1, heap.getLatencyHistogram(FibonacciHeap.Operation.DELETE_MIN).getCount());
+        assertEquals(3, heap.getLatencyHistogram(FibonacciHeap.Operation.DELETE).getCount());
+        assertEquals(1, heap.getLatencyHistogram(FibonacciHeap.Operation.DECREASE_KEY).getCount());
+    }
+}
@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of parallelFromArray and meldAll on inputs large enough to be split between the threads of the common
+ * ForkJoinPool, and on the empty and single heap inputs.
+ */
+class ParallelBuildTest
+{
+    // several times the size below which a range is built sequentially
+    private static final int KEYS = 200_000;
+
+    @Test
+    void parallelFromArrayBuildsAConsolidatedHeapWithTheHandles() {
+        Random random = new Random(14);
+        int[] keys = random.ints(KEYS, 0, KEYS / 4).toArray();
+        FibonacciHeap.HeapNode[] handles = new FibonacciHeap.HeapNode[KEYS];
+        FibonacciHeap heap = FibonacciHeap.parallelFromArray(keys, handles);
+        HeapInvariants.check(heap);
+        assertEquals(KEYS, heap.size());
+        assertConsolidated(heap);
+        Set<FibonacciHeap.HeapNode> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < KEYS; i++) {
+            assertNotNull(handles[i], "handle " + i);
+            assertEquals(keys[i], handles[i].getKey(), "handle " + i);
+            assertTrue(distinct.add(handles[i]), "handle " + i + " is given twice");
+        }
+        // the handles reach the nodes of the heap
+        int[] expected = keys.clone();
+        for (int i = 0; i < KEYS; i += 97) {
+            heap.decreaseKey(handles[i], 10);
+            expected[i] -= 10;
+        }
+        for (int i = 1; i < KEYS; i += 101) {
+            heap.delete(handles[i]);
+            expected[i] = Integer.MAX_VALUE;
+        }
+        HeapInvariants.check(heap);
+        Arrays.sort(expected);
+        assertDrainsTo(Arrays.copyOf(expected, heap.size()), heap);
+    }
+
+    @Test
+    void parallelFromArrayMatchesFromArray() {
+        Random random = new Random(15);
+        int[] keys = random.ints(KEYS + 123).toArray();
+        FibonacciHeap heap = FibonacciHeap.parallelFromArray(keys);
+        assertEquals(keys.length, heap.size());
+        assertArrayEquals(FibonacciHeap.fromArray(keys).countersRep(), heap.countersRep());
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        assertDrainsTo(sorted, heap);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> FibonacciHeap.parallelFromArray(keys, new FibonacciHeap.HeapNode[keys.length - 1]));
+        assertTrue(FibonacciHeap.parallelFromArray(new int[0]).isEmpty());
+    }
+
+    @Test
+    void meldAllMeldsAndConsolidatesTheHeaps() {
+        Random random = new Random(16);
+        FibonacciHeap[] heaps = new FibonacciHeap[40];
+        int[] keys = new int[0];
+        for (int i = 0; i < heaps.length; i++) {
+            heaps[i] = new FibonacciHeap();
+            // some of the heaps are empty
+            int[] heap_keys = random.ints(i % 3 == 0 ? 0 : random.nextInt(2 * KEYS / heaps.length)).toArray();
+            for (int key : heap_keys) {
+                heaps[i].insert(key);
+            }
+            keys = concat(keys, heap_keys);
+        }
+        FibonacciHeap heap = FibonacciHeap.meldAll(heaps);
+        assertSame(heaps[0], heap);
+        HeapInvariants.check(heap);
+        assertEquals(keys.length, heap.size());
+        assertConsolidated(heap);
+        Arrays.sort(keys);
+        assertDrainsTo(keys, heap);
+    }
+
+    @Test
+    void meldAllOfNoHeapOrOfOneHeap() {
+        FibonacciHeap empty = FibonacciHeap.meldAll();
+        assertTrue(empty.isEmpty());
+        HeapInvariants.check(empty);
+        empty.insert(1);
+        assertEquals(1, empty.findMin().getKey());
+
+        FibonacciHeap single = new FibonacciHeap();
+        assertSame(single, FibonacciHeap.meldAll(single));
+        assertTrue(single.isEmpty());
+        for (int key = 100; key > 0; key--) {
+            single.insert(key);
+        }
+        assertSame(single, FibonacciHeap.meldAll(single));
+        HeapInvariants.check(single);
+        assertConsolidated(single);
+        int[] keys = new int[100];
+        Arrays.setAll(keys, i -> i + 1);
+        assertDrainsTo(keys, single);
+    }
+
+    // every rank has at most one tree
+    private static void assertConsolidated(FibonacciHeap heap) {
+        int[] counters = heap.countersRep();
+        for (int rank = 0; rank < counters.length; rank++) {
+            assertTrue(counters[rank] <= 1, counters[rank] + " trees of rank " + rank);
+        }
+    }
+
+    private static void assertDrainsTo(int[] sorted, FibonacciHeap heap) {
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], heap.findMin().getKey(), "key " + i);
+            heap.deleteMin();
+            assertEquals(sorted.length - i - 1, heap.size());
+        }
+        assertTrue(heap.isEmpty());
+        HeapInvariants.check(heap);
+    }
+
+    private static int[] concat(int[] keys1, int[] keys2) {
+        int[] keys = Arrays.copyOf(keys1, keys1.length + keys2.length);
+        System.arraycopy(keys2, 0, keys, keys1.length, keys2.length);
+        return keys;
+    }
+}
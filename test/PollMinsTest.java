@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of pollMins and pollMinNodes against java.util.PriorityQueue, for every k from none of the
+ * keys to more than all of them.
+ */
+class PollMinsTest
+{
+    @Test
+    void pollMinsMatchesPriorityQueue() {
+        Random random = new Random(8);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            // a small range gives many duplicate keys
+            int range = 1 + random.nextInt(round % 2 == 0 ? 10 : 1000);
+            for (int i = 0; i < 10; i++) {
+                model.randomOps(random, random.nextInt(200), range);
+                model.pollMins(randomK(random, model.size()));
+                model.check();
+                model.randomOps(random, random.nextInt(200), range);
+                model.pollMinNodes(randomK(random, model.size()));
+                model.check();
+            }
+            model.drain();
+        }
+    }
+
+    @Test
+    void pollMinsOfNothingAndOfEverything() {
+        Random random = new Random(9);
+        HeapModel model = new HeapModel(new FibonacciHeap());
+        model.pollMins(0);
+        model.pollMins(3);
+        model.pollMinNodes(3);
+        model.check();
+        model.randomOps(random, 300, 5);
+        int size = model.size();
+        long delete_mins = model.heap.metrics().getDeleteMins();
+        model.pollMins(0);
+        model.pollMinNodes(0);
+        assertEquals(size, model.heap.size());
+        assertEquals(delete_mins, model.heap.metrics().getDeleteMins());
+        model.pollMinNodes(1);
+        model.pollMins(1);
+        model.check();
+        assertEquals(size - 2, model.heap.size());
+        assertEquals(delete_mins + 2, model.heap.metrics().getDeleteMins());
+        model.pollMins(size);
+        model.check();
+        assertTrue(model.heap.isEmpty());
+        // the emptied heap is usable again
+        model.randomOps(random, 100, 5);
+        model.pollMinNodes(model.size() + 1);
+        model.check();
+        assertTrue(model.heap.isEmpty());
+    }
+
+    // 0, 1, a part of the heap, all of it or more than all of it
+    private static int randomK(Random random, int size) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return 0;
+            case 1:
+                return 1;
+            case 2:
+                return random.nextInt(size + 1);
+            case 3:
+                return size;
+            default:
+                return size + 1 + random.nextInt(5);
+        }
+    }
+}
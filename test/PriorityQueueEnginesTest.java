@@ -0,0 +1,170 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Differential tests of every AddressablePriorityQueue engine against java.util.PriorityQueue. The keys never go
+ * below the last deleted key, so the same workload runs on the radix heap too.
+ */
+class PriorityQueueEnginesTest
+{
+    @ParameterizedTest
+    @EnumSource(PriorityQueueFactory.Engine.class)
+    void engineMatchesPriorityQueue(PriorityQueueFactory.Engine engine) {
+        Random random = new Random(13);
+        for (int round = 0; round < 100; round++) {
+            Model<AddressablePriorityQueue.Handle> model = new Model<>(PriorityQueueFactory.create(engine));
+            int range = 1 + random.nextInt(1000);
+            for (int i = 0; i < 20; i++) {
+                model.randomOps(random, random.nextInt(60), range);
+                // a fresh queue of the same engine, with keys no smaller than the last deleted one
+                Model<AddressablePriorityQueue.Handle> other = new Model<>(PriorityQueueFactory.create(engine));
+                other.floor = model.floor;
+                other.randomOps(random, random.nextInt(30), range, false);
+                model.meld(other);
+                model.check();
+            }
+            model.drain();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PriorityQueueFactory.Engine.class)
+    void engineMeldsEmptyQueues(PriorityQueueFactory.Engine engine) {
+        Model<AddressablePriorityQueue.Handle> model = new Model<>(PriorityQueueFactory.create(engine));
+        model.meld(new Model<>(PriorityQueueFactory.create(engine)));
+        model.check();
+        assertNull(model.queue.findMin());
+        Model<AddressablePriorityQueue.Handle> other = new Model<>(PriorityQueueFactory.create(engine));
+        other.insert(4);
+        other.insert(2);
+        model.meld(other);
+        model.check();
+        model.drain();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void enginesRejectQueuesOfAnotherEngine() {
+        for (PriorityQueueFactory.Engine engine : PriorityQueueFactory.Engine.values()) {
+            for (PriorityQueueFactory.Engine other : PriorityQueueFactory.Engine.values()) {
+                if (engine != other) {
+                    AddressablePriorityQueue queue = PriorityQueueFactory.create(engine);
+                    AddressablePriorityQueue queue2 = PriorityQueueFactory.create(other);
+                    queue2.insert(1);
+                    assertThrows(IllegalArgumentException.class, () -> queue.meld(queue2), engine + " <- " + other);
+                }
+            }
+        }
+    }
+
+    @Test
+    void radixHeapRejectsKeysBelowTheLastDeleted() {
+        RadixHeap heap = new RadixHeap();
+        assertEquals(Integer.MIN_VALUE, heap.lastDeleted());
+        RadixHeap.Node node = heap.insert(20);
+        heap.insert(10);
+        heap.deleteMin();
+        assertEquals(10, heap.lastDeleted());
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(9));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(node, 11));
+        assertEquals(20, node.getKey());
+        RadixHeap heap2 = new RadixHeap();
+        heap2.insert(5);
+        assertThrows(IllegalArgumentException.class, () -> heap.meld(heap2));
+        // the key equal to the last deleted one is allowed
+        heap.insert(10);
+        heap.decreaseKey(node, 10);
+        assertEquals(10, heap.findMin().getKey());
+        assertEquals(2, heap.size());
+    }
+
+    /**
+     * a queue of some engine with the handles of its live entries and a PriorityQueue of the same keys. floor is
+     * the last deleted key, which no key goes below.
+     */
+    private static final class Model<H extends AddressablePriorityQueue.Handle>
+    {
+        final AddressablePriorityQueue<H> queue;
+        final PriorityQueue<Integer> expected = new PriorityQueue<>();
+        final List<H> live = new ArrayList<>();
+        int floor;
+
+        Model(AddressablePriorityQueue<H> queue) {
+            this.queue = queue;
+        }
+
+        void insert(int key) {
+            this.live.add(this.queue.insert(key));
+            this.expected.add(key);
+        }
+
+        void randomOps(Random random, int count, int range) {
+            this.randomOps(random, count, range, true);
+        }
+
+        void randomOps(Random random, int count, int range, boolean remove) {
+            for (int i = 0; i < count; i++) {
+                int op = random.nextInt(10);
+                if (this.live.isEmpty() || op < 4) {
+                    this.insert(this.floor + random.nextInt(range));
+                }
+                else if (op < 6 && remove) {
+                    this.deleteMin();
+                }
+                else if (op < 9) {
+                    H handle = this.live.get(random.nextInt(this.live.size()));
+                    int delta = random.nextInt(handle.getKey() - this.floor + 1);
+                    assertTrue(this.expected.remove(handle.getKey()));
+                    this.expected.add(handle.getKey() - delta);
+                    this.queue.decreaseKey(handle, delta);
+                }
+                else if (remove) {
+                    H handle = this.live.remove(random.nextInt(this.live.size()));
+                    assertTrue(this.expected.remove(handle.getKey()));
+                    this.queue.delete(handle);
+                }
+                this.check();
+            }
+        }
+
+        void deleteMin() {
+            H min = this.queue.findMin();
+            this.floor = this.expected.poll();
+            assertEquals(this.floor, min.getKey());
+            assertTrue(this.live.remove(min));
+            this.queue.deleteMin();
+        }
+
+        void meld(Model<H> other) {
+            this.queue.meld(other.queue);
+            this.live.addAll(other.live);
+            this.expected.addAll(other.expected);
+        }
+
+        void check() {
+            assertEquals(this.expected.size(), this.queue.size());
+            assertEquals(this.expected.isEmpty(), this.queue.isEmpty());
+            if (!this.expected.isEmpty()) {
+                assertEquals(this.expected.peek().intValue(), this.queue.findMin().getKey());
+            }
+        }
+
+        void drain() {
+            while (!this.expected.isEmpty()) {
+                this.deleteMin();
+                this.check();
+            }
+            assertNull(this.queue.findMin());
+        }
+    }
+}
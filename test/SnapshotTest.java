@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests of the snapshots of FibonacciHeap, taken on demand and published every few changes.
+ */
+class SnapshotTest
+{
+    @Test
+    void snapshotHoldsTheStateOfTheHeapAndKeepsIt() {
+        Random random = new Random(22);
+        for (int round = 0; round < 200; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            model.randomOps(random, 1 + random.nextInt(800), 1 + random.nextInt(1000));
+            FibonacciHeap heap = model.heap;
+            int k = random.nextInt(40);
+            FibonacciHeapSnapshot snapshot = heap.snapshot(k);
+            assertSame(snapshot, heap.lastSnapshot());
+            int[] keys = HeapInvariants.keys(heap);
+            Arrays.sort(keys);
+            int[] counters = heap.countersRep();
+            assertEquals(heap.size(), snapshot.size());
+            assertEquals(heap.getRootsNum(), snapshot.getRootsNum());
+            assertEquals(heap.getMarkedNum(), snapshot.getMarkedNum());
+            assertEquals(heap.potential(), snapshot.potential());
+            assertArrayEquals(counters, snapshot.countersRep());
+            int[] top = Arrays.copyOf(keys, Math.min(k, keys.length));
+            assertArrayEquals(top, snapshot.topK(k));
+            assertArrayEquals(Arrays.copyOf(top, Math.min(2, top.length)), snapshot.topK(2));
+            if (heap.isEmpty()) {
+                assertThrows(NoSuchElementException.class, snapshot::getMinKey);
+            }
+            else {
+                assertEquals(keys[0], snapshot.getMinKey());
+            }
+            // the heap goes on changing, the snapshot doesn't
+            int version = snapshot.getVersion();
+            int size = heap.size();
+            model.randomOps(random, 1 + random.nextInt(100), 1000);
+            model.check();
+            assertEquals(size, snapshot.size());
+            assertArrayEquals(counters, snapshot.countersRep());
+            assertArrayEquals(top, snapshot.topK(k));
+            assertEquals(version, snapshot.getVersion());
+            assertNotEquals(version, heap.snapshot(0).getVersion());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void snapshotIsPublishedAfterExactlyTheGivenChanges(boolean lazy) {
+        Random random = new Random(21);
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.setLazyDelete(lazy);
+        HeapModel model = new HeapModel(heap);
+        model.randomOps(random, 500, 1000);
+        int changes = 5;
+        heap.setSnapshotInterval(changes, 3);
+        FibonacciHeapSnapshot last = heap.lastSnapshot();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < changes; i++) {
+                assertSame(last, heap.lastSnapshot(), "published after " + i + " changes");
+                // every kind of change counts once, deletes of the minimum and of other nodes included
+                switch (model.size() < 10 ? 0 : random.nextInt(5)) {
+                    case 0:
+                        model.insert(random.nextInt(1000));
+                        break;
+                    case 1:
+                        model.deleteMin();
+                        break;
+                    case 2:
+                        model.decreaseKey(model.randomNode(random), random.nextInt(100));
+                        break;
+                    case 3:
+                        model.delete(heap.findMin());
+                        break;
+                    default:
+                        model.delete(model.randomNode(random));
+                        break;
+                }
+            }
+            assertNotSame(last, heap.lastSnapshot(), "not published after " + changes + " changes");
+            last = heap.lastSnapshot();
+        }
+        heap.setSnapshotInterval(0, 3);
+        model.insert(1);
+        assertSame(last, heap.lastSnapshot());
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of topK, kMin and ascending: they return the smallest keys in ascending order and leave the heap as it was.
+ */
+class TopKTest
+{
+    @Test
+    void topKIsThePrefixOfTheSortedKeysAndLeavesTheHeapUnchanged() {
+        Random random = new Random(9);
+        for (int round = 0; round < 300; round++) {
+            HeapModel model = new HeapModel(new FibonacciHeap());
+            int range = 1 + random.nextInt(round % 2 == 0 ? 10 : 1000);
+            model.randomOps(random, random.nextInt(800), range);
+            FibonacciHeap heap = model.heap;
+            int[] keys = HeapInvariants.keys(heap);
+            for (int k : new int[] {0, 1, random.nextInt(keys.length + 1), keys.length, keys.length + 3}) {
+                int[] counters = heap.countersRep();
+                int potential = heap.potential();
+                FibonacciHeap.HeapNode min = heap.findMin();
+                FibonacciHeap.HeapNode first = heap.getFirst();
+                int count = Math.min(k, keys.length);
+                int[] out = new int[k];
+                assertEquals(count, heap.topK(k, out));
+                assertArrayEquals(Arrays.copyOf(keys, count), Arrays.copyOf(out, count));
+                // kMin pads with zeros when the heap has fewer than k keys
+                assertArrayEquals(Arrays.copyOf(keys, count), Arrays.copyOf(FibonacciHeap.kMin(heap, k), count));
+                assertEquals(k, FibonacciHeap.kMin(heap, k).length);
+                assertArrayEquals(Arrays.copyOf(keys, count), first(heap.ascending(), count));
+                assertArrayEquals(counters, heap.countersRep());
+                assertEquals(potential, heap.potential());
+                assertSame(min, heap.findMin());
+                assertSame(first, heap.getFirst());
+                model.check();
+            }
+            assertArrayEquals(keys, first(heap.ascending(), keys.length));
+            // the heap works as before the traversals
+            model.randomOps(random, random.nextInt(200), range);
+            model.drain();
+        }
+    }
+
+    @Test
+    void ascendingEndsAfterTheLastKey() {
+        FibonacciHeap heap = new FibonacciHeap();
+        assertFalse(heap.ascending().hasNext());
+        assertEquals(0, heap.topK(5, new int[5]));
+        heap.insert(7);
+        heap.insert(3);
+        PrimitiveIterator.OfInt ascending = heap.ascending();
+        assertEquals(3, ascending.nextInt());
+        assertEquals(7, ascending.nextInt());
+        assertFalse(ascending.hasNext());
+        assertThrows(NoSuchElementException.class, ascending::nextInt);
+    }
+
+    private static int[] first(PrimitiveIterator.OfInt iterator, int count) {
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = iterator.nextInt();
+        }
+        return keys;
+    }
+}